@@ -0,0 +1,63 @@
+// CompareDialog.java
+// Side-by-side view of a Comparison: a metrics table on top and one Gantt lane per run,
+// all drawn at the same scale so the timelines line up.
+
+import javax.swing.*;
+import javax.swing.table.DefaultTableModel;
+import java.awt.*;
+import java.util.List;
+
+public class CompareDialog extends JDialog {
+
+    public CompareDialog(Frame owner, List<Comparison.Run> runs) {
+        super(owner, "Compare All Algorithms", false);
+        setSize(1000, 700);
+
+        String[] cols = {"Algorithm", "Avg Waiting", "P95 Waiting", "Avg Turnaround", "Avg Response", "Makespan",
+                "Utilization", "Throughput", "Context Switches"};
+        DefaultTableModel model = new DefaultTableModel(cols, 0) {
+            @Override public boolean isCellEditable(int row, int col) {
+                return false;
+            }
+        };
+        int maxTime = 1;
+        for (Comparison.Run r : runs) {
+            model.addRow(new Object[] {
+                    r.name,
+                    String.format("%.2f", r.metrics.get("avgWaiting")),
+                    String.format("%.0f", r.metrics.get("p95Waiting")),
+                    String.format("%.2f", r.metrics.get("avgTurnaround")),
+                    String.format("%.2f", r.metrics.get("avgResponse")),
+                    String.format("%.0f", r.metrics.get("totalTime")),
+                    String.format("%.1f%%", 100 * r.metrics.get("utilization")),
+                    String.format("%.4f", r.metrics.get("throughput")),
+                    String.format("%.0f", r.metrics.get("contextSwitches"))});
+            maxTime = Math.max(maxTime, r.result.gantt.endTime());
+        }
+        JTable table = new JTable(model);
+        table.setRowHeight(22);
+        JScrollPane tableScroll = new JScrollPane(table);
+        tableScroll.setPreferredSize(new Dimension(980, 22 * (runs.size() + 2)));
+
+        // stacked lanes share one scale, fitted to the longest run
+        double scale = Math.min(30, 800.0 / maxTime);
+        JPanel lanes = new JPanel();
+        lanes.setLayout(new BoxLayout(lanes, BoxLayout.Y_AXIS));
+        for (Comparison.Run r : runs) {
+            GanttPanel lane = new GanttPanel();
+            lane.setTitle(r.name);
+            lane.setGantt(r.result.gantt);
+            lane.setScale(scale);
+            lanes.add(lane);
+        }
+        JScrollPane laneScroll = new JScrollPane(lanes);
+        laneScroll.getVerticalScrollBar().setUnitIncrement(16);
+
+        JPanel content = new JPanel(new BorderLayout(8, 8));
+        content.setBorder(BorderFactory.createEmptyBorder(8, 8, 8, 8));
+        content.add(tableScroll, BorderLayout.NORTH);
+        content.add(laneScroll, BorderLayout.CENTER);
+        setContentPane(content);
+        setLocationRelativeTo(owner);
+    }
+}
@@ -0,0 +1,54 @@
+// Comparison.java
+// Runs every Scheduler algorithm, with a sweep of quanta for those that take one, against the
+// same input. The runs are independent (each algorithm copies its input), so they are
+// executed concurrently on the common fork-join pool.
+
+import java.util.*;
+import java.util.List;
+import java.util.concurrent.*;
+
+public class Comparison {
+    public static final int[] DEFAULT_QUANTA = {1, 2, 4, 8, 16};
+
+    public static class Run {
+        public final String name;
+        public final Scheduler.Result result;
+        public final Map<String, Double> metrics;
+
+        Run(String name, Scheduler.Result result) {
+            this.name = name;
+            this.result = result;
+            this.metrics = Scheduler.computeMetrics(result);
+        }
+    }
+
+    // Results come back in the order of Scheduler.ALGORITHMS, with one run per quantum for
+    // quantum-based policies.
+    public static List<Run> runAll(List<ProcessModel> input, int[] quanta, SimulationMonitor monitor)
+            throws InterruptedException, ExecutionException {
+        return runAll(input, quanta, new SimulationConfig(0, monitor));
+    }
+
+    // as above, with the other settings (switch costs, MLFQ levels, ...) taken from base
+    public static List<Run> runAll(List<ProcessModel> input, int[] quanta, SimulationConfig base)
+            throws InterruptedException, ExecutionException {
+        List<ProcessModel> procs = Collections.unmodifiableList(new ArrayList<>(input));
+        List<Callable<Run>> tasks = new ArrayList<>();
+        for (String algo : Scheduler.ALGORITHMS) {
+            if (SchedulingPolicies.usesQuantum(algo)) {
+                for (int q : quanta) {
+                    SimulationConfig config = base.copy();
+                    config.quantum = q;
+                    tasks.add(() -> new Run(algo + " (q=" + q + ")", Scheduler.run(algo, procs, config)));
+                }
+            } else {
+                tasks.add(() -> new Run(algo, Scheduler.run(algo, procs, base)));
+            }
+        }
+        List<Run> runs = new ArrayList<>();
+        for (Future<Run> f : ForkJoinPool.commonPool().invokeAll(tasks)) {
+            runs.add(f.get());
+        }
+        return runs;
+    }
+}
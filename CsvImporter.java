@@ -0,0 +1,306 @@
+// CsvImporter.java
+// Loads a PID,Arrival,Burst,Priority,Color CSV into a ProcessTable. The file is split into
+// chunks on line boundaries, each chunk is memory-mapped with NIO and parsed in parallel
+// straight from bytes (no per-field String allocation), and the per-chunk tables are
+// concatenated in file order. Priority and Color are optional; a header line whose first
+// field is "PID" is skipped, and a PID may be quoted as the CSV export quotes it ("" for a
+// quote, no line breaks). Rows are checked as the Add Process form checks them (arrival
+// >= 0, burst > 0); malformed or invalid rows fail with a ParseException at their byte offset.
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+public class CsvImporter {
+    private static final long MAX_CHUNK = 64L << 20; // bytes mapped per task
+    private static final long MIN_CHUNK = 1L << 20;
+
+    public static ProcessTable load(Path file) throws IOException, ParseException {
+        return load(file, ForkJoinPool.commonPool());
+    }
+
+    public static ProcessTable load(Path file, ExecutorService pool) throws IOException, ParseException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = ch.size();
+            long[] bounds = chunkBounds(ch, size, Runtime.getRuntime().availableProcessors());
+            List<Callable<ProcessTable>> tasks = new ArrayList<>();
+            for (int k = 0; k + 1 < bounds.length; k++) {
+                long from = bounds[k], to = bounds[k + 1];
+                tasks.add(() -> new Chunk(ch.map(FileChannel.MapMode.READ_ONLY, from, to - from), from).parse(from == 0));
+            }
+            List<ProcessTable> parts = new ArrayList<>();
+            try {
+                for (Future<ProcessTable> f : pool.invokeAll(tasks)) parts.add(f.get());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IOException("CSV import interrupted", ex);
+            } catch (ExecutionException ex) {
+                rethrow(ex.getCause());
+            } catch (RuntimeException ex) {
+                // the common pool may throw a task's checked exception from invokeAll itself,
+                // wrapped in RuntimeExceptions
+                rethrow(ex);
+            }
+            return ProcessTable.concat(parts);
+        }
+    }
+
+    // a chunk task's failure as the task threw it; the pool may have wrapped it more than once
+    private static void rethrow(Throwable cause) throws IOException, ParseException {
+        for (Throwable t = cause; t != null; t = t.getCause()) {
+            if (t instanceof IOException) throw (IOException) t;
+            if (t instanceof ParseException) throw (ParseException) t;
+        }
+        if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+        if (cause instanceof Error) throw (Error) cause;
+        throw new IOException(cause);
+    }
+
+    // true for a header line: its first field is PID (a row like "PID1,0,5" is data)
+    static boolean isHeader(String line) {
+        int comma = line.indexOf(',');
+        return (comma < 0 ? line : line.substring(0, comma)).trim().equals("PID");
+    }
+
+    // Reads the PID field of a line (quoted or not) into pid and returns the index of the comma
+    // after it, or -1 when there is none or a quoted PID is not closed before it.
+    static int pidField(String line, StringBuilder pid) {
+        int i = 0;
+        while (i < line.length() && (line.charAt(i) == ' ' || line.charAt(i) == '\t')) i++;
+        if (i == line.length() || line.charAt(i) != '"') {
+            int comma = line.indexOf(',');
+            if (comma >= 0) pid.append(line.substring(0, comma).trim());
+            return comma;
+        }
+        for (i++; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c != '"') {
+                pid.append(c);
+            } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                pid.append('"');
+                i++;
+            } else {
+                int comma = i + 1;
+                while (comma < line.length() && (line.charAt(comma) == ' ' || line.charAt(comma) == '\t')) comma++;
+                return comma < line.length() && line.charAt(comma) == ',' ? comma : -1;
+            }
+        }
+        return -1;
+    }
+
+    // Chunk start offsets plus the file size; every start except 0 follows a '\n'.
+    private static long[] chunkBounds(FileChannel ch, long size, int parallelism) throws IOException {
+        long chunks = Math.max(1, Math.min(size / MIN_CHUNK, parallelism * 4L));
+        chunks = Math.max(chunks, (size + MAX_CHUNK - 1) / MAX_CHUNK);
+        List<Long> bounds = new ArrayList<>();
+        bounds.add(0L);
+        ByteBuffer probe = ByteBuffer.allocate(4096);
+        for (long k = 1; k < chunks; k++) {
+            long pos = Math.max(bounds.get(bounds.size() - 1), size * k / chunks - 1);
+            long next = -1;
+            while (next < 0 && pos < size) {
+                probe.clear();
+                int n = ch.read(probe, pos);
+                if (n <= 0) break;
+                for (int i = 0; i < n; i++) {
+                    if (probe.get(i) == '\n') {
+                        next = pos + i + 1;
+                        break;
+                    }
+                }
+                pos += n;
+            }
+            if (next < 0 || next >= size) break;
+            if (next > bounds.get(bounds.size() - 1)) bounds.add(next);
+        }
+        bounds.add(size);
+        long[] out = new long[bounds.size()];
+        for (int i = 0; i < out.length; i++) out[i] = bounds.get(i);
+        return out;
+    }
+
+    // Byte-level parser over one mapped chunk.
+    private static class Chunk {
+        private final MappedByteBuffer buf;
+        private final long base; // file offset of buf[0], for error messages
+        private final int end;
+        private int pos;
+
+        Chunk(MappedByteBuffer buf, long base) {
+            this.buf = buf;
+            this.base = base;
+            this.end = buf.limit();
+        }
+
+        ProcessTable parse(boolean first) throws ParseException {
+            ProcessTable table = new ProcessTable(Math.max(16, end / 24));
+            if (first) {
+                if (end >= 3 && (buf.get(0) & 0xFF) == 0xEF && (buf.get(1) & 0xFF) == 0xBB && (buf.get(2) & 0xFF) == 0xBF) pos = 3;
+                if (headerLine()) skipLine();
+            }
+            while (pos < end) {
+                skipSpaces();
+                if (pos >= end) break;
+                byte b = buf.get(pos);
+                if (b == '\n' || b == '\r') { // blank line
+                    pos++;
+                    continue;
+                }
+                int rowStart = pos;
+                int pidStart = pos;
+                int pidEnd;
+                byte[] unquoted = null;
+                if (b == '"') {
+                    unquoted = quotedPid();
+                    if (unquoted == null) {
+                        pidStart++;
+                        pidEnd = pos - 1;
+                    } else {
+                        pidEnd = pidStart;
+                    }
+                    skipSpaces();
+                } else {
+                    while (pos < end && buf.get(pos) != ',' && buf.get(pos) != '\n') pos++;
+                    pidEnd = pos;
+                    while (pidEnd > pidStart && (buf.get(pidEnd - 1) & 0xFF) <= ' ') pidEnd--; // not UTF-8 continuation bytes
+                }
+                expect(',');
+                int arrival = nextInt();
+                expect(',');
+                int burst = nextInt();
+                int priority = 0;
+                int rgb = -1;
+                if (pos < end && buf.get(pos) == ',') {
+                    pos++;
+                    priority = nextInt();
+                    if (pos < end && buf.get(pos) == ',') {
+                        pos++;
+                        rgb = nextColor();
+                    }
+                }
+                if (pos < end && buf.get(pos) != ',' && buf.get(pos) != '\r' && buf.get(pos) != '\n') {
+                    throw error("unexpected character");
+                }
+                if (arrival < 0) throw error(rowStart, "arrival must be >= 0, was " + arrival);
+                if (burst <= 0) throw error(rowStart, "burst must be > 0, was " + burst);
+                skipLine();
+                if (unquoted != null) table.add(unquoted, 0, unquoted.length, arrival, burst, priority, rgb);
+                else table.add(buf, pidStart, pidEnd - pidStart, arrival, burst, priority, rgb);
+            }
+            return table;
+        }
+
+        // A quoted PID as ResultExporter writes one: pos is at the opening quote and is left
+        // after the closing one. Returns the PID with "" unescaped, or null when it has no ""
+        // and can be copied straight from the buffer. Line breaks are not allowed inside the
+        // quotes (chunks are split on them).
+        private byte[] quotedPid() throws ParseException {
+            int open = pos++;
+            int escapes = 0;
+            while (true) {
+                if (pos >= end) throw error(open, "unterminated quoted PID");
+                byte c = buf.get(pos);
+                if (c == '\n' || c == '\r') throw error(open, "line break in quoted PID");
+                pos++;
+                if (c != '"') continue;
+                if (pos < end && buf.get(pos) == '"') {
+                    escapes++;
+                    pos++;
+                } else {
+                    break;
+                }
+            }
+            if (escapes == 0) return null;
+            byte[] pid = new byte[pos - open - 2 - escapes];
+            for (int i = open + 1, k = 0; k < pid.length; i++) {
+                pid[k++] = buf.get(i);
+                if (buf.get(i) == '"') i++;
+            }
+            return pid;
+        }
+
+        // first field of the line at pos is PID, allowing spaces around it
+        private boolean headerLine() {
+            int p = pos;
+            while (p < end && (buf.get(p) == ' ' || buf.get(p) == '\t')) p++;
+            if (p + 3 > end || buf.get(p) != 'P' || buf.get(p + 1) != 'I' || buf.get(p + 2) != 'D') return false;
+            for (p += 3; p < end; p++) {
+                byte b = buf.get(p);
+                if (b == ',' || b == '\r' || b == '\n') return true;
+                if (b != ' ' && b != '\t') return false;
+            }
+            return true;
+        }
+
+        private int nextInt() throws ParseException {
+            skipSpaces();
+            boolean negative = pos < end && buf.get(pos) == '-';
+            if (negative) pos++;
+            long v = 0;
+            int digits = 0;
+            while (pos < end) {
+                int d = buf.get(pos) - '0';
+                if (d < 0 || d > 9) break;
+                v = v * 10 + d;
+                if (v > Integer.MAX_VALUE + 1L) throw error("number out of range");
+                digits++;
+                pos++;
+            }
+            if (digits == 0) throw error("expected a number");
+            skipSpaces();
+            v = negative ? -v : v;
+            if (v > Integer.MAX_VALUE) throw error("number out of range");
+            return (int) v;
+        }
+
+        // "#rrggbb" (the '#' is optional); an empty field means no color
+        private int nextColor() throws ParseException {
+            skipSpaces();
+            if (pos < end && buf.get(pos) == '#') pos++;
+            int rgb = 0;
+            int digits = 0;
+            while (pos < end) {
+                int h = Character.digit(buf.get(pos), 16);
+                if (h < 0) break;
+                rgb = (rgb << 4) | h;
+                digits++;
+                pos++;
+            }
+            if (digits == 0) return -1;
+            if (digits != 6) throw error("expected a #rrggbb color");
+            return rgb;
+        }
+
+        private void expect(char c) throws ParseException {
+            if (pos >= end || buf.get(pos) != c) throw error("expected '" + c + "'");
+            pos++;
+        }
+
+        private void skipSpaces() {
+            while (pos < end && (buf.get(pos) == ' ' || buf.get(pos) == '\t')) pos++;
+        }
+
+        // skips the rest of the line (trailing fields, '\r') and the '\n'
+        private void skipLine() {
+            while (pos < end && buf.get(pos) != '\n') pos++;
+            pos++;
+        }
+
+        private ParseException error(String what) {
+            return error(pos, what);
+        }
+
+        // the error offset is the byte in the file, capped to an int for very large files
+        private ParseException error(int at, String what) {
+            long offset = base + at;
+            return new ParseException("Malformed CSV near byte " + offset + ": " + what, (int) Math.min(offset, Integer.MAX_VALUE));
+        }
+    }
+}
@@ -0,0 +1,29 @@
+// FcfsPolicy.java
+// First Come First Served (non-preemptive): a FIFO of arrivals; equal arrivals keep input order.
+
+public class FcfsPolicy implements SchedulingPolicy {
+    private IntRingBuffer queue;
+
+    @Override public String name() { return "FCFS"; }
+    @Override public String id() { return "fcfs"; }
+
+    @Override
+    public void reset(SimulationKernel kernel) {
+        queue = new IntRingBuffer(kernel.processCount());
+    }
+
+    @Override
+    public void onArrival(int p) {
+        queue.add(p);
+    }
+
+    @Override
+    public int pickNext() {
+        return queue.isEmpty() ? -1 : queue.poll();
+    }
+
+    @Override
+    public int[] readySet() {
+        return queue.toArray();
+    }
+}
@@ -1,18 +1,111 @@
 // GanttPanel.java
 // Improved Gantt chart Swing panel: zoomable, rounded bars, better layout.
+// Only the visible clip is painted: the chart is rendered into fixed-width tiles that are
+// kept in a small LRU cache, and each tile draws just the slices found by binary search.
+// When zoomed out below LOD_SCALE, bars are drawn per pixel column from a TimelinePyramid
+// that is built off the EDT whenever a new timeline arrives.
+// Live mode (startLive/append) streams slices in from any thread; they are merged once per
+// frame and only the tiles under the new bars are re-rendered and repainted.
+// exportCopy/writePng render the whole timeline at any scale to a PNG: bands of rows are cut
+// into tiles painted in parallel, and each band is streamed into PngWriter once it is done.
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.geom.RoundRectangle2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 public class GanttPanel extends JPanel {
-    private List<Scheduler.GanttEntry> gantt;
+    private Timeline gantt;
     private static final int ROW_HEIGHT = 40;
     private static final int LEFT_PADDING = 60;
-    private int pixelsPerUnit = 30; // configurable zoom
+    private static final int TILE_WIDTH = 512;
+    private static final int MAX_TILES = 48;
+    private static final int MIN_TICK_SPACING = 24; // px between time labels, grown for wide labels
+    private static final int[] TICK_STEPS = {1, 2, 5};
+    private static final double MIN_SCALE = 1.0 / (1 << 20);
+    private static final double LOD_SCALE = 2; // below this many px/unit draw the summary
+    private static final int FRAME_MILLIS = 16; // live updates are coalesced to ~60 fps
+    private static final int LOD_REBUILD_MILLIS = 500; // min. gap between live summary rebuilds
+    private static final int MAX_FRAME_SLICES = 1 << 16; // per frame, so a flood cannot stall the EDT
+    private static final int EXPORT_HEIGHT = ROW_HEIGHT + 120;
+    private static final int EXPORT_TILE_WIDTH = 2048;
+    private static final int EXPORT_BAND_PIXELS = 1 << 22; // 16 MB of pixels per band in flight
+    private static final int MIN_BAND_ROWS = 4; // every band repaints the bars it crosses
+    public static final int MAX_EXPORT_WIDTH = 1 << 21;
+    private static final ExecutorService LOD_BUILDER = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "gantt-lod");
+        t.setDaemon(true);
+        return t;
+    });
+    private double pixelsPerUnit = 30; // configurable zoom
+    private String title = "Gantt Chart (timeline in time units)";
     private final Font timeFont = new Font("SansSerif", Font.PLAIN, 11);
     private final Font labelFont = new Font("SansSerif", Font.BOLD, 12);
+    private final Color gridColor = new Color(230,230,230);
+    private final Color tickColor = new Color(80,80,80);
+    private final Color defaultBarColor = new Color(180, 180, 180);
+    private final BasicStroke barStroke = new BasicStroke(1f);
+    // strip under each bar of a tagged timeline, e.g. MLFQ level 0 (top) and below
+    private static final Color[] TAG_COLORS = {
+            new Color(46,204,113), new Color(52,152,219), new Color(155,89,182), new Color(241,196,15),
+            new Color(230,126,34), new Color(231,76,60), new Color(127,140,141), new Color(52,73,94)
+    };
+    private int tagCount; // distinct tags 0..tagCount-1 shown in the legend
+
+    // bar paints per color, built on first use; keyed by color rather than process so a
+    // timeline with millions of processes needs no per-process arrays. Concurrent because
+    // export tiles are painted on several threads.
+    private static class BarPaint {
+        final Color fill;
+        final Color outline;
+        final Paint shade;
+
+        BarPaint(Color c, int h) {
+            fill = c;
+            outline = c.darker().darker();
+            shade = new GradientPaint(0, 0, c.brighter(), 0, h, c.darker());
+        }
+    }
+    private final Map<Color, BarPaint> paints = new ConcurrentHashMap<>();
+
+    // rendered tiles keyed by tile column, least recently used evicted first
+    private final Map<Integer, BufferedImage> tiles = new LinkedHashMap<Integer, BufferedImage>(64, 0.75f, true) {
+        @Override protected boolean removeEldestEntry(Map.Entry<Integer, BufferedImage> eldest) {
+            return size() > MAX_TILES;
+        }
+    };
+    private int tileHeight = -1;
+    private double tileScale = 1;
+
+    private TimelinePyramid pyramid;
+    private volatile int lodGeneration;
+    private long lastPyramidBuild;
+
+    // live mode: slices appended from any thread wait here until the next frame
+    private final Object pendingLock = new Object();
+    private List<Scheduler.GanttEntry> pending = new ArrayList<>();
+    private List<Scheduler.GanttEntry> backlog = new ArrayList<>(); // EDT only
+    private int backlogPos;
+    private volatile boolean live;
+    private javax.swing.Timer frameTimer;
+    private boolean followHead;
 
     public GanttPanel() {
         setPreferredSize(new Dimension(900, 220));
@@ -22,105 +115,409 @@ public class GanttPanel extends JPanel {
                 BorderFactory.createEmptyBorder(8,8,8,8)));
     }
 
-    public void setGantt(List<Scheduler.GanttEntry> gantt) {
+    // unshown copy of the chart at another scale, for writePng; its timeline is a read-only
+    // view, so live appends to this panel do not race the export
+    private GanttPanel(GanttPanel source, double pixelsPerUnit) {
+        this();
+        this.gantt = source.gantt == null ? null : source.gantt.range(0, Integer.MAX_VALUE);
+        this.title = source.title;
+        this.tagCount = source.tagCount;
+        this.pixelsPerUnit = Math.max(MIN_SCALE, pixelsPerUnit);
+    }
+
+    public void setGantt(Timeline gantt) {
+        live = false;
+        if (frameTimer != null) frameTimer.stop();
+        synchronized (pendingLock) {
+            pending = new ArrayList<>();
+        }
+        backlog = new ArrayList<>();
+        backlogPos = 0;
         this.gantt = gantt;
+        tagCount = 0;
+        if (gantt != null && gantt.hasTags()) {
+            for (int i = 0; i < gantt.size(); i++) tagCount = Math.max(tagCount, gantt.tag(i) + 1);
+        }
+        paints.clear();
+        startPyramid();
+        invalidateTiles();
         updatePreferredSize();
         revalidate();
         repaint();
     }
 
-    public void setScale(int pixelsPerUnit) {
-        this.pixelsPerUnit = Math.max(4, pixelsPerUnit);
+    public void setScale(double pixelsPerUnit) {
+        this.pixelsPerUnit = Math.max(MIN_SCALE, pixelsPerUnit);
+        invalidateTiles();
         updatePreferredSize();
         revalidate();
         repaint();
     }
 
+    public void setTitle(String title) {
+        this.title = title;
+        invalidateTiles();
+        repaint();
+    }
+
+    public double getScale() {
+        return pixelsPerUnit;
+    }
+
+    // keep the newest live slices in view by scrolling the enclosing viewport
+    public void setFollowHead(boolean followHead) {
+        this.followHead = followHead;
+    }
+
+    // Replaces the chart with an empty timeline that append() extends until stopLive().
+    public void startLive() {
+        setGantt(new Timeline());
+        live = true;
+        if (frameTimer == null) frameTimer = new javax.swing.Timer(FRAME_MILLIS, e -> flushPending());
+        frameTimer.start();
+    }
+
+    // Draws whatever is still pending and builds the final overview, for a live chart that
+    // stays on screen; setGantt ends live mode without either.
+    public void stopLive() {
+        if (!live) return;
+        live = false;
+        frameTimer.stop();
+        while (flushPending()) ;
+        startPyramid();
+    }
+
+    // Thread-safe; slices must arrive in time order. Ignored unless live.
+    public void append(Scheduler.GanttEntry slice) {
+        if (!live) return;
+        synchronized (pendingLock) {
+            pending.add(slice);
+        }
+    }
+
+    // a switch/dispatch overhead slice, queued as an entry without a PID
+    public void appendOverhead(int start, int end) {
+        append(new Scheduler.GanttEntry(null, start, end, Scheduler.OVERHEAD_COLOR));
+    }
+
+    public void append(Collection<Scheduler.GanttEntry> slices) {
+        if (!live) return;
+        synchronized (pendingLock) {
+            pending.addAll(slices);
+        }
+    }
+
+    // Moves up to MAX_FRAME_SLICES pending slices into the timeline (on the EDT) and repaints
+    // just the strip they cover, plus the tick labels that may spill around it. Returns false
+    // when there was nothing to do.
+    private boolean flushPending() {
+        if (backlogPos == backlog.size()) {
+            synchronized (pendingLock) {
+                if (pending.isEmpty()) return false;
+                backlog = pending;
+                pending = new ArrayList<>();
+            }
+            backlogPos = 0;
+        }
+        int oldEnd = gantt.endTime();
+        int oldProcesses = gantt.processCount();
+        int from = Integer.MAX_VALUE;
+        int stop = Math.min(backlog.size(), backlogPos + MAX_FRAME_SLICES);
+        for (; backlogPos < stop; backlogPos++) {
+            Scheduler.GanttEntry e = backlog.get(backlogPos);
+            gantt.add(e.pid == null ? gantt.addOverheadProcess() : gantt.addProcess(e.pid, e.color), e.start, e.end);
+            from = Math.min(from, e.start);
+        }
+        if (backlogPos == backlog.size()) { // let the entries go
+            backlog = new ArrayList<>();
+            backlogPos = 0;
+        }
+        int end = gantt.endTime();
+
+        // the legend shows the first few processes and tick spacing depends on the width
+        // of the largest label; either change touches every tile
+        boolean all = (oldProcesses <= 9 && gantt.processCount() > oldProcesses)
+                || Long.toString(oldEnd).length() != Long.toString(end).length();
+        int x0 = Math.max(0, xOf(Math.min(from, oldEnd)) - 60);
+        int x1 = xOf(end) + 200;
+        if (all) {
+            invalidateTiles();
+        } else {
+            int first = x0 / TILE_WIDTH, last = x1 / TILE_WIDTH;
+            tiles.keySet().removeIf(t -> t >= first && t <= last);
+        }
+        if (pixelsPerUnit < LOD_SCALE && System.currentTimeMillis() - lastPyramidBuild >= LOD_REBUILD_MILLIS) {
+            startPyramid();
+        }
+
+        // grow the preferred width in steps so the viewport is not re-laid out every frame
+        long needed = (long) xOf(end) + 160;
+        if (needed > getPreferredSize().width) {
+            int width = (int) Math.min(needed + needed / 4, Integer.MAX_VALUE / 2);
+            setPreferredSize(new Dimension(width, getPreferredSize().height));
+            revalidate();
+        }
+        if (followHead && getParent() instanceof JViewport) {
+            scrollRectToVisible(new Rectangle(xOf(end), 0, 160, 1));
+        }
+        if (all) {
+            repaint();
+        } else {
+            repaint(x0, 0, x1 - x0, getHeight());
+        }
+        return true;
+    }
+
+    // scale at which the whole timeline fits into the given width
+    public void fitTo(int width) {
+        if (gantt == null || gantt.isEmpty()) return;
+        setScale((double) Math.max(1, width - LEFT_PADDING - 160) / gantt.endTime());
+    }
+
+    private void invalidateTiles() {
+        tiles.clear();
+    }
+
+    // (re)builds the zoomed-out summary in the background; tiles are refreshed as
+    // each level becomes available; while live the previous summary stays on screen until
+    // the new one has its first level
+    private void startPyramid() {
+        int generation = ++lodGeneration;
+        lastPyramidBuild = System.currentTimeMillis();
+        if (!live) pyramid = null;
+        if (gantt == null || gantt.isEmpty()) return;
+        // built over a read-only view, so live appends on the EDT never race the builder
+        TimelinePyramid p = new TimelinePyramid(gantt.range(0, Integer.MAX_VALUE));
+        LOD_BUILDER.execute(() -> p.build(() -> lodGeneration != generation,
+                () -> SwingUtilities.invokeLater(() -> {
+                    if (lodGeneration != generation) return;
+                    pyramid = p;
+                    if (pixelsPerUnit < LOD_SCALE) {
+                        invalidateTiles();
+                        repaint();
+                    }
+                })));
+    }
+
     private void updatePreferredSize() {
-        int width = LEFT_PADDING + (gantt == null || gantt.isEmpty() ? 400
-                : (gantt.get(gantt.size()-1).end * pixelsPerUnit + 160));
+        long width = LEFT_PADDING + (gantt == null || gantt.isEmpty() ? 400
+                : ((long) Math.ceil(gantt.endTime() * pixelsPerUnit) + 160));
         int height = ROW_HEIGHT + 120;
-        setPreferredSize(new Dimension(Math.max(width, 700), height));
+        setPreferredSize(new Dimension((int) Math.min(Math.max(width, 700), Integer.MAX_VALUE / 2), height));
     }
 
     @Override
     protected void paintComponent(Graphics g0) {
         super.paintComponent(g0);
-        Graphics2D g = (Graphics2D) g0.create();
+        Graphics2D g = (Graphics2D) g0;
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) clip = new Rectangle(0, 0, getWidth(), getHeight());
+
+        // tiles are rendered at device resolution so HiDPI screens stay sharp
+        double scale = g.getTransform().getScaleX();
+        if (tileHeight != getHeight() || tileScale != scale) {
+            invalidateTiles();
+            tileHeight = getHeight();
+            tileScale = scale;
+        }
+        int first = Math.max(0, clip.x / TILE_WIDTH);
+        int last = Math.max(first, (clip.x + clip.width - 1) / TILE_WIDTH);
+        for (int t = first; t <= last; t++) {
+            BufferedImage tile = tiles.get(t);
+            if (tile == null) {
+                tile = renderTile(t, tileHeight, scale);
+                tiles.put(t, tile);
+            }
+            g.drawImage(tile, t * TILE_WIDTH, 0, TILE_WIDTH, tileHeight, null);
+        }
+    }
+
+    private BufferedImage renderTile(int column, int height, double scale) {
+        int w = (int) Math.ceil(TILE_WIDTH * scale);
+        int h = Math.max(1, (int) Math.ceil(height * scale));
+        BufferedImage img = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = img.createGraphics();
+        g.scale(scale, scale);
+        int x0 = column * TILE_WIDTH;
+        g.translate(-x0, 0);
+        g.setClip(x0, 0, TILE_WIDTH, height);
+        paintChart(g, x0, x0 + TILE_WIDTH, height);
+        g.dispose();
+        return img;
+    }
+
+    // Paints the chart area between pixel columns x0 and x1 (exclusive).
+    private void paintChart(Graphics2D g, int x0, int x1, int height) {
         g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
 
         // background gradient subtle
-        Paint old = g.getPaint();
-        g.setPaint(new GradientPaint(0, 0, Color.WHITE, 0, getHeight(), new Color(250,250,250)));
-        g.fillRect(0,0,getWidth(), getHeight());
-        g.setPaint(old);
+        g.setPaint(new GradientPaint(0, 0, Color.WHITE, 0, height, new Color(250,250,250)));
+        g.fillRect(x0, 0, x1 - x0, height);
 
         if (gantt == null || gantt.isEmpty()) {
             g.setColor(new Color(120,120,120));
             g.setFont(labelFont);
             g.drawString("No Gantt chart — run simulation to see scheduling timeline.", 20, 50);
-            g.dispose();
             return;
         }
 
         // title
         g.setFont(labelFont);
         g.setColor(new Color(60,60,60));
-        g.drawString("Gantt Chart (timeline in time units)", LEFT_PADDING - 40, 20);
+        g.drawString(title, LEFT_PADDING - 40, 20);
 
         int yTop = 40;
         int yBar = yTop + 10;
+        int maxTime = gantt.endTime();
 
-        // draw timeline ticks and grid
-        int maxTime = gantt.get(gantt.size()-1).end;
-        for (int t = 0; t <= maxTime; t++) {
-            int x = LEFT_PADDING + t * pixelsPerUnit;
+        // draw timeline ticks and grid; labels may spill into neighbouring tiles
+        long step = tickStep();
+        long tFrom = Math.max(0, timeAt(x0 - 60));
+        long tTo = Math.min(maxTime, timeAt(x1 + 60) + 1);
+        g.setFont(timeFont);
+        for (long t = tFrom - tFrom % step; t <= tTo; t += step) {
+            int x = xOf(t);
             // faint vertical line
-            g.setColor(new Color(230,230,230));
+            g.setColor(gridColor);
             g.drawLine(x, yBar - 6, x, yBar + ROW_HEIGHT + 6);
             // time label
-            g.setColor(new Color(80,80,80));
-            g.setFont(timeFont);
-            g.drawString(Integer.toString(t), x - 6, yBar + ROW_HEIGHT + 24);
+            g.setColor(tickColor);
+            g.drawString(Long.toString(t), x - 6, yBar + ROW_HEIGHT + 24);
+        }
+
+        int h = ROW_HEIGHT - 10;
+        // export bands are often a few rows high; skip the costly bars when they miss the clip
+        Rectangle clip = g.getClipBounds();
+        if (clip != null && !rowsOverlap(clip, yBar - 1, yBar + h + 7)) {
+            // nothing of the bar row is visible
+        } else if (pixelsPerUnit < LOD_SCALE) {
+            paintSummary(g, x0, x1, yBar, h);
+        } else {
+            paintBars(g, x0, x1, yBar, h);
         }
+        paintLegend(g, yBar);
+    }
 
-        // draw each gantt entry as rounded bar
-        for (Scheduler.GanttEntry e : gantt) {
-            int x = LEFT_PADDING + e.start * pixelsPerUnit;
-            int w = Math.max(1, (e.end - e.start) * pixelsPerUnit);
-            int h = ROW_HEIGHT - 10;
-            int arc = Math.max(6, h / 3);
-            Color barColor = e.color != null ? e.color : new Color(180, 180, 180);
+    private void paintBars(Graphics2D g, int x0, int x1, int yBar, int h) {
+        // draw the visible gantt entries as rounded bars; a margin catches labels
+        // of bars that start before this strip
+        int visibleFrom = (int) Math.max(0, timeAt(x0 - 200));
+        long visibleTo = timeAt(x1) + 1;
+        int arc = Math.max(6, h / 3);
+        RoundRectangle2D.Float bar = new RoundRectangle2D.Float();
+        g.setFont(labelFont);
+        g.setStroke(barStroke);
+        FontMetrics fm = g.getFontMetrics();
+        int baseline = yBar + h/2 + fm.getAscent()/2 - 3;
+        // which parts of the row fall into the clip; thin export bands often cut through it
+        Rectangle clip = g.getClipBounds();
+        boolean body = clip == null || rowsOverlap(clip, yBar - 1, yBar + h + 1);
+        boolean strip = clip == null || rowsOverlap(clip, yBar + h + 2, yBar + h + 7);
+        boolean text = clip == null || rowsOverlap(clip, baseline - fm.getAscent(), baseline + fm.getDescent());
+        for (int i = gantt.firstEndingAfter(visibleFrom); i < gantt.size(); i++) {
+            int start = gantt.start(i);
+            if (start > visibleTo) break;
+            int end = gantt.end(i);
+            int proc = gantt.proc(i);
+            int x = xOf(start);
+            int w = Math.max(1, xOf(end) - x);
 
-            // darker border
-            g.setColor(barColor);
-            RoundRectangle2D bar = new RoundRectangle2D.Float(x, yBar, w, h, arc, arc);
-            g.fill(bar);
+            if (body) {
+                BarPaint paint = paintOf(proc);
+                bar.setRoundRect(0, 0, w, h, arc, arc);
+                g.translate(x, yBar);
+                g.setColor(paint.fill);
+                g.fill(bar);
 
-            // subtle shading
-            g.setPaint(new GradientPaint(x, yBar, barColor.brighter(), x + w, yBar + h, barColor.darker()));
-            g.fill(bar);
+                // subtle shading
+                g.setPaint(paint.shade);
+                g.fill(bar);
 
-            g.setColor(barColor.darker().darker());
-            g.setStroke(new BasicStroke(1f));
-            g.draw(bar);
+                // darker border
+                g.setColor(paint.outline);
+                g.draw(bar);
+                g.translate(-x, -yBar);
+            }
+
+            int tag = strip ? gantt.tag(i) : -1;
+            if (tag >= 0) {
+                g.setColor(TAG_COLORS[tag % TAG_COLORS.length]);
+                g.fillRect(x, yBar + h + 2, w, 5);
+            }
 
             // label: pid and time (try center)
-            String label = e.pid + " (" + e.start + "-" + e.end + ")";
+            if (w < 16 || !text) continue;
+            String pid = gantt.pid(i);
+            String label = pid + " (" + start + "-" + end + ")";
             g.setColor(Color.WHITE);
-            g.setFont(new Font("SansSerif", Font.BOLD, 12));
-            FontMetrics fm = g.getFontMetrics();
             int strW = fm.stringWidth(label);
             if (strW + 8 < w) {
-                g.drawString(label, x + (w - strW) / 2, yBar + h/2 + fm.getAscent()/2 - 3);
+                g.drawString(label, x + (w - strW) / 2, baseline);
             } else {
                 // left align truncated
-                String s = e.pid + " " + e.start + "-" + e.end;
-                g.drawString(s, x + 6, yBar + h/2 + fm.getAscent()/2 - 3);
+                String s = pid + " " + start + "-" + end;
+                g.drawString(s, x + 6, baseline);
+            }
+        }
+    }
+
+    // true when the clip covers any row in [y0, y1]
+    private static boolean rowsOverlap(Rectangle clip, int y0, int y1) {
+        return clip.y <= y1 && clip.y + clip.height > y0;
+    }
+
+    // One run-length encoded column strip per tile: each pixel column takes the dominant
+    // process of the pyramid buckets it covers and is filled up to its busy fraction.
+    private void paintSummary(Graphics2D g, int x0, int x1, int yBar, int h) {
+        TimelinePyramid p = pyramid;
+        if (p == null || !p.isReady()) {
+            g.setColor(tickColor);
+            g.setFont(timeFont);
+            g.drawString("Building overview…", Math.max(x0, LEFT_PADDING) + 10, yBar + h / 2);
+            return;
+        }
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
+        double unitsPerPixel = 1 / pixelsPerUnit;
+        int level = p.levelFor(unitsPerPixel);
+        long bucket = p.bucketUnits(level);
+        int buckets = p.bucketCount(level);
+        int xEnd = Math.min(x1, xOf(gantt.endTime()) + 1);
+        int runStart = -1, runProc = -1, runHeight = 0;
+        for (int x = Math.max(x0, LEFT_PADDING); x <= xEnd; x++) {
+            int proc = -1, height = 0;
+            if (x < xEnd) {
+                double t0 = (x - LEFT_PADDING) * unitsPerPixel;
+                double t1 = t0 + unitsPerPixel;
+                int k0 = (int) Math.min(buckets, (long) (t0 / bucket));
+                int k1 = (int) Math.min(buckets, Math.max(k0 + 1, (long) Math.ceil(t1 / bucket)));
+                long busy = 0;
+                int best = 0;
+                for (int k = k0; k < k1; k++) {
+                    busy += p.busy(level, k);
+                    if (p.dominantUnits(level, k) > best) {
+                        best = p.dominantUnits(level, k);
+                        proc = p.dominant(level, k);
+                    }
+                }
+                double span = (double) (k1 - k0) * bucket;
+                height = k1 > k0 ? (int) Math.round(h * Math.min(1.0, busy / span)) : 0;
+                if (height == 0) proc = -1;
+            }
+            if (proc != runProc || height != runHeight) {
+                if (runProc >= 0) {
+                    g.setColor(paintOf(runProc).fill);
+                    g.fillRect(runStart, yBar + h - runHeight, x - runStart, runHeight);
+                }
+                runStart = x;
+                runProc = proc;
+                runHeight = height;
             }
         }
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+    }
 
-        // legend (unique PIDs)
+    private void paintLegend(Graphics2D g, int yBar) {
+        // legend (unique PIDs from the timeline's process table)
         int lx = LEFT_PADDING;
         int ly = yBar + ROW_HEIGHT + 40;
         g.setFont(timeFont);
@@ -128,18 +525,156 @@ public class GanttPanel extends JPanel {
         g.drawString("Legend:", lx, ly);
         lx += 60;
         int drawn = 0;
-        for (Scheduler.GanttEntry e : gantt) {
+        for (int p = 0; p < gantt.processCount(); p++) {
             if (drawn > 8) break; // don't overcrowd
-            Color c = e.color != null ? e.color : Color.GRAY;
+            Color c = gantt.processColor(p) != null ? gantt.processColor(p) : Color.GRAY;
             g.setColor(c);
             g.fillRect(lx, ly - 12, 28, 12);
             g.setColor(Color.BLACK);
             g.drawRect(lx, ly - 12, 28, 12);
-            g.drawString(e.pid, lx + 34, ly - 2);
+            g.drawString(gantt.processPid(p), lx + 34, ly - 2);
             lx += 90;
             drawn++;
         }
+        if (tagCount == 0) return;
+        lx = LEFT_PADDING;
+        ly += 20;
+        g.setColor(new Color(70,70,70));
+        g.drawString("Levels:", lx, ly);
+        lx += 60;
+        for (int t = 0; t < Math.min(tagCount, TAG_COLORS.length); t++) {
+            g.setColor(TAG_COLORS[t]);
+            g.fillRect(lx, ly - 9, 28, 6);
+            g.setColor(Color.BLACK);
+            g.drawString("L" + t, lx + 34, ly - 2);
+            lx += 70;
+        }
+    }
+
+    // smallest 1/2/5 x 10^k step whose labels are far enough apart not to overlap
+    private long tickStep() {
+        int spacing = Math.max(MIN_TICK_SPACING, 7 * Long.toString(gantt.endTime()).length() + 12);
+        long decade = 1;
+        while (true) {
+            for (int s : TICK_STEPS) {
+                long step = s * decade;
+                if (step * pixelsPerUnit >= spacing || step >= Integer.MAX_VALUE / 10) return step;
+            }
+            decade *= 10;
+        }
+    }
+
+    private int xOf(long time) {
+        return (int) Math.min(Integer.MAX_VALUE / 2, LEFT_PADDING + (long) Math.floor(time * pixelsPerUnit));
+    }
+
+    // time unit under pixel column x (may be negative left of the chart)
+    private long timeAt(int x) {
+        return (long) Math.floor((x - LEFT_PADDING) / pixelsPerUnit);
+    }
+
+    // ---- whole-timeline PNG export ----
+
+    // Takes a snapshot of the chart at pixelsPerUnit for writePng(). Call on the EDT; the
+    // copy can then be written from any thread.
+    public GanttPanel exportCopy(double pixelsPerUnit) {
+        return new GanttPanel(this, pixelsPerUnit);
+    }
+
+    // pixel size writePng() will produce; the width may exceed MAX_EXPORT_WIDTH
+    public long exportWidth() {
+        return LEFT_PADDING + (gantt == null || gantt.isEmpty() ? 400
+                : (long) Math.ceil(gantt.endTime() * pixelsPerUnit) + 160);
+    }
 
+    public int exportHeight() {
+        return EXPORT_HEIGHT;
+    }
+
+    // Renders the whole timeline to a PNG file. Bands of rows are split into tiles that the
+    // common pool paints in parallel, each into its own image; while one band is encoded the
+    // next is already being painted, so at most two bands are held in memory.
+    public void writePng(Path file) throws IOException {
+        if (gantt == null || gantt.isEmpty()) throw new IllegalStateException("No timeline to export");
+        long w = exportWidth();
+        if (w > MAX_EXPORT_WIDTH) {
+            throw new IllegalArgumentException(String.format("Image would be %,d px wide; the limit is %,d px",
+                    w, MAX_EXPORT_WIDTH));
+        }
+        int width = (int) w;
+        int height = EXPORT_HEIGHT;
+        if (pixelsPerUnit < LOD_SCALE && pyramid == null) {
+            TimelinePyramid p = new TimelinePyramid(gantt);
+            p.build(() -> false, () -> { });
+            pyramid = p;
+        }
+        int bandRows = Math.max(MIN_BAND_ROWS, Math.min(height, EXPORT_BAND_PIXELS / width));
+        int bands = (height + bandRows - 1) / bandRows;
+        byte[] row = new byte[3 * width];
+        List<Future<BufferedImage>> next = submitBand(0, bandRows, width);
+        boolean done = false;
+        try (PngWriter png = new PngWriter(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16), width, height)) {
+            for (int b = 0; b < bands; b++) {
+                List<Future<BufferedImage>> band = next;
+                int y0 = b * bandRows;
+                int rows = Math.min(bandRows, height - y0);
+                next = b + 1 < bands ? submitBand(y0 + rows, Math.min(bandRows, height - y0 - rows), width) : null;
+                int[][] pixels = new int[band.size()][];
+                int[] widths = new int[band.size()];
+                for (int t = 0; t < pixels.length; t++) {
+                    BufferedImage tile = band.get(t).get();
+                    pixels[t] = ((DataBufferInt) tile.getRaster().getDataBuffer()).getData();
+                    widths[t] = tile.getWidth();
+                }
+                for (int y = 0; y < rows; y++) {
+                    int at = 0;
+                    for (int t = 0; t < pixels.length; t++) {
+                        int[] px = pixels[t];
+                        for (int i = y * widths[t], end = i + widths[t]; i < end; i++) {
+                            int rgb = px[i];
+                            row[at++] = (byte) (rgb >> 16);
+                            row[at++] = (byte) (rgb >> 8);
+                            row[at++] = (byte) rgb;
+                        }
+                    }
+                    png.writeRow(row);
+                }
+            }
+            done = true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("PNG export interrupted");
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException(ex.getCause());
+        } finally {
+            if (next != null) next.forEach(f -> f.cancel(true));
+            if (!done) Files.deleteIfExists(file);
+        }
+    }
+
+    // queues the tiles of rows [y0, y0 + rows), left to right
+    private List<Future<BufferedImage>> submitBand(int y0, int rows, int width) {
+        List<Future<BufferedImage>> tiles = new ArrayList<>();
+        for (int x0 = 0; x0 < width; x0 += EXPORT_TILE_WIDTH) {
+            int x = x0;
+            int w = Math.min(EXPORT_TILE_WIDTH, width - x0);
+            tiles.add(ForkJoinPool.commonPool().submit(() -> renderExportTile(x, y0, w, rows)));
+        }
+        return tiles;
+    }
+
+    private BufferedImage renderExportTile(int x0, int y0, int w, int h) {
+        BufferedImage img = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = img.createGraphics();
+        g.translate(-x0, -y0);
+        g.setClip(x0, y0, w, h);
+        paintChart(g, x0, x0 + w, EXPORT_HEIGHT);
         g.dispose();
+        return img;
+    }
+
+    private BarPaint paintOf(int proc) {
+        Color c = gantt.processColor(proc);
+        return paints.computeIfAbsent(c != null ? c : defaultBarColor, k -> new BarPaint(k, ROW_HEIGHT - 10));
     }
 }
@@ -0,0 +1,146 @@
+// GenerateDialog.java
+// Form for the WorkloadGenerator settings used by "Generate...". showDialog() returns the
+// configured generator, or null when cancelled. Trace replay is offered when the caller
+// passes the arrival times of the current table.
+
+import javax.swing.*;
+import java.awt.*;
+
+public class GenerateDialog extends JDialog {
+    // rows beyond this are better streamed through the headless runner
+    public static final int MAX_ROWS = 5_000_000;
+
+    private final int[] trace;
+    private final JTextField countField = new JTextField("1000", 8);
+    private final JTextField seedField = new JTextField("1", 8);
+    private final JComboBox<String> arrivalCombo;
+    private final JTextField rateField = new JTextField("0.1", 6);
+    private final JTextField onField = new JTextField("100", 6);
+    private final JTextField offField = new JTextField("1000", 6);
+    private final JComboBox<String> burstCombo = new JComboBox<>(new String[] {"Exponential", "Pareto", "Bimodal"});
+    private final JTextField meanField = new JTextField("10", 6);
+    private final JTextField shapeField = new JTextField("1.5", 6);
+    private final JTextField shortField = new JTextField("2", 6);
+    private final JTextField longField = new JTextField("50", 6);
+    private final JTextField fractionField = new JTextField("0.1", 6);
+    private final JComboBox<String> priorityCombo = new JComboBox<>(new String[] {"Uniform", "Weighted"});
+    private final JTextField levelsField = new JTextField("10", 6);
+    private final JTextField weightsField = new JTextField("", 10);
+    private WorkloadGenerator result;
+
+    public GenerateDialog(Frame owner, int[] trace) {
+        super(owner, "Generate Workload", true);
+        this.trace = trace;
+        arrivalCombo = new JComboBox<>(trace == null || trace.length == 0
+                ? new String[] {"Poisson", "Bursty (on/off)"}
+                : new String[] {"Poisson", "Bursty (on/off)", "Trace (current table)"});
+        weightsField.setToolTipText("Relative weight per priority level, e.g. 4:2:1 (empty = halving)");
+
+        JPanel form = new JPanel(new GridBagLayout());
+        GridBagConstraints c = new GridBagConstraints();
+        c.insets = new Insets(4, 6, 4, 6);
+        c.anchor = GridBagConstraints.WEST;
+        int row = 0;
+        row = addRow(form, c, row, "Processes", countField, "Seed", seedField);
+        row = addRow(form, c, row, "Arrivals", arrivalCombo, "Rate (per unit)", rateField);
+        row = addRow(form, c, row, "Mean on time", onField, "Mean off time", offField);
+        row = addRow(form, c, row, "Bursts", burstCombo, "Mean burst", meanField);
+        row = addRow(form, c, row, "Pareto shape", shapeField, "Bimodal short", shortField);
+        row = addRow(form, c, row, "Bimodal long", longField, "Long fraction", fractionField);
+        addRow(form, c, row, "Priorities", priorityCombo, "Levels", levelsField);
+        c.gridy = row + 1; c.gridx = 0;
+        form.add(new JLabel("Weights"), c);
+        c.gridx = 1;
+        form.add(weightsField, c);
+
+        arrivalCombo.addActionListener(e -> updateEnabled());
+        burstCombo.addActionListener(e -> updateEnabled());
+        priorityCombo.addActionListener(e -> updateEnabled());
+        updateEnabled();
+
+        JButton ok = new JButton("Generate");
+        JButton cancel = new JButton("Cancel");
+        ok.addActionListener(e -> onGenerate());
+        cancel.addActionListener(e -> dispose());
+        JPanel buttons = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        buttons.add(ok);
+        buttons.add(cancel);
+        getRootPane().setDefaultButton(ok);
+
+        JPanel content = new JPanel(new BorderLayout(8, 8));
+        content.setBorder(BorderFactory.createEmptyBorder(8, 8, 8, 8));
+        content.add(form, BorderLayout.CENTER);
+        content.add(buttons, BorderLayout.SOUTH);
+        setContentPane(content);
+        pack();
+        setLocationRelativeTo(owner);
+    }
+
+    public WorkloadGenerator showDialog() {
+        setVisible(true);
+        return result;
+    }
+
+    private static int addRow(JPanel form, GridBagConstraints c, int row, String l1, JComponent f1, String l2, JComponent f2) {
+        c.gridy = row;
+        c.gridx = 0; form.add(new JLabel(l1), c);
+        c.gridx = 1; form.add(f1, c);
+        c.gridx = 2; form.add(new JLabel(l2), c);
+        c.gridx = 3; form.add(f2, c);
+        return row + 1;
+    }
+
+    private void updateEnabled() {
+        int arrivals = arrivalCombo.getSelectedIndex();
+        rateField.setEnabled(arrivals != 2);
+        onField.setEnabled(arrivals == 1);
+        offField.setEnabled(arrivals == 1);
+        int bursts = burstCombo.getSelectedIndex();
+        meanField.setEnabled(bursts != 2);
+        shapeField.setEnabled(bursts == 1);
+        shortField.setEnabled(bursts == 2);
+        longField.setEnabled(bursts == 2);
+        fractionField.setEnabled(bursts == 2);
+        weightsField.setEnabled(priorityCombo.getSelectedIndex() == 1);
+    }
+
+    private void onGenerate() {
+        WorkloadGenerator g = new WorkloadGenerator();
+        try {
+            g.count = Long.parseLong(countField.getText().trim());
+            g.seed = Long.parseLong(seedField.getText().trim());
+            g.arrivals = WorkloadGenerator.ArrivalModel.values()[arrivalCombo.getSelectedIndex()];
+            g.traceArrivals = trace;
+            g.arrivalRate = Double.parseDouble(rateField.getText().trim());
+            g.onTime = Double.parseDouble(onField.getText().trim());
+            g.offTime = Double.parseDouble(offField.getText().trim());
+            g.bursts = WorkloadGenerator.BurstModel.values()[burstCombo.getSelectedIndex()];
+            g.meanBurst = Double.parseDouble(meanField.getText().trim());
+            g.paretoShape = Double.parseDouble(shapeField.getText().trim());
+            g.shortBurst = Integer.parseInt(shortField.getText().trim());
+            g.longBurst = Integer.parseInt(longField.getText().trim());
+            g.longFraction = Double.parseDouble(fractionField.getText().trim());
+            g.priorities = WorkloadGenerator.PriorityModel.values()[priorityCombo.getSelectedIndex()];
+            g.priorityLevels = Integer.parseInt(levelsField.getText().trim());
+            String weights = weightsField.getText().trim();
+            if (g.priorities == WorkloadGenerator.PriorityModel.WEIGHTED && !weights.isEmpty()) {
+                String[] parts = weights.split(":");
+                g.priorityWeights = new double[parts.length];
+                for (int i = 0; i < parts.length; i++) g.priorityWeights[i] = Double.parseDouble(parts[i].trim());
+            }
+            if (g.count > MAX_ROWS) {
+                throw new IllegalArgumentException("At most " + MAX_ROWS + " processes can be generated into the table;"
+                        + " use SchedulerCli --generate for larger workloads.");
+            }
+            g.validate();
+        } catch (NumberFormatException ex) {
+            JOptionPane.showMessageDialog(this, "Please enter valid numbers.", "Input Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        } catch (IllegalArgumentException ex) {
+            JOptionPane.showMessageDialog(this, ex.getMessage(), "Input Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        result = g;
+        dispose();
+    }
+}
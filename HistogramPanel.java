@@ -0,0 +1,97 @@
+// HistogramPanel.java
+// Bar chart of a LatencyHistogram: BINS equal-width bars from 0 to the 99.9th percentile, so
+// a long tail does not squash the body of the distribution; the rest is folded into the last
+// bar, which is then drawn darker. Lines mark p50, p95 and p99. Painting only walks the
+// fixed-size histogram, whatever the number of processes behind it.
+
+import javax.swing.*;
+import java.awt.*;
+
+public class HistogramPanel extends JPanel {
+    private static final int BINS = 40;
+    private static final int LEFT = 48;
+    private static final int RIGHT = 12;
+    private static final int TOP = 22;
+    private static final int BOTTOM = 22;
+
+    private final Font font = new Font("SansSerif", Font.PLAIN, 11);
+    private final Color barColor = new Color(52,152,219);
+    private final Color tailColor = new Color(31,97,141);
+    private final Color axisColor = new Color(80,80,80);
+    private final Color markerColor = new Color(231,76,60);
+
+    private LatencyHistogram histogram;
+    private String label = "";
+
+    public HistogramPanel() {
+        setBackground(Color.WHITE);
+        setPreferredSize(new Dimension(420, 150));
+    }
+
+    public void setHistogram(LatencyHistogram histogram, String label) {
+        this.histogram = histogram;
+        this.label = label;
+        repaint();
+    }
+
+    @Override
+    protected void paintComponent(Graphics g0) {
+        super.paintComponent(g0);
+        Graphics2D g = (Graphics2D) g0;
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setFont(font);
+        FontMetrics fm = g.getFontMetrics();
+        int w = getWidth() - LEFT - RIGHT;
+        int h = getHeight() - TOP - BOTTOM;
+        if (histogram == null || histogram.count() == 0 || w <= 0 || h <= 0) {
+            g.setColor(axisColor);
+            g.drawString("No results", LEFT, TOP + fm.getAscent());
+            return;
+        }
+
+        long limit = histogram.percentile(0.999);
+        long[] bins = histogram.bins(BINS, limit);
+        long width = LatencyHistogram.binWidth(BINS, limit);
+        boolean folded = histogram.max() >= width * BINS;
+        long peak = 1;
+        for (long b : bins) peak = Math.max(peak, b);
+
+        g.setColor(axisColor);
+        g.drawString(String.format("%s time: n=%d, mean %.2f, max %d", label, histogram.count(),
+                histogram.mean(), histogram.max()), LEFT, fm.getAscent() + 2);
+
+        double barW = (double) w / BINS;
+        for (int i = 0; i < BINS; i++) {
+            if (bins[i] == 0) continue;
+            int bh = (int) Math.max(1, Math.round((double) bins[i] / peak * h));
+            int x = LEFT + (int) Math.round(i * barW);
+            int x2 = LEFT + (int) Math.round((i + 1) * barW);
+            g.setColor(folded && i == BINS - 1 ? tailColor : barColor);
+            g.fillRect(x, TOP + h - bh, Math.max(1, x2 - x - 1), bh);
+        }
+
+        // axes: count on the left, time below
+        g.setColor(axisColor);
+        g.drawLine(LEFT, TOP + h, LEFT + w, TOP + h);
+        g.drawLine(LEFT, TOP, LEFT, TOP + h);
+        String top = Long.toString(peak);
+        g.drawString(top, LEFT - 4 - fm.stringWidth(top), TOP + fm.getAscent());
+        g.drawString("0", LEFT - 4 - fm.stringWidth("0"), TOP + h);
+        int labelY = TOP + h + fm.getAscent() + 2;
+        g.drawString("0", LEFT, labelY);
+        String end = (folded ? ">= " : "") + width * (BINS - 1);
+        g.drawString(end, LEFT + w - fm.stringWidth(end), labelY);
+
+        // percentile markers, labels staggered so close ones stay readable
+        g.setColor(markerColor);
+        double[] qs = {0.50, 0.95, 0.99};
+        String[] names = {"p50", "p95", "p99"};
+        for (int i = 0; i < qs.length; i++) {
+            long v = histogram.percentile(qs[i]);
+            int x = LEFT + (int) Math.round(Math.min(BINS, (double) v / width) * barW);
+            g.fillRect(x, TOP, 1, h);
+            String s = names[i] + "=" + v;
+            g.drawString(s, Math.min(x + 2, LEFT + w - fm.stringWidth(s)), TOP + fm.getAscent() + (fm.getHeight() + 1) * i);
+        }
+    }
+}
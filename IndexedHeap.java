@@ -0,0 +1,104 @@
+// IndexedHeap.java
+// Binary min-heap of indices (0..capacity-1) that tracks each index's position, so a key
+// that moves forward in place can be re-sifted in O(log n) (SmpSimulator's busy CPUs, when a
+// preemption ends a slice early). The ready queues of SRTF and the priority policies never
+// change a queued key: the running process is polled out and re-added when preempted.
+// The heap array grows with the number of entries; only the position table spans capacity.
+
+public class IndexedHeap {
+
+    // ordering between two indices; true when a must be served before b
+    public interface Order {
+        boolean before(int a, int b);
+    }
+
+    private int[] heap;
+    private final int[] pos; // heap slot of each index, -1 when absent
+    private final Order order;
+    private int size;
+
+    public IndexedHeap(int capacity, Order order) {
+        this.heap = new int[Math.max(1, Math.min(capacity, 1 << 12))];
+        this.pos = new int[capacity];
+        this.order = order;
+        java.util.Arrays.fill(pos, -1);
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(int i) {
+        return pos[i] >= 0;
+    }
+
+    public void add(int i) {
+        if (size == heap.length) heap = java.util.Arrays.copyOf(heap, Math.min(pos.length, size * 2));
+        heap[size] = i;
+        pos[i] = size;
+        siftUp(size++);
+    }
+
+    // entries in heap array order; adding them in this order rebuilds the same heap
+    public int[] toArray() {
+        return java.util.Arrays.copyOf(heap, size);
+    }
+
+    public int peek() {
+        return heap[0];
+    }
+
+    public int poll() {
+        int top = heap[0];
+        pos[top] = -1;
+        if (--size > 0) {
+            heap[0] = heap[size];
+            pos[heap[0]] = 0;
+            siftDown(0);
+        }
+        return top;
+    }
+
+    // call after i's key moved towards the front of the order
+    public void decreaseKey(int i) {
+        siftUp(pos[i]);
+    }
+
+    private void siftUp(int k) {
+        int x = heap[k];
+        while (k > 0) {
+            int parent = (k - 1) >>> 1;
+            int p = heap[parent];
+            if (!order.before(x, p)) break;
+            heap[k] = p;
+            pos[p] = k;
+            k = parent;
+        }
+        heap[k] = x;
+        pos[x] = k;
+    }
+
+    private void siftDown(int k) {
+        int x = heap[k];
+        int half = size >>> 1;
+        while (k < half) {
+            int child = 2 * k + 1;
+            int c = heap[child];
+            int right = child + 1;
+            if (right < size && order.before(heap[right], c)) {
+                child = right;
+                c = heap[child];
+            }
+            if (!order.before(c, x)) break;
+            heap[k] = c;
+            pos[c] = k;
+            k = child;
+        }
+        heap[k] = x;
+        pos[x] = k;
+    }
+}
@@ -0,0 +1,105 @@
+// IntColumn.java
+// Growable int column kept outside the Java heap: a direct buffer at first, moved to a
+// memory-mapped temporary file by spill(). Growing a spilled column only maps a larger
+// region of its file, so nothing is copied. The file is unlinked as soon as it is open
+// (or else removed on close or exit). Columns hold at most Integer.MAX_VALUE / 4 values.
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class IntColumn implements AutoCloseable {
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE / 4;
+
+    private IntBuffer buf;
+    private FileChannel file; // non-null once spilled
+
+    public IntColumn(int capacity) {
+        buf = allocate(Math.max(1, capacity));
+    }
+
+    public int capacity() {
+        return buf.capacity();
+    }
+
+    public boolean spilled() {
+        return file != null;
+    }
+
+    public int get(int i) {
+        return buf.get(i);
+    }
+
+    public void set(int i, int v) {
+        buf.put(i, v);
+    }
+
+    // the current storage; it stays valid (but stops seeing writes) after the column grows
+    public IntBuffer buffer() {
+        return buf;
+    }
+
+    // grows the column to hold at least capacity values, keeping its contents
+    public void ensure(int capacity) {
+        if (capacity <= buf.capacity()) return;
+        if (capacity > MAX_CAPACITY) throw new IllegalStateException("column full: " + capacity + " values");
+        int cap = (int) Math.min(MAX_CAPACITY, Math.max(capacity, buf.capacity() + (long) (buf.capacity() >> 1)));
+        if (file != null) {
+            buf = map(cap);
+        } else {
+            IntBuffer grown = allocate(cap);
+            grown.put(buf.duplicate().clear());
+            buf = grown;
+        }
+    }
+
+    // moves the column into a temporary file; later growth maps more of that file
+    public void spill() {
+        if (file != null) return;
+        try {
+            Path tmp = Files.createTempFile("timeline", ".col");
+            file = FileChannel.open(tmp, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                    StandardOpenOption.DELETE_ON_CLOSE);
+            // unlinked right away where the OS allows it, so the space is freed with the column
+            try {
+                Files.delete(tmp);
+            } catch (IOException ex) {
+                tmp.toFile().deleteOnExit();
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("cannot spill timeline to disk", ex);
+        }
+        IntBuffer mapped = map(buf.capacity());
+        mapped.put(buf.duplicate().clear());
+        buf = mapped;
+    }
+
+    @Override
+    public void close() {
+        if (file == null) return;
+        try {
+            file.close();
+        } catch (IOException ignored) {
+            // the file is also removed on exit
+        }
+    }
+
+    private IntBuffer map(int capacity) {
+        try {
+            return file.map(FileChannel.MapMode.READ_WRITE, 0, (long) capacity * 4)
+                    .order(ByteOrder.nativeOrder()).asIntBuffer();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("cannot map timeline file", ex);
+        }
+    }
+
+    private static IntBuffer allocate(int capacity) {
+        return ByteBuffer.allocateDirect(capacity * 4).order(ByteOrder.nativeOrder()).asIntBuffer();
+    }
+}
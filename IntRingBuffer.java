@@ -0,0 +1,55 @@
+// IntRingBuffer.java
+// FIFO of ints backed by a single array that doubles when full, so a queue only costs what
+// it actually holds (many per-CPU queues can share a large process index space).
+
+public class IntRingBuffer {
+    private int[] buf;
+    private int head;
+    private int size;
+
+    public IntRingBuffer(int capacity) {
+        this.buf = new int[Math.max(1, Math.min(capacity, 1 << 12))];
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void add(int v) {
+        if (size == buf.length) grow();
+        int tail = head + size;
+        if (tail >= buf.length) tail -= buf.length;
+        buf[tail] = v;
+        size++;
+    }
+
+    public int poll() {
+        if (size == 0) throw new IllegalStateException("ring buffer empty");
+        int v = buf[head];
+        if (++head == buf.length) head = 0;
+        size--;
+        return v;
+    }
+
+    // contents from head to tail; adding them in this order rebuilds the same queue
+    public int[] toArray() {
+        int[] out = new int[size];
+        int first = Math.min(size, buf.length - head);
+        System.arraycopy(buf, head, out, 0, first);
+        System.arraycopy(buf, 0, out, first, size - first);
+        return out;
+    }
+
+    private void grow() {
+        int[] next = new int[buf.length * 2];
+        int first = Math.min(size, buf.length - head);
+        System.arraycopy(buf, head, next, 0, first);
+        System.arraycopy(buf, 0, next, first, size - first);
+        buf = next;
+        head = 0;
+    }
+}
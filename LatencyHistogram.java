@@ -0,0 +1,92 @@
+// LatencyHistogram.java
+// Bounded-memory distribution of non-negative values, bucketed like an HDR histogram:
+// values below 2^SUB_BITS get a bucket each, larger ones share log-linear buckets of
+// 2^(SUB_BITS-1) per power of two, so a bucket is never wider than 1/128 of its values.
+// Count, mean, min and max are exact; percentiles are exact below 256 and otherwise the
+// top of the bucket holding the nearest-rank value (never above max). Memory is fixed
+// (about 58 KB) whatever the number of recorded values, and histograms merge by addition.
+
+public class LatencyHistogram {
+    private static final int SUB_BITS = 8;
+    private static final int EXACT = 1 << SUB_BITS;        // values recorded exactly
+    private static final int HALF = 1 << (SUB_BITS - 1);   // buckets per power of two above that
+    private static final int BUCKETS = EXACT + (63 - SUB_BITS) * HALF;
+
+    private final long[] counts = new long[BUCKETS];
+    private long count;
+    private long sum;
+    private long min = Long.MAX_VALUE;
+    private long max = Long.MIN_VALUE;
+
+    public void record(long value) {
+        if (value < 0) value = 0;
+        counts[bucketOf(value)]++;
+        count++;
+        sum += value;
+        if (value < min) min = value;
+        if (value > max) max = value;
+    }
+
+    public void merge(LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) counts[i] += other.counts[i];
+        count += other.count;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    public long count() { return count; }
+    public double mean() { return count == 0 ? 0 : (double) sum / count; }
+    public long min() { return count == 0 ? 0 : min; }
+    public long max() { return count == 0 ? 0 : max; }
+
+    // smallest value with at least q of the values at or below it (bucket precision), 0 when empty
+    public long percentile(double q) {
+        if (count == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(q * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) return Math.max(min, Math.min(max, highest(i)));
+        }
+        return max;
+    }
+
+    // counts in n equal-width bins over [0, limit]; values above limit go to the last bin.
+    // A bucket is assigned whole by its midpoint.
+    public long[] bins(int n, long limit) {
+        long[] bins = new long[n];
+        long width = Math.max(1, (limit + n) / n);
+        for (int i = 0; i < BUCKETS; i++) {
+            if (counts[i] == 0) continue;
+            long mid = lowest(i) + (highest(i) - lowest(i)) / 2;
+            bins[(int) Math.min(n - 1, mid / width)] += counts[i];
+        }
+        return bins;
+    }
+
+    // width of each of the n bins that bins(n, limit) uses
+    public static long binWidth(int n, long limit) {
+        return Math.max(1, (limit + n) / n);
+    }
+
+    // bucket of v, and the first and last value a bucket holds
+    static int bucketOf(long v) {
+        if (v < EXACT) return (int) v;
+        int shift = 63 - Long.numberOfLeadingZeros(v) - SUB_BITS + 1;
+        return EXACT + (shift - 1) * HALF + (int) (v >>> shift) - HALF;
+    }
+
+    static long lowest(int bucket) {
+        if (bucket < EXACT) return bucket;
+        int k = bucket - EXACT;
+        int shift = k / HALF + 1;
+        return (long) (HALF + k % HALF) << shift;
+    }
+
+    static long highest(int bucket) {
+        if (bucket < EXACT) return bucket;
+        int shift = (bucket - EXACT) / HALF + 1;
+        return lowest(bucket) + (1L << shift) - 1;
+    }
+}
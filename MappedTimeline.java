@@ -0,0 +1,161 @@
+// MappedTimeline.java
+// Read-only Timeline over int buffers that are not on the Java heap: the columns of a file
+// opened by ResultStore, or a range view of an OffHeapTimeline. Nothing is copied; slices
+// are read from the buffers on access. A timeline opened from a file also reads its process
+// table from the file, decoding a PID only when it is asked for.
+
+import java.awt.Color;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+public class MappedTimeline extends Timeline {
+    private final IntBuffer starts;
+    private final IntBuffer ends;
+    private final IntBuffer procs;
+    private final IntBuffer tags; // null when untagged
+    private final int offset;
+    private final int size;
+
+    // process table read from a file; null when it is shared with a heap Timeline
+    private final IntBuffer pidEnds;
+    private final IntBuffer rgbs;
+    private final ByteBuffer pidBytes;
+    private final int overhead;
+    private Map<Integer, Color> colors;
+
+    // slices [offset, offset + size) of the columns, with tableOwner's process table
+    MappedTimeline(Timeline tableOwner, IntBuffer starts, IntBuffer ends, IntBuffer procs, IntBuffer tags,
+                   int offset, int size) {
+        super(tableOwner);
+        this.starts = starts;
+        this.ends = ends;
+        this.procs = procs;
+        this.tags = tags;
+        this.offset = offset;
+        this.size = size;
+        this.pidEnds = null;
+        this.rgbs = null;
+        this.pidBytes = null;
+        this.overhead = -1;
+    }
+
+    // columns and process table of a ResultStore file; pidEnds[p] is the exclusive end of
+    // PID p in pidBytes and rgbs[p] its color, -1 for none; overhead is the entry of the
+    // overhead slices, -1 for none
+    MappedTimeline(IntBuffer starts, IntBuffer ends, IntBuffer procs, IntBuffer tags, int size,
+                   IntBuffer pidEnds, IntBuffer rgbs, ByteBuffer pidBytes, int overhead) {
+        super((Timeline) null);
+        this.starts = starts;
+        this.ends = ends;
+        this.procs = procs;
+        this.tags = tags;
+        this.offset = 0;
+        this.size = size;
+        this.pidEnds = pidEnds;
+        this.rgbs = rgbs;
+        this.pidBytes = pidBytes;
+        this.overhead = overhead;
+        this.colors = new HashMap<>();
+    }
+
+    private MappedTimeline(MappedTimeline parent, int from, int to) {
+        super(parent);
+        this.starts = parent.starts;
+        this.ends = parent.ends;
+        this.procs = parent.procs;
+        this.tags = parent.tags;
+        this.offset = parent.offset + from;
+        this.size = to - from;
+        this.pidEnds = parent.pidEnds;
+        this.rgbs = parent.rgbs;
+        this.pidBytes = parent.pidBytes;
+        this.overhead = parent.overhead;
+        this.colors = parent.colors;
+    }
+
+    @Override
+    public void add(int proc, int start, int end, int tag) {
+        throw new UnsupportedOperationException("mapped timelines are read-only");
+    }
+
+    @Override
+    public void extendLast(int end) {
+        throw new UnsupportedOperationException("mapped timelines are read-only");
+    }
+
+    @Override public int size() { return size; }
+    @Override public int start(int i) { return starts.get(offset + i); }
+    @Override public int end(int i) { return ends.get(offset + i); }
+    @Override public int proc(int i) { return procs.get(offset + i); }
+    @Override public boolean hasTags() { return tags != null; }
+    @Override public int tag(int i) { return tags == null ? -1 : tags.get(offset + i); }
+    @Override public boolean onHeap() { return false; }
+
+    @Override
+    public Timeline range(int fromTime, int toTime) {
+        int from = firstEndingAfter(fromTime);
+        int to = Math.max(from, firstStartingAtOrAfter(toTime));
+        return new MappedTimeline(this, from, to);
+    }
+
+    // ---- process table ----
+
+    @Override
+    public int addProcessRow(String pid, Color color) {
+        if (pidEnds == null) return super.addProcessRow(pid, color);
+        throw new UnsupportedOperationException("mapped timelines are read-only");
+    }
+
+    @Override
+    public int overheadProcess() {
+        return pidEnds == null ? super.overheadProcess() : overhead;
+    }
+
+    @Override
+    public int processCount() {
+        return pidEnds == null ? super.processCount() : pidEnds.capacity();
+    }
+
+    @Override
+    public String processPid(int proc) {
+        if (pidEnds == null) return super.processPid(proc);
+        int from = proc == 0 ? 0 : pidEnds.get(proc - 1);
+        byte[] b = new byte[pidEnds.get(proc) - from];
+        pidBytes.get(from, b);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public Color processColor(int proc) {
+        if (pidEnds == null) return super.processColor(proc);
+        int rgb = rgbs.get(proc);
+        if (rgb < 0) return null;
+        synchronized (colors) {
+            return colors.computeIfAbsent(rgb, Color::new);
+        }
+    }
+
+    // a scan over the PID bytes, without decoding them; meant for occasional lookups
+    @Override
+    public int indexOf(String pid) {
+        if (pidEnds == null) return super.indexOf(pid);
+        byte[] key = pid.getBytes(StandardCharsets.UTF_8);
+        int from = 0;
+        for (int p = 0; p < pidEnds.capacity(); p++) {
+            int to = pidEnds.get(p);
+            if (to - from == key.length && matches(key, from)) return p;
+            from = to;
+        }
+        return -1;
+    }
+
+    private boolean matches(byte[] key, int at) {
+        for (int k = 0; k < key.length; k++) {
+            if (pidBytes.get(at + k) != key[k]) return false;
+        }
+        return true;
+    }
+}
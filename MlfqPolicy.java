@@ -0,0 +1,193 @@
+// MlfqPolicy.java
+// Multilevel feedback queue. New processes start in level 0 and a process that uses up its
+// level's quantum drops one level; every boostInterval time units all processes go back to
+// level 0. A higher level always runs first, so arrivals preempt lower levels, and a
+// preempted process resumes at the head of its level with the rest of its quantum. Boosts
+// are timed events: the running slice is cut at the boost so it never spans one.
+// Each level is an intrusive linked list over the process indices and a bitmap marks the
+// non-empty levels, so arrival, pick and requeue are O(1) and a boost splices the lists in
+// O(levels). Boosted processes get their new level lazily (levelEpoch), never by a scan.
+// Slices are tagged with the level they ran at.
+
+public class MlfqPolicy implements SchedulingPolicy {
+    public static final String NAME = "MLFQ";
+    public static final int MAX_LEVELS = 64; // one bit per level
+
+    private int[] remaining;
+    private int[] quanta;
+    private int levels;
+    private int boostInterval;
+    private long nextBoost;
+    private int epoch; // number of boosts so far
+
+    private int[] head;
+    private int[] tail;
+    private long nonEmpty;    // bit l set while level l has processes
+    private int[] next;       // successor in its level list, -1 at the tail
+    private int[] level;
+    private int[] levelEpoch; // epoch when level[p] was set; older means boosted to level 0
+    private int[] used;       // time used of the current level's quantum
+    private int[] dispatched; // remaining time when p was last picked
+
+    @Override public String name() { return NAME; }
+    @Override public String id() { return "mlfq"; }
+    @Override public boolean usesQuantum() { return true; }
+    @Override public boolean preemptive() { return true; }
+
+    @Override
+    public void reset(SimulationKernel kernel) {
+        SimulationConfig config = kernel.config();
+        int n = kernel.processCount();
+        remaining = kernel.remaining();
+        levels = Math.max(1, Math.min(MAX_LEVELS, config.levels));
+        quanta = new int[levels];
+        for (int l = 0; l < levels; l++) {
+            // explicit per-level quanta, else the base quantum doubled per level
+            quanta[l] = config.levelQuanta != null && l < config.levelQuanta.length
+                    ? Math.max(1, config.levelQuanta[l])
+                    : (int) Math.min(1 << 30, (long) kernel.quantum() << Math.min(l, 30));
+        }
+        boostInterval = config.boostInterval;
+        nextBoost = boostInterval > 0 ? boostInterval : Long.MAX_VALUE;
+        head = new int[levels];
+        tail = new int[levels];
+        java.util.Arrays.fill(head, -1);
+        java.util.Arrays.fill(tail, -1);
+        next = new int[n];
+        level = new int[n];
+        levelEpoch = new int[n];
+        used = new int[n];
+        dispatched = new int[n];
+    }
+
+    // moves every per-process field and list link to the new numbers; levels, boosts and
+    // quanta carry over
+    @Override
+    public void renumber(SimulationKernel kernel, int[] renumbered) {
+        int n = kernel.processCount();
+        int[] oldNext = next, oldLevel = level, oldEpoch = levelEpoch, oldUsed = used, oldDispatched = dispatched;
+        remaining = kernel.remaining();
+        next = new int[n];
+        level = new int[n];
+        levelEpoch = new int[n];
+        used = new int[n];
+        dispatched = new int[n];
+        for (int p = 0; p < renumbered.length; p++) {
+            int q = renumbered[p];
+            if (q < 0) continue;
+            next[q] = oldNext[p] < 0 ? -1 : renumbered[oldNext[p]];
+            level[q] = oldLevel[p];
+            levelEpoch[q] = oldEpoch[p];
+            used[q] = oldUsed[p];
+            dispatched[q] = oldDispatched[p];
+        }
+        for (int l = 0; l < levels; l++) {
+            if (head[l] >= 0) head[l] = renumbered[head[l]];
+            if (tail[l] >= 0) tail[l] = renumbered[tail[l]];
+        }
+    }
+
+    @Override
+    public void advanceClock(int time) {
+        if (time < nextBoost) return;
+        boost();
+        nextBoost = (time / boostInterval + 1) * (long) boostInterval;
+    }
+
+    @Override
+    public int nextEventTime() {
+        return (int) Math.min(Integer.MAX_VALUE, nextBoost);
+    }
+
+    @Override
+    public void onArrival(int p) {
+        setLevel(p, 0);
+        pushTail(p);
+    }
+
+    @Override
+    public int pickNext() {
+        if (nonEmpty == 0) return -1;
+        int l = Long.numberOfTrailingZeros(nonEmpty);
+        int p = head[l];
+        head[l] = next[p];
+        if (head[l] < 0) {
+            tail[l] = -1;
+            nonEmpty &= ~(1L << l);
+        }
+        if (levelEpoch[p] != epoch) setLevel(p, 0);
+        dispatched[p] = remaining[p];
+        return p;
+    }
+
+    @Override
+    public int timeSlice(int p) {
+        return quanta[level[p]] - used[p];
+    }
+
+    @Override
+    public int tag(int p) {
+        return level[p];
+    }
+
+    @Override
+    public void onQuantumExpiry(int p) {
+        // a boost applied by another CPU's pick (shared SMP queue) already moved p to the top
+        if (levelEpoch[p] == epoch) setLevel(p, Math.min(level[p] + 1, levels - 1));
+        else setLevel(p, 0);
+        pushTail(p);
+    }
+
+    @Override
+    public void onPreempted(int p) {
+        if (levelEpoch[p] != epoch) {
+            setLevel(p, 0);
+            pushTail(p);
+            return;
+        }
+        used[p] += dispatched[p] - remaining[p];
+        if (used[p] >= quanta[level[p]]) {
+            setLevel(p, Math.min(level[p] + 1, levels - 1));
+            pushTail(p);
+        } else {
+            pushHead(p);
+        }
+    }
+
+    private void setLevel(int p, int l) {
+        level[p] = l;
+        levelEpoch[p] = epoch;
+        used[p] = 0;
+    }
+
+    private void pushTail(int p) {
+        int l = level[p];
+        next[p] = -1;
+        if (tail[l] < 0) head[l] = p;
+        else next[tail[l]] = p;
+        tail[l] = p;
+        nonEmpty |= 1L << l;
+    }
+
+    private void pushHead(int p) {
+        int l = level[p];
+        next[p] = head[l];
+        head[l] = p;
+        if (tail[l] < 0) tail[l] = p;
+        nonEmpty |= 1L << l;
+    }
+
+    // appends every lower level, in level order, to level 0
+    private void boost() {
+        epoch++;
+        for (int l = 1; l < levels; l++) {
+            if (head[l] < 0) continue;
+            if (tail[0] < 0) head[0] = head[l];
+            else next[tail[0]] = head[l];
+            tail[0] = tail[l];
+            head[l] = -1;
+            tail[l] = -1;
+        }
+        if (nonEmpty != 0) nonEmpty = 1;
+    }
+}
@@ -0,0 +1,87 @@
+// OffHeapTimeline.java
+// Timeline whose slice columns live outside the Java heap (IntColumn): in direct memory
+// until they need more than spillBytes together, then in memory-mapped temporary files.
+// The process table stays on the heap like in Timeline. Used by SimulationKernel when
+// SimulationConfig.offHeap is set, so huge runs do not need a huge heap.
+
+public class OffHeapTimeline extends Timeline {
+    private final long spillBytes;
+    private final IntColumn starts;
+    private final IntColumn ends;
+    private final IntColumn procs;
+    private IntColumn tags; // null while no slice is tagged
+    private int size;
+
+    public OffHeapTimeline(long spillBytes) {
+        super((Timeline) null);
+        this.spillBytes = spillBytes;
+        starts = new IntColumn(1024);
+        ends = new IntColumn(1024);
+        procs = new IntColumn(1024);
+    }
+
+    @Override
+    public void add(int proc, int start, int end, int tag) {
+        if (size == starts.capacity()) grow(size + 1);
+        if (tag >= 0 && tags == null) {
+            tags = new IntColumn(starts.capacity());
+            if (starts.spilled()) tags.spill();
+            for (int i = 0; i < size; i++) tags.set(i, -1);
+        }
+        starts.set(size, start);
+        ends.set(size, end);
+        procs.set(size, proc);
+        if (tags != null) tags.set(size, tag);
+        size++;
+    }
+
+    @Override
+    public void extendLast(int end) {
+        ends.set(size - 1, end);
+    }
+
+    private void grow(int capacity) {
+        starts.ensure(capacity);
+        ends.ensure(capacity);
+        procs.ensure(capacity);
+        if (tags != null) tags.ensure(capacity);
+        long bytes = 4L * starts.capacity() * (tags == null ? 3 : 4);
+        if (!starts.spilled() && bytes > spillBytes) {
+            starts.spill();
+            ends.spill();
+            procs.spill();
+            if (tags != null) tags.spill();
+        }
+    }
+
+    // true once the columns have moved to disk
+    public boolean spilled() {
+        return starts.spilled();
+    }
+
+    @Override public int size() { return size; }
+    @Override public int start(int i) { return starts.get(i); }
+    @Override public int end(int i) { return ends.get(i); }
+    @Override public int proc(int i) { return procs.get(i); }
+    @Override public boolean hasTags() { return tags != null; }
+    @Override public int tag(int i) { return tags == null ? -1 : tags.get(i); }
+    @Override public boolean onHeap() { return false; }
+
+    @Override
+    public void release() {
+        starts.close();
+        ends.close();
+        procs.close();
+        if (tags != null) tags.close();
+    }
+
+    // read-only view over the current storage; sees later extendLast calls only while the
+    // timeline has not grown since
+    @Override
+    public Timeline range(int fromTime, int toTime) {
+        int from = firstEndingAfter(fromTime);
+        int to = Math.max(from, firstStartingAtOrAfter(toTime));
+        return new MappedTimeline(this, starts.buffer(), ends.buffer(), procs.buffer(),
+                tags == null ? null : tags.buffer(), from, to - from);
+    }
+}
@@ -0,0 +1,132 @@
+// PngWriter.java
+// Minimal streaming PNG encoder for 8-bit RGB images: rows are filtered (Sub), deflated and
+// written as IDAT chunks as they arrive, so an image never has to exist in memory as a
+// whole. Used for full-timeline Gantt exports that can be far wider than a BufferedImage
+// the heap could hold.
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+public class PngWriter implements AutoCloseable {
+    private static final byte[] SIGNATURE = {(byte) 137, 'P', 'N', 'G', '\r', '\n', 26, '\n'};
+    private static final int CHUNK_BYTES = 1 << 16;
+    private static final int FILTER_SUB = 1;
+
+    private final OutputStream out;
+    private final int width;
+    private final int height;
+    private final Deflater deflater;
+    private final IdatStream chunks;
+    private final DeflaterOutputStream idat;
+    private final byte[] filtered;
+    private int rows;
+
+    // writes the signature and header; closing the writer closes out
+    public PngWriter(OutputStream out, int width, int height) throws IOException {
+        if (width <= 0 || height <= 0) throw new IllegalArgumentException("Empty image: " + width + "x" + height);
+        if (width > (Integer.MAX_VALUE - 1) / 3) throw new IllegalArgumentException("Image too wide: " + width);
+        this.out = out;
+        this.width = width;
+        this.height = height;
+        this.filtered = new byte[1 + 3 * width];
+        out.write(SIGNATURE);
+        byte[] ihdr = new byte[13];
+        putInt(ihdr, 0, width);
+        putInt(ihdr, 4, height);
+        ihdr[8] = 8; // bit depth
+        ihdr[9] = 2; // color type: RGB
+        // compression, filter method and interlace all 0
+        chunk("IHDR", ihdr, ihdr.length);
+        deflater = new Deflater(Deflater.BEST_SPEED);
+        chunks = new IdatStream();
+        idat = new DeflaterOutputStream(chunks, deflater, CHUNK_BYTES);
+    }
+
+    public int width() {
+        return width;
+    }
+
+    public int height() {
+        return height;
+    }
+
+    // next row, top to bottom, as 3 * width bytes of r, g, b
+    public void writeRow(byte[] rgb) throws IOException {
+        if (rows == height) throw new IllegalStateException("All " + height + " rows already written");
+        filtered[0] = FILTER_SUB;
+        int n = 3 * width;
+        System.arraycopy(rgb, 0, filtered, 1, 3);
+        for (int i = 3; i < n; i++) filtered[1 + i] = (byte) (rgb[i] - rgb[i - 3]);
+        idat.write(filtered, 0, 1 + n);
+        rows++;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (rows != height) throw new IOException("PNG incomplete: " + rows + " of " + height + " rows written");
+            idat.finish();
+            chunks.flushChunk();
+            chunk("IEND", new byte[0], 0);
+            out.flush();
+        } finally {
+            deflater.end();
+            out.close();
+        }
+    }
+
+    private void chunk(String type, byte[] data, int length) throws IOException {
+        byte[] head = new byte[8];
+        putInt(head, 0, length);
+        byte[] t = type.getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(t, 0, head, 4, 4);
+        CRC32 crc = new CRC32();
+        crc.update(t);
+        crc.update(data, 0, length);
+        byte[] tail = new byte[4];
+        putInt(tail, 0, (int) crc.getValue());
+        out.write(head);
+        out.write(data, 0, length);
+        out.write(tail);
+    }
+
+    private static void putInt(byte[] b, int at, int v) {
+        b[at] = (byte) (v >>> 24);
+        b[at + 1] = (byte) (v >>> 16);
+        b[at + 2] = (byte) (v >>> 8);
+        b[at + 3] = (byte) v;
+    }
+
+    // collects deflated bytes into IDAT chunks of up to CHUNK_BYTES
+    private class IdatStream extends OutputStream {
+        private final byte[] buf = new byte[CHUNK_BYTES];
+        private int pos;
+
+        @Override
+        public void write(int b) throws IOException {
+            if (pos == buf.length) flushChunk();
+            buf[pos++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            while (len > 0) {
+                if (pos == buf.length) flushChunk();
+                int n = Math.min(len, buf.length - pos);
+                System.arraycopy(b, off, buf, pos, n);
+                pos += n;
+                off += n;
+                len -= n;
+            }
+        }
+
+        private void flushChunk() throws IOException {
+            if (pos > 0) chunk("IDAT", buf, pos);
+            pos = 0;
+        }
+    }
+}
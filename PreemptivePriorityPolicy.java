@@ -0,0 +1,36 @@
+// PreemptivePriorityPolicy.java
+// Priority scheduling, preemptive (lower number = higher priority).
+// tie-break: shorter remaining time, earlier arrival, then input order
+
+public class PreemptivePriorityPolicy implements SchedulingPolicy {
+    private IndexedHeap ready;
+
+    @Override public String name() { return "Priority (Preemptive)"; }
+    @Override public String id() { return "priority-preemptive"; }
+    @Override public boolean preemptive() { return true; }
+
+    @Override
+    public void reset(SimulationKernel kernel) {
+        int[] priority = kernel.priorities();
+        int[] remaining = kernel.remaining();
+        int[] arrival = kernel.arrivals();
+        ready = new IndexedHeap(kernel.processCount(), (a, b) -> priority[a] != priority[b] ? priority[a] < priority[b]
+                : remaining[a] != remaining[b] ? remaining[a] < remaining[b]
+                : arrival[a] != arrival[b] ? arrival[a] < arrival[b] : a < b);
+    }
+
+    @Override
+    public void onArrival(int p) {
+        ready.add(p);
+    }
+
+    @Override
+    public int pickNext() {
+        return ready.isEmpty() ? -1 : ready.poll();
+    }
+
+    @Override
+    public int[] readySet() {
+        return ready.toArray();
+    }
+}
@@ -0,0 +1,33 @@
+// PriorityPolicy.java
+// Priority scheduling, non-preemptive (lower number = higher priority).
+// tie-break: shorter burst, then input order
+
+public class PriorityPolicy implements SchedulingPolicy {
+    private IndexedHeap ready;
+
+    @Override public String name() { return "Priority (Non-preemptive)"; }
+    @Override public String id() { return "priority"; }
+
+    @Override
+    public void reset(SimulationKernel kernel) {
+        int[] priority = kernel.priorities();
+        int[] burst = kernel.bursts();
+        ready = new IndexedHeap(kernel.processCount(), (a, b) -> priority[a] != priority[b] ? priority[a] < priority[b]
+                : burst[a] != burst[b] ? burst[a] < burst[b] : a < b);
+    }
+
+    @Override
+    public void onArrival(int p) {
+        ready.add(p);
+    }
+
+    @Override
+    public int pickNext() {
+        return ready.isEmpty() ? -1 : ready.poll();
+    }
+
+    @Override
+    public int[] readySet() {
+        return ready.toArray();
+    }
+}
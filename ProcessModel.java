@@ -14,6 +14,7 @@ public class ProcessModel {
     public int waitingTime = 0;
     public int turnaroundTime = 0;
     public Color color;
+    public int affinity = -1; // preferred CPU for SmpSimulator runs, -1 for any
 
     public ProcessModel(String pid, int arrival, int burst, int priority, Color color) {
         this.pid = pid;
@@ -31,6 +32,7 @@ public class ProcessModel {
         p.completionTime = completionTime;
         p.waitingTime = waitingTime;
         p.turnaroundTime = turnaroundTime;
+        p.affinity = affinity;
         return p;
     }
 
@@ -0,0 +1,89 @@
+// ProcessStats.java
+// Waiting, turnaround and response (first start - arrival) distributions of completed
+// processes, collected in one pass into LatencyHistograms. Memory does not grow with the
+// number of processes, so it also serves streamed runs that keep no result. Large lists are
+// split across the common fork-join pool and the partial histograms merged.
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+public class ProcessStats {
+    private static final int PARALLEL_THRESHOLD = 1 << 17;
+
+    public final LatencyHistogram waiting = new LatencyHistogram();
+    public final LatencyHistogram turnaround = new LatencyHistogram();
+    public final LatencyHistogram response = new LatencyHistogram();
+
+    public void add(ProcessModel p) {
+        add(p.waitingTime, p.turnaroundTime, p.startTime - p.arrival);
+    }
+
+    public void add(int waitingTime, int turnaroundTime, int responseTime) {
+        waiting.record(waitingTime);
+        turnaround.record(turnaroundTime);
+        response.record(responseTime);
+    }
+
+    public void merge(ProcessStats other) {
+        waiting.merge(other.waiting);
+        turnaround.merge(other.turnaround);
+        response.merge(other.response);
+    }
+
+    public long count() {
+        return waiting.count();
+    }
+
+    public static ProcessStats of(List<ProcessModel> processes) {
+        int n = processes.size();
+        int parts = Math.min(ForkJoinPool.getCommonPoolParallelism(), n / PARALLEL_THRESHOLD);
+        if (parts < 2) return range(processes, 0, n);
+        List<Callable<ProcessStats>> tasks = new ArrayList<>();
+        for (int i = 0; i < parts; i++) {
+            int from = (int) ((long) n * i / parts);
+            int to = (int) ((long) n * (i + 1) / parts);
+            tasks.add(() -> range(processes, from, to));
+        }
+        ProcessStats stats = new ProcessStats();
+        try {
+            for (Future<ProcessStats> f : ForkJoinPool.commonPool().invokeAll(tasks)) stats.merge(f.get());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return range(processes, 0, n);
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException(ex.getCause());
+        }
+        return stats;
+    }
+
+    private static ProcessStats range(List<ProcessModel> processes, int from, int to) {
+        ProcessStats stats = new ProcessStats();
+        if (processes instanceof ResultStore.Processes) {
+            // an opened result file: read the columns, no ProcessModel per row
+            ((ResultStore.Processes) processes).collect(stats, from, to);
+            return stats;
+        }
+        for (int i = from; i < to; i++) stats.add(processes.get(i));
+        return stats;
+    }
+
+    // avg, max and p50/p95/p99 of each distribution, e.g. avgWaiting, maxWaiting, p95Waiting
+    public void putMetrics(Map<String, Double> m) {
+        put(m, "Waiting", waiting);
+        put(m, "Turnaround", turnaround);
+        put(m, "Response", response);
+    }
+
+    private static void put(Map<String, Double> m, String name, LatencyHistogram h) {
+        m.put("avg" + name, h.mean());
+        m.put("max" + name, (double) h.max());
+        m.put("p50" + name, (double) h.percentile(0.50));
+        m.put("p95" + name, (double) h.percentile(0.95));
+        m.put("p99" + name, (double) h.percentile(0.99));
+    }
+}
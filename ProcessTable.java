@@ -0,0 +1,282 @@
+// ProcessTable.java
+// Columnar process list: arrival, burst and priority live in primitive int columns, PIDs are
+// packed back to back in one byte array, and colors are an index into a small interned
+// RGB palette (-1 = no color). Rows are only turned into ProcessModel objects on demand.
+// Rows can be edited in place and removed in bulk; PIDs are fixed once added.
+// fingerprint() identifies the contents for ResultCache. It is a sum of 64-bit row hashes
+// over (row index, PID, arrival, burst, priority, color), kept up to date by every edit:
+// adding or changing a row costs one row hash, and removeRows rehashes only the rows its
+// compaction pass moves anyway. The row index is part of the hash because scheduling ties
+// follow table order and rows without a color take a default by position.
+
+import java.awt.Color;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.List;
+
+public class ProcessTable {
+    private int size;
+    private int[] arrival;
+    private int[] burst;
+    private int[] priority;
+    private int[] colorIndex;
+    private int[] pidEnd;        // exclusive end of each PID in pidBytes
+    private byte[] pidBytes;
+    private int pidLength;
+    private long hashSum;
+
+    // interned colors: palette[i] is an RGB value, paletteSlots an open-addressing index
+    private int[] palette = new int[8];
+    private int paletteSize;
+    private int[] paletteSlots = new int[16];
+
+    public ProcessTable() {
+        this(16);
+    }
+
+    public ProcessTable(int capacity) {
+        capacity = Math.max(1, capacity);
+        arrival = new int[capacity];
+        burst = new int[capacity];
+        priority = new int[capacity];
+        colorIndex = new int[capacity];
+        pidEnd = new int[capacity];
+        pidBytes = new byte[capacity * 4];
+        Arrays.fill(paletteSlots, -1);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Appends a row whose PID is src[pidOff, pidOff + pidLen) (ASCII/UTF-8); rgb < 0 = no color.
+    public void add(byte[] src, int pidOff, int pidLen, int arrival, int burst, int priority, int rgb) {
+        ensureRows(size + 1);
+        ensurePidBytes(pidLength + pidLen);
+        System.arraycopy(src, pidOff, pidBytes, pidLength, pidLen);
+        pidLength += pidLen;
+        setRow(size++, arrival, burst, priority, rgb);
+        hashSum += rowHash(size - 1);
+    }
+
+    // Same as above, copying the PID straight out of a (possibly memory-mapped) buffer.
+    public void add(ByteBuffer src, int pidOff, int pidLen, int arrival, int burst, int priority, int rgb) {
+        ensureRows(size + 1);
+        ensurePidBytes(pidLength + pidLen);
+        src.get(pidOff, pidBytes, pidLength, pidLen);
+        pidLength += pidLen;
+        setRow(size++, arrival, burst, priority, rgb);
+        hashSum += rowHash(size - 1);
+    }
+
+    public void add(String pid, int arrival, int burst, int priority, int rgb) {
+        byte[] b = pid.getBytes(StandardCharsets.UTF_8);
+        add(b, 0, b.length, arrival, burst, priority, rgb);
+    }
+
+    private void setRow(int i, int arrival, int burst, int priority, int rgb) {
+        this.arrival[i] = arrival;
+        this.burst[i] = burst;
+        this.priority[i] = priority;
+        this.colorIndex[i] = rgb < 0 ? -1 : internColor(rgb & 0xFFFFFF);
+        this.pidEnd[i] = pidLength;
+    }
+
+    public void setArrival(int i, int v) {
+        hashSum -= rowHash(i);
+        arrival[i] = v;
+        hashSum += rowHash(i);
+    }
+
+    public void setBurst(int i, int v) {
+        hashSum -= rowHash(i);
+        burst[i] = v;
+        hashSum += rowHash(i);
+    }
+
+    public void setPriority(int i, int v) {
+        hashSum -= rowHash(i);
+        priority[i] = v;
+        hashSum += rowHash(i);
+    }
+
+    public void setRgb(int i, int rgb) {
+        hashSum -= rowHash(i);
+        colorIndex[i] = rgb < 0 ? -1 : internColor(rgb & 0xFFFFFF);
+        hashSum += rowHash(i);
+    }
+
+    // Removes the given rows (ascending, no duplicates) in one compacting pass.
+    public void removeRows(int[] rows) {
+        if (rows.length == 0) return;
+        int out = rows[0];
+        int bytesOut = out == 0 ? 0 : pidEnd[out - 1];
+        int k = 0;
+        for (int i = rows[0]; i < size; i++) {
+            hashSum -= rowHash(i);
+            if (k < rows.length && rows[k] == i) {
+                k++;
+                continue;
+            }
+            int from = i == 0 ? 0 : pidEnd[i - 1];
+            int len = pidEnd[i] - from;
+            System.arraycopy(pidBytes, from, pidBytes, bytesOut, len);
+            bytesOut += len;
+            arrival[out] = arrival[i];
+            burst[out] = burst[i];
+            priority[out] = priority[i];
+            colorIndex[out] = colorIndex[i];
+            pidEnd[out] = bytesOut;
+            hashSum += rowHash(out);
+            out++;
+        }
+        size = out;
+        pidLength = bytesOut;
+    }
+
+    // Drops all rows; the palette is kept.
+    public void clear() {
+        size = 0;
+        pidLength = 0;
+        hashSum = 0;
+    }
+
+    // 64-bit digest of the rows, equal for tables with equal contents in equal order
+    public long fingerprint() {
+        return mix64(hashSum + size);
+    }
+
+    private long rowHash(int i) {
+        long h = i * 0x9E3779B97F4A7C15L;
+        for (int k = i == 0 ? 0 : pidEnd[i - 1]; k < pidEnd[i]; k++) h = (h ^ (pidBytes[k] & 0xFF)) * 0x100000001B3L;
+        h = mix64(h ^ arrival[i]);
+        h = mix64(h ^ ((long) burst[i] << 32 | (priority[i] & 0xFFFFFFFFL)));
+        return mix64(h ^ rgb(i));
+    }
+
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+        z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return z ^ (z >>> 33);
+    }
+
+    public int arrival(int i) { return arrival[i]; }
+    public int burst(int i) { return burst[i]; }
+    public int priority(int i) { return priority[i]; }
+    public int colorIndex(int i) { return colorIndex[i]; }
+
+    // RGB of the row's color, -1 when it has none
+    public int rgb(int i) {
+        return colorIndex[i] < 0 ? -1 : palette[colorIndex[i]];
+    }
+
+    public String pid(int i) {
+        int from = i == 0 ? 0 : pidEnd[i - 1];
+        return new String(pidBytes, from, pidEnd[i] - from, StandardCharsets.UTF_8);
+    }
+
+    public int paletteSize() {
+        return paletteSize;
+    }
+
+    public int paletteRgb(int colorIndex) {
+        return palette[colorIndex];
+    }
+
+    // Builds scheduler input; withColors=false leaves colors null so headless callers never
+    // initialise AWT.
+    public List<ProcessModel> toModels(boolean withColors) {
+        return withColors ? toModels(new Color[] {null}) : toModels(null);
+    }
+
+    // As above with colors, rows without one taking defaults[row % defaults.length]; a null
+    // defaults array leaves all colors null.
+    public List<ProcessModel> toModels(Color[] defaults) {
+        Color[] colors = null;
+        if (defaults != null) {
+            colors = new Color[paletteSize];
+            for (int c = 0; c < paletteSize; c++) colors[c] = new Color(palette[c]);
+        }
+        List<ProcessModel> out = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Color color = colors == null ? null
+                    : colorIndex[i] < 0 ? defaults[i % defaults.length] : colors[colorIndex[i]];
+            out.add(new ProcessModel(pid(i), arrival[i], burst[i], priority[i], color));
+        }
+        return out;
+    }
+
+    // Concatenates tables in order into one exactly sized table.
+    public static ProcessTable concat(List<ProcessTable> parts) {
+        int rows = 0;
+        int bytes = 0;
+        for (ProcessTable t : parts) {
+            rows += t.size;
+            bytes += t.pidLength;
+        }
+        ProcessTable out = new ProcessTable(rows);
+        out.pidBytes = new byte[Math.max(1, bytes)];
+        for (ProcessTable t : parts) {
+            int base = out.size;
+            System.arraycopy(t.arrival, 0, out.arrival, base, t.size);
+            System.arraycopy(t.burst, 0, out.burst, base, t.size);
+            System.arraycopy(t.priority, 0, out.priority, base, t.size);
+            System.arraycopy(t.pidBytes, 0, out.pidBytes, out.pidLength, t.pidLength);
+            int[] remap = new int[t.paletteSize];
+            for (int c = 0; c < t.paletteSize; c++) remap[c] = out.internColor(t.palette[c]);
+            for (int i = 0; i < t.size; i++) {
+                out.pidEnd[base + i] = out.pidLength + t.pidEnd[i];
+                out.colorIndex[base + i] = t.colorIndex[i] < 0 ? -1 : remap[t.colorIndex[i]];
+            }
+            out.pidLength += t.pidLength;
+            out.size += t.size;
+        }
+        for (int i = 0; i < out.size; i++) out.hashSum += out.rowHash(i);
+        return out;
+    }
+
+    private int internColor(int rgb) {
+        int mask = paletteSlots.length - 1;
+        int slot = mix(rgb) & mask;
+        while (paletteSlots[slot] >= 0) {
+            if (palette[paletteSlots[slot]] == rgb) return paletteSlots[slot];
+            slot = (slot + 1) & mask;
+        }
+        if (paletteSize == palette.length) palette = Arrays.copyOf(palette, paletteSize * 2);
+        palette[paletteSize] = rgb;
+        paletteSlots[slot] = paletteSize;
+        if (++paletteSize * 2 > paletteSlots.length) rehashPalette();
+        return paletteSize - 1;
+    }
+
+    private static int mix(int rgb) {
+        return (rgb * 0x9E3779B1) >>> 11;
+    }
+
+    private void rehashPalette() {
+        paletteSlots = new int[paletteSlots.length * 2];
+        Arrays.fill(paletteSlots, -1);
+        int mask = paletteSlots.length - 1;
+        for (int c = 0; c < paletteSize; c++) {
+            int slot = mix(palette[c]) & mask;
+            while (paletteSlots[slot] >= 0) slot = (slot + 1) & mask;
+            paletteSlots[slot] = c;
+        }
+    }
+
+    private void ensureRows(int rows) {
+        if (rows <= arrival.length) return;
+        int cap = Math.max(rows, arrival.length + (arrival.length >> 1));
+        arrival = Arrays.copyOf(arrival, cap);
+        burst = Arrays.copyOf(burst, cap);
+        priority = Arrays.copyOf(priority, cap);
+        colorIndex = Arrays.copyOf(colorIndex, cap);
+        pidEnd = Arrays.copyOf(pidEnd, cap);
+    }
+
+    private void ensurePidBytes(int bytes) {
+        if (bytes <= pidBytes.length) return;
+        pidBytes = Arrays.copyOf(pidBytes, Math.max(bytes, pidBytes.length + (pidBytes.length >> 1)));
+    }
+}
@@ -0,0 +1,132 @@
+// ProcessTableModel.java
+// Swing table model over a columnar ProcessTable, so the process list holds primitive
+// columns instead of a Vector of boxed cells per row. Cells are produced only when JTable
+// asks for the visible ones; colors come from one Color per palette entry, and rows without
+// a color show the default palette by row index. Adds, removals and loads fire one event
+// per batch.
+
+import javax.swing.table.AbstractTableModel;
+import java.awt.Color;
+import java.util.List;
+
+public class ProcessTableModel extends AbstractTableModel {
+    public static final int PID = 0, ARRIVAL = 1, BURST = 2, PRIORITY = 3, COLOR = 4;
+    private static final String[] COLUMNS = {"PID", "Arrival", "Burst", "Priority", "Color"};
+    private static final int MAX_DELETE_EVENTS = 64; // more separate runs fire one data-changed event
+
+    private final Color[] defaults;
+    private ProcessTable table = new ProcessTable();
+    private Color[] colors = new Color[0]; // Color per palette entry, built lazily
+
+    public ProcessTableModel(Color[] defaults) {
+        this.defaults = defaults;
+    }
+
+    public ProcessTable table() {
+        return table;
+    }
+
+    // Replaces all rows with t, which the model then owns.
+    public void setTable(ProcessTable t) {
+        table = t;
+        colors = new Color[0];
+        fireTableDataChanged();
+    }
+
+    public void add(String pid, int arrival, int burst, int priority, Color color) {
+        int row = table.size();
+        table.add(pid, arrival, burst, priority, color == null ? -1 : color.getRGB() & 0xFFFFFF);
+        fireTableRowsInserted(row, row);
+    }
+
+    // rows ascending and without duplicates
+    public void removeRows(int[] rows) {
+        if (rows.length == 0) return;
+        table.removeRows(rows);
+        int runs = 1;
+        for (int k = 1; k < rows.length; k++) if (rows[k] != rows[k - 1] + 1) runs++;
+        if (runs > MAX_DELETE_EVENTS) {
+            fireTableDataChanged();
+            return;
+        }
+        // contiguous runs from the last, so earlier indices stay valid
+        int end = rows.length - 1;
+        for (int k = rows.length - 1; k >= 0; k--) {
+            if (k == 0 || rows[k - 1] != rows[k] - 1) {
+                fireTableRowsDeleted(rows[k], rows[end]);
+                end = k - 1;
+            }
+        }
+    }
+
+    public void clear() {
+        int n = table.size();
+        if (n == 0) return;
+        table.clear();
+        fireTableRowsDeleted(0, n - 1);
+    }
+
+    public Color color(int row) {
+        int c = table.colorIndex(row);
+        if (c < 0) return defaults[row % defaults.length];
+        if (c >= colors.length) {
+            Color[] grown = new Color[table.paletteSize()];
+            System.arraycopy(colors, 0, grown, 0, colors.length);
+            colors = grown;
+        }
+        if (colors[c] == null) colors[c] = new Color(table.paletteRgb(c));
+        return colors[c];
+    }
+
+    // Scheduler input straight from the columns, with the colors shown in the table.
+    public List<ProcessModel> toModels() {
+        return table.toModels(defaults);
+    }
+
+    @Override public int getRowCount() { return table.size(); }
+    @Override public int getColumnCount() { return COLUMNS.length; }
+    @Override public String getColumnName(int col) { return COLUMNS[col]; }
+
+    @Override
+    public Class<?> getColumnClass(int col) {
+        return col == PID ? String.class : col == COLOR ? Color.class : Integer.class;
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int col) {
+        // allow editing arrival, burst, priority and color
+        return col != PID;
+    }
+
+    @Override
+    public Object getValueAt(int row, int col) {
+        switch (col) {
+            case PID: return table.pid(row);
+            case ARRIVAL: return table.arrival(row);
+            case BURST: return table.burst(row);
+            case PRIORITY: return table.priority(row);
+            default: return color(row);
+        }
+    }
+
+    // Ignores values that are not valid for the column (negative arrival, burst below 1).
+    @Override
+    public void setValueAt(Object value, int row, int col) {
+        if (col == COLOR) {
+            if (!(value instanceof Color)) return;
+            table.setRgb(row, ((Color) value).getRGB() & 0xFFFFFF);
+        } else {
+            int v;
+            try {
+                v = value instanceof Number ? ((Number) value).intValue() : Integer.parseInt(value.toString().trim());
+            } catch (NumberFormatException | NullPointerException ex) {
+                return;
+            }
+            if (col == ARRIVAL && v >= 0) table.setArrival(row, v);
+            else if (col == BURST && v > 0) table.setBurst(row, v);
+            else if (col == PRIORITY) table.setPriority(row, v);
+            else return;
+        }
+        fireTableCellUpdated(row, col);
+    }
+}
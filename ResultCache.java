@@ -0,0 +1,124 @@
+// ResultCache.java
+// Bounded LRU cache of Scheduler.Results, keyed by the workload fingerprint
+// (ProcessTable.fingerprint()), the algorithm and the settings that change its schedule.
+// Eviction is by estimated memory footprint rather than entry count, so switching back and
+// forth between a few algorithms on a large workload stays cached while a budget holds.
+// Heap results and the slice columns of off-heap ones (SimulationConfig.offHeap) have
+// separate budgets; an evicted result's off-heap columns are released (Timeline.release).
+// Cached results are shared and must be treated as read-only. Thread-safe.
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class ResultCache {
+    // rough per-item costs of a heap result: one process table entry (PID string, map entry,
+    // boxed index) plus one ProcessModel per process
+    private static final long BYTES_PER_PROCESS = 200;
+    private static final long BYTES_PER_RESULT = 256;
+
+    private final long maxBytes;
+    private final long maxOffHeapBytes;
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+    private long offHeapBytes;
+    private long hits;
+    private long misses;
+
+    private static class Entry {
+        final Scheduler.Result result;
+        final long bytes;
+        final long offHeapBytes;
+
+        Entry(Scheduler.Result result) {
+            this.result = result;
+            this.bytes = footprint(result);
+            this.offHeapBytes = offHeapFootprint(result);
+        }
+    }
+
+    public ResultCache(long maxBytes, long maxOffHeapBytes) {
+        this.maxBytes = maxBytes;
+        this.maxOffHeapBytes = maxOffHeapBytes;
+    }
+
+    public synchronized Scheduler.Result get(long fingerprint, String algo, SimulationConfig config) {
+        Entry e = entries.get(key(fingerprint, algo, config));
+        if (e == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return e.result;
+    }
+
+    // Results larger than a whole budget are not kept.
+    public synchronized void put(long fingerprint, String algo, SimulationConfig config, Scheduler.Result res) {
+        Entry e = new Entry(res);
+        if (e.bytes > maxBytes || e.offHeapBytes > maxOffHeapBytes) return;
+        Entry old = entries.put(key(fingerprint, algo, config), e);
+        if (old != null) remove(old, res);
+        bytes += e.bytes;
+        offHeapBytes += e.offHeapBytes;
+        Iterator<Entry> it = entries.values().iterator();
+        while ((bytes > maxBytes || offHeapBytes > maxOffHeapBytes) && it.hasNext()) {
+            remove(it.next(), res);
+            it.remove();
+        }
+    }
+
+    public synchronized void clear() {
+        for (Entry e : entries.values()) remove(e, null);
+        entries.clear();
+    }
+
+    // takes e off the budgets and releases its columns, unless it holds keep
+    private void remove(Entry e, Scheduler.Result keep) {
+        bytes -= e.bytes;
+        offHeapBytes -= e.offHeapBytes;
+        if (e.result != keep) e.result.gantt.release();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long bytes() {
+        return bytes;
+    }
+
+    public synchronized long offHeapBytes() {
+        return offHeapBytes;
+    }
+
+    public synchronized long hits() {
+        return hits;
+    }
+
+    public synchronized long misses() {
+        return misses;
+    }
+
+    // off-heap storage and the monitor do not change the schedule, so they are not part of it
+    static String key(long fingerprint, String algo, SimulationConfig c) {
+        return Long.toHexString(fingerprint) + '|' + c.scheduleKey(algo);
+    }
+
+    // Estimated heap bytes held by a result: its slice columns when they are on the heap, plus
+    // the process objects.
+    public static long footprint(Scheduler.Result res) {
+        Timeline t = res.gantt;
+        long sliceBytes = t.onHeap() ? sliceBytes(t) : 0;
+        long processes = Math.max(t.processCount(), res.processes.size());
+        return BYTES_PER_RESULT + sliceBytes + processes * BYTES_PER_PROCESS;
+    }
+
+    // estimated bytes of direct or mapped memory held by a result's slice columns
+    public static long offHeapFootprint(Scheduler.Result res) {
+        return res.gantt.onHeap() ? 0 : sliceBytes(res.gantt);
+    }
+
+    private static long sliceBytes(Timeline t) {
+        return (long) t.size() * 4 * (t.hasTags() ? 4 : 3);
+    }
+}
@@ -0,0 +1,306 @@
+// ResultExporter.java
+// Streaming export of timelines and per-process metrics as CSV or JSON Lines, optionally
+// gzip-compressed. Rows are formatted straight into one reusable byte buffer (integers digit
+// by digit, ASCII text char by char) that is handed to a FileChannel whenever it fills, so
+// exporting allocates nothing per row and runs at disk (or gzip) speed. The format and
+// compression follow the file name: .jsonl/.ndjson for JSON Lines, a trailing .gz for gzip.
+
+import java.awt.Color;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+public class ResultExporter implements AutoCloseable {
+    public enum Format { CSV, JSONL }
+
+    private static final int BUFFER_BYTES = 1 << 20;
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    private final Format format;
+    private final WritableByteChannel channel;
+    private final GZIPOutputStream gzip; // wraps channel when compressing
+    private final boolean closeTarget;
+    private final byte[] buf = new byte[BUFFER_BYTES];
+    private final ByteBuffer view = ByteBuffer.wrap(buf);
+    private int pos;
+
+    private ResultExporter(Format format, WritableByteChannel channel, boolean gzip, boolean closeTarget) throws IOException {
+        this.format = format;
+        this.channel = channel;
+        this.gzip = gzip ? new GZIPOutputStream(Channels.newOutputStream(channel), 1 << 16) : null;
+        this.closeTarget = closeTarget;
+    }
+
+    public static ResultExporter open(Path path, Format format, boolean gzip) throws IOException {
+        FileChannel ch = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        return new ResultExporter(format, ch, gzip, true);
+    }
+
+    // "-" writes to stdout, which is flushed but left open on close()
+    public static ResultExporter open(String path) throws IOException {
+        if ("-".equals(path)) {
+            return new ResultExporter(Format.CSV, Channels.newChannel(new FileOutputStream(FileDescriptor.out)), false, false);
+        }
+        return open(Paths.get(path), formatOf(path), isGzip(path));
+    }
+
+    public static Format formatOf(String name) {
+        String n = stripGz(name.toLowerCase(Locale.ROOT));
+        return n.endsWith(".jsonl") || n.endsWith(".ndjson") ? Format.JSONL : Format.CSV;
+    }
+
+    public static boolean isGzip(String name) {
+        return name.toLowerCase(Locale.ROOT).endsWith(".gz");
+    }
+
+    private static String stripGz(String name) {
+        return name.endsWith(".gz") ? name.substring(0, name.length() - 3) : name;
+    }
+
+    public Format format() {
+        return format;
+    }
+
+    // ---- timelines ----
+
+    // CSV header for slice(): [CPU,]PID,Start,End[,Tag]; nothing for JSON Lines
+    public void timelineHeader(boolean withCpu, boolean tagged) throws IOException {
+        if (format != Format.CSV) return;
+        ascii(withCpu ? "CPU,PID,Start,End" : "PID,Start,End");
+        ascii(tagged ? ",Tag\n" : "\n");
+    }
+
+    // one slice; cpu < 0 and tag < 0 leave those fields out
+    public void slice(int cpu, String pid, int start, int end, int tag) throws IOException {
+        ensure(64 + 6 * pid.length());
+        if (format == Format.CSV) {
+            if (cpu >= 0) { integer(cpu); put(','); }
+            text(pid);
+            put(','); integer(start);
+            put(','); integer(end);
+            if (tag >= 0) { put(','); integer(tag); }
+        } else {
+            put('{');
+            if (cpu >= 0) { key("cpu"); integer(cpu); put(','); }
+            key("pid"); text(pid);
+            put(','); key("start"); integer(start);
+            put(','); key("end"); integer(end);
+            if (tag >= 0) { put(','); key("tag"); integer(tag); }
+            put('}');
+        }
+        put('\n');
+    }
+
+    public void writeTimeline(Timeline t) throws IOException {
+        timelineHeader(false, t.hasTags());
+        writeSlices(-1, t);
+    }
+
+    // one Gantt lane per CPU, lane by lane
+    public void writeLanes(Timeline[] lanes) throws IOException {
+        boolean tagged = false;
+        for (Timeline lane : lanes) tagged |= lane.hasTags();
+        timelineHeader(true, tagged);
+        for (int c = 0; c < lanes.length; c++) writeSlices(c, lanes[c]);
+    }
+
+    private void writeSlices(int cpu, Timeline t) throws IOException {
+        boolean tagged = t.hasTags();
+        for (int i = 0, n = t.size(); i < n; i++) {
+            slice(cpu, t.processPid(t.proc(i)), t.start(i), t.end(i), tagged ? t.tag(i) : -1);
+        }
+    }
+
+    // ---- per-process metrics ----
+
+    public void processHeader() throws IOException {
+        if (format == Format.CSV) ascii("PID,Arrival,Burst,Priority,Start,Completion,Waiting,Turnaround\n");
+    }
+
+    public void process(String pid, int arrival, int burst, int priority, int start, int completion,
+                        int waiting, int turnaround) throws IOException {
+        ensure(160 + 6 * pid.length());
+        if (format == Format.CSV) {
+            text(pid);
+            put(','); integer(arrival);
+            put(','); integer(burst);
+            put(','); integer(priority);
+            put(','); integer(start);
+            put(','); integer(completion);
+            put(','); integer(waiting);
+            put(','); integer(turnaround);
+        } else {
+            put('{');
+            key("pid"); text(pid);
+            put(','); key("arrival"); integer(arrival);
+            put(','); key("burst"); integer(burst);
+            put(','); key("priority"); integer(priority);
+            put(','); key("start"); integer(start);
+            put(','); key("completion"); integer(completion);
+            put(','); key("waiting"); integer(waiting);
+            put(','); key("turnaround"); integer(turnaround);
+            put('}');
+        }
+        put('\n');
+    }
+
+    public void writeProcesses(List<ProcessModel> processes) throws IOException {
+        processHeader();
+        for (int i = 0, n = processes.size(); i < n; i++) {
+            ProcessModel p = processes.get(i);
+            process(p.pid, p.arrival, p.burst, p.priority, p.startTime, p.completionTime, p.waitingTime, p.turnaroundTime);
+        }
+    }
+
+    // ---- input table ----
+
+    public void inputHeader() throws IOException {
+        if (format == Format.CSV) ascii("PID,Arrival,Burst,Priority,Color\n");
+    }
+
+    // the format read back by CsvImporter; color as #rrggbb
+    public void input(String pid, int arrival, int burst, int priority, Color color) throws IOException {
+        ensure(96 + 6 * pid.length());
+        if (format == Format.CSV) {
+            text(pid);
+            put(','); integer(arrival);
+            put(','); integer(burst);
+            put(','); integer(priority);
+            put(','); hexColor(color);
+        } else {
+            put('{');
+            key("pid"); text(pid);
+            put(','); key("arrival"); integer(arrival);
+            put(','); key("burst"); integer(burst);
+            put(','); key("priority"); integer(priority);
+            put(','); key("color"); put('"'); hexColor(color); put('"');
+            put('}');
+        }
+        put('\n');
+    }
+
+    // ---- formatting ----
+
+    private void ensure(int bytes) throws IOException {
+        if (buf.length - pos < bytes) flush();
+    }
+
+    private void put(char c) {
+        buf[pos++] = (byte) c;
+    }
+
+    private void ascii(String s) throws IOException {
+        ensure(s.length());
+        for (int i = 0; i < s.length(); i++) buf[pos++] = (byte) s.charAt(i);
+    }
+
+    private void key(String name) {
+        put('"');
+        for (int i = 0; i < name.length(); i++) buf[pos++] = (byte) name.charAt(i);
+        put('"');
+        put(':');
+    }
+
+    private void integer(int v) {
+        if (v < 0) {
+            put('-');
+            if (v == Integer.MIN_VALUE) {
+                for (byte b : "2147483648".getBytes(StandardCharsets.US_ASCII)) buf[pos++] = b;
+                return;
+            }
+            v = -v;
+        }
+        int digits = 1;
+        for (int x = v; x >= 10; x /= 10) digits++;
+        int at = pos + digits;
+        do {
+            buf[--at] = (byte) ('0' + v % 10);
+            v /= 10;
+        } while (v > 0);
+        pos += digits;
+    }
+
+    private void hexColor(Color c) {
+        if (c == null) return;
+        put('#');
+        int rgb = c.getRGB();
+        for (int shift = 20; shift >= 0; shift -= 4) buf[pos++] = HEX[(rgb >>> shift) & 15];
+    }
+
+    // A CSV field (quoted when it holds a comma, quote or line break) or a JSON string.
+    // ASCII is copied as is; other characters are UTF-8 encoded in place. Callers reserve
+    // 6 bytes per char plus the quotes.
+    private void text(String s) {
+        boolean json = format == Format.JSONL;
+        boolean quote = json;
+        if (!json) {
+            for (int i = 0; i < s.length() && !quote; i++) {
+                char c = s.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+        }
+        if (quote) put('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"') {
+                if (json) put('\\');
+                else put('"');
+                put('"');
+            } else if (json && c == '\\') {
+                put('\\');
+                put('\\');
+            } else if (json && c < 0x20) {
+                put('\\'); put('u'); put('0'); put('0');
+                buf[pos++] = HEX[c >> 4];
+                buf[pos++] = HEX[c & 15];
+            } else if (c < 0x80) {
+                buf[pos++] = (byte) c;
+            } else if (c < 0x800) {
+                buf[pos++] = (byte) (0xC0 | (c >> 6));
+                buf[pos++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, s.charAt(++i));
+                buf[pos++] = (byte) (0xF0 | (cp >> 18));
+                buf[pos++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                buf[pos++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                buf[pos++] = (byte) (0x80 | (cp & 0x3F));
+            } else {
+                buf[pos++] = (byte) (0xE0 | (c >> 12));
+                buf[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buf[pos++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        if (quote) put('"');
+    }
+
+    public void flush() throws IOException {
+        if (pos == 0) return;
+        if (gzip != null) {
+            gzip.write(buf, 0, pos);
+        } else {
+            view.clear().limit(pos);
+            while (view.hasRemaining()) channel.write(view);
+        }
+        pos = 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        if (gzip != null) gzip.finish();
+        if (gzip != null && closeTarget) gzip.close();
+        else if (closeTarget) channel.close();
+    }
+}
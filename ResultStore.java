@@ -0,0 +1,283 @@
+// ResultStore.java
+// Binary columnar file for a Scheduler.Result, so a run can be reopened without simulating
+// it again. Layout (little-endian, sections 8-byte aligned):
+//   header   magic "OSPSRES1", version, flags (1 = tagged slices), process table entries,
+//            slices, result rows, PID bytes, the offset of each section below, then the
+//            table entry of the overhead slices (-1 = none)
+//   table    pidEnd[P], rgb[P] (-1 = no color), then the PID bytes (UTF-8)
+//   results  proc, arrival, burst, priority, start, completion, waiting, turnaround and
+//            affinity columns [R]; proc indexes the process table for the PID and color
+//   slices   start, end, proc columns [S], then tag [S] when tagged
+// open() maps the sections and returns a result whose timeline (MappedTimeline) and process
+// list read straight from the mapping, so reopening costs no parsing and almost no heap.
+
+import java.awt.Color;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+public class ResultStore {
+    private static final byte[] MAGIC = "OSPSRES1".getBytes(StandardCharsets.US_ASCII);
+    private static final int VERSION = 3; // 2: slice section aligned like the others, 3: overhead entry
+    private static final int HEADER_BYTES = 96;
+    private static final int FLAG_TAGS = 1;
+    private static final int RESULT_COLUMNS = 9;
+
+    // ---- writing ----
+
+    public static void save(Scheduler.Result res, Path path) throws IOException {
+        Timeline t = res.gantt;
+        List<ProcessModel> procs = res.processes;
+        int slices = t.size();
+        int rows = procs.size();
+
+        // process table: the timeline's, plus entries for result rows it lacks
+        int tableSize = t.processCount();
+        int[] rowProc = new int[rows];
+        List<ProcessModel> extra = new ArrayList<>();
+        Processes mapped = procs instanceof Processes && ((Processes) procs).table == t ? (Processes) procs : null;
+        for (int i = 0; i < rows; i++) {
+            if (mapped != null) {
+                rowProc[i] = mapped.proc(i);
+                continue;
+            }
+            ProcessModel p = procs.get(i);
+            // a row whose PID appears again with another color gets an entry of its own
+            int idx = t.indexOf(p.pid);
+            if (idx < 0 || !Objects.equals(t.processColor(idx), p.color)) {
+                idx = tableSize + extra.size();
+                extra.add(p);
+            }
+            rowProc[i] = idx;
+        }
+        int entries = tableSize + extra.size();
+        byte[][] pids = new byte[entries][];
+        long pidBytes = 0;
+        for (int p = 0; p < entries; p++) {
+            String pid = p < tableSize ? t.processPid(p) : extra.get(p - tableSize).pid;
+            pids[p] = pid.getBytes(StandardCharsets.UTF_8);
+            pidBytes += pids[p].length;
+        }
+
+        long tableOffset = HEADER_BYTES;
+        long pidOffset = tableOffset + 8L * entries;
+        long resultOffset = align(pidOffset + pidBytes);
+        long sliceOffset = align(resultOffset + 4L * RESULT_COLUMNS * rows);
+        boolean tagged = t.hasTags();
+
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+             Writer w = new Writer(ch)) {
+            w.bytes(MAGIC);
+            w.putInt(VERSION);
+            w.putInt(tagged ? FLAG_TAGS : 0);
+            w.putLong(entries);
+            w.putLong(slices);
+            w.putLong(rows);
+            w.putLong(pidBytes);
+            w.putLong(tableOffset);
+            w.putLong(pidOffset);
+            w.putLong(resultOffset);
+            w.putLong(sliceOffset);
+            w.putLong(t.overheadProcess());
+            w.pad(HEADER_BYTES);
+
+            int end = 0;
+            for (int p = 0; p < entries; p++) w.putInt(end += pids[p].length);
+            for (int p = 0; p < entries; p++) {
+                Color c = p < tableSize ? t.processColor(p) : extra.get(p - tableSize).color;
+                w.putInt(c == null ? -1 : c.getRGB() & 0xFFFFFF);
+            }
+            for (byte[] b : pids) w.bytes(b);
+            w.pad(resultOffset);
+
+            for (int i = 0; i < rows; i++) w.putInt(rowProc[i]);
+            if (mapped != null) {
+                for (int col = 1; col < RESULT_COLUMNS; col++) {
+                    for (int i = 0; i < rows; i++) w.putInt(mapped.column(col, i));
+                }
+            } else {
+                for (ProcessModel p : procs) w.putInt(p.arrival);
+                for (ProcessModel p : procs) w.putInt(p.burst);
+                for (ProcessModel p : procs) w.putInt(p.priority);
+                for (ProcessModel p : procs) w.putInt(p.startTime);
+                for (ProcessModel p : procs) w.putInt(p.completionTime);
+                for (ProcessModel p : procs) w.putInt(p.waitingTime);
+                for (ProcessModel p : procs) w.putInt(p.turnaroundTime);
+                for (ProcessModel p : procs) w.putInt(p.affinity);
+            }
+            w.pad(sliceOffset);
+
+            for (int i = 0; i < slices; i++) w.putInt(t.start(i));
+            for (int i = 0; i < slices; i++) w.putInt(t.end(i));
+            for (int i = 0; i < slices; i++) w.putInt(t.proc(i));
+            if (tagged) {
+                for (int i = 0; i < slices; i++) w.putInt(t.tag(i));
+            }
+        }
+    }
+
+    private static long align(long offset) {
+        return (offset + 7) & ~7L;
+    }
+
+    // buffered little-endian writes through a direct buffer
+    private static class Writer implements AutoCloseable {
+        private final FileChannel ch;
+        private final ByteBuffer buf = ByteBuffer.allocateDirect(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+        private long written;
+
+        Writer(FileChannel ch) {
+            this.ch = ch;
+        }
+
+        void putInt(int v) throws IOException {
+            if (buf.remaining() < 4) flush();
+            buf.putInt(v);
+        }
+
+        void putLong(long v) throws IOException {
+            if (buf.remaining() < 8) flush();
+            buf.putLong(v);
+        }
+
+        void bytes(byte[] b) throws IOException {
+            for (int off = 0; off < b.length; ) {
+                if (!buf.hasRemaining()) flush();
+                int len = Math.min(b.length - off, buf.remaining());
+                buf.put(b, off, len);
+                off += len;
+            }
+        }
+
+        // zero bytes up to the given file offset
+        void pad(long offset) throws IOException {
+            while (written + buf.position() < offset) {
+                if (!buf.hasRemaining()) flush();
+                buf.put((byte) 0);
+            }
+        }
+
+        void flush() throws IOException {
+            buf.flip();
+            while (buf.hasRemaining()) written += ch.write(buf);
+            buf.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+
+    // ---- reading ----
+
+    public static Scheduler.Result open(Path path) throws IOException {
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = ch.size();
+            if (fileSize < HEADER_BYTES) throw new IOException("Not a result file: " + path);
+            ByteBuffer h = ch.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            byte[] magic = new byte[MAGIC.length];
+            h.get(magic);
+            if (!Arrays.equals(magic, MAGIC)) throw new IOException("Not a result file: " + path);
+            int version = h.getInt();
+            if (version != VERSION) throw new IOException("Unsupported result file version " + version);
+            boolean tagged = (h.getInt() & FLAG_TAGS) != 0;
+            int entries = count(h.getLong());
+            int slices = count(h.getLong());
+            int rows = count(h.getLong());
+            long pidBytes = h.getLong();
+            long tableOffset = h.getLong();
+            long pidOffset = h.getLong();
+            long resultOffset = h.getLong();
+            long sliceOffset = h.getLong();
+            long overhead = h.getLong();
+            long sliceBytes = 4L * slices * (tagged ? 4 : 3);
+            if (pidBytes < 0 || pidBytes > Integer.MAX_VALUE || tableOffset < HEADER_BYTES
+                    || pidOffset < tableOffset + 8L * entries || resultOffset < pidOffset + pidBytes
+                    || sliceOffset < resultOffset + 4L * RESULT_COLUMNS * rows || overhead < -1 || overhead >= entries) {
+                throw new IOException("Corrupt result file (section offsets): " + path);
+            }
+            if (sliceOffset + sliceBytes > fileSize) throw new IOException("Truncated result file: " + path);
+
+            IntBuffer pidEnds = ints(ch, tableOffset, entries);
+            IntBuffer rgbs = ints(ch, tableOffset + 4L * entries, entries);
+            ByteBuffer pids = ch.map(FileChannel.MapMode.READ_ONLY, pidOffset, pidBytes);
+            IntBuffer[] slice = new IntBuffer[tagged ? 4 : 3];
+            for (int c = 0; c < slice.length; c++) slice[c] = ints(ch, sliceOffset + 4L * slices * c, slices);
+            IntBuffer[] result = new IntBuffer[RESULT_COLUMNS];
+            for (int c = 0; c < RESULT_COLUMNS; c++) result[c] = ints(ch, resultOffset + 4L * rows * c, rows);
+
+            Scheduler.Result res = new Scheduler.Result();
+            res.gantt = new MappedTimeline(slice[0], slice[1], slice[2], tagged ? slice[3] : null, slices,
+                    pidEnds, rgbs, pids, (int) overhead);
+            res.processes = new Processes(res.gantt, result, rows);
+            return res;
+        }
+    }
+
+    private static int count(long n) throws IOException {
+        if (n < 0 || n > Integer.MAX_VALUE) throw new IOException("Corrupt result file (count " + n + ")");
+        return (int) n;
+    }
+
+    // mappings stay valid after the channel is closed
+    private static IntBuffer ints(FileChannel ch, long offset, int count) throws IOException {
+        return ch.map(FileChannel.MapMode.READ_ONLY, offset, 4L * count).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+    }
+
+    // Read-only list over the result columns of an opened file. get() builds a fresh
+    // ProcessModel per call; collect() feeds ProcessStats straight from the columns.
+    public static class Processes extends AbstractList<ProcessModel> implements RandomAccess {
+        private final Timeline table;
+        private final IntBuffer[] columns;
+        private final int size;
+
+        Processes(Timeline table, IntBuffer[] columns, int size) {
+            this.table = table;
+            this.columns = columns;
+            this.size = size;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        int proc(int i) {
+            return columns[0].get(i);
+        }
+
+        int column(int col, int i) {
+            return columns[col].get(i);
+        }
+
+        @Override
+        public ProcessModel get(int i) {
+            if (i < 0 || i >= size) throw new IndexOutOfBoundsException("row " + i + " of " + size);
+            int proc = proc(i);
+            ProcessModel p = new ProcessModel(table.processPid(proc), columns[1].get(i), columns[2].get(i),
+                    columns[3].get(i), table.processColor(proc));
+            p.remaining = 0;
+            p.startTime = columns[4].get(i);
+            p.completionTime = columns[5].get(i);
+            p.waitingTime = columns[6].get(i);
+            p.turnaroundTime = columns[7].get(i);
+            p.affinity = columns[8].get(i);
+            return p;
+        }
+
+        // adds rows [from, to) to stats
+        void collect(ProcessStats stats, int from, int to) {
+            for (int i = from; i < to; i++) {
+                stats.add(columns[6].get(i), columns[7].get(i), columns[4].get(i) - columns[1].get(i));
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+// RoundRobinPolicy.java
+// Round Robin: a FIFO ready queue; a process whose quantum expires goes to the back, after
+// anything that arrived during its slice.
+
+public class RoundRobinPolicy implements SchedulingPolicy {
+    private IntRingBuffer queue;
+    private int quantum;
+
+    @Override public String name() { return "Round Robin"; }
+    @Override public String id() { return "rr"; }
+    @Override public boolean usesQuantum() { return true; }
+
+    @Override
+    public void reset(SimulationKernel kernel) {
+        queue = new IntRingBuffer(kernel.processCount());
+        quantum = kernel.quantum();
+    }
+
+    @Override
+    public void onArrival(int p) {
+        queue.add(p);
+    }
+
+    @Override
+    public int pickNext() {
+        return queue.isEmpty() ? -1 : queue.poll();
+    }
+
+    @Override
+    public int[] readySet() {
+        return queue.toArray();
+    }
+
+    @Override
+    public int timeSlice(int p) {
+        return quantum;
+    }
+}
@@ -1,5 +1,6 @@
 // Scheduler.java
-// Implements several scheduling algorithms and returns a Gantt chart and metrics.
+// Entry points for the scheduling algorithms, which all run on the SimulationKernel with a
+// SchedulingPolicy, plus the Result/Gantt types and metrics.
 
 import java.awt.Color;
 import java.util.*;
@@ -17,199 +18,146 @@ public class Scheduler {
         }
     }
 
+    // pseudo-process of the context-switch / dispatch overhead slices in a timeline; only its
+    // label: overhead slices are found by Timeline.overheadProcess(), not by this PID
+    public static final String OVERHEAD_PID = "[switch]";
+    public static final Color OVERHEAD_COLOR = new Color(96, 96, 96);
+
+    // algorithm names understood by run(), in display order (see SchedulingPolicies)
+    public static final List<String> ALGORITHMS = Collections.unmodifiableList(SchedulingPolicies.names());
+
     public static class Result {
-        public List<GanttEntry> gantt = new ArrayList<>();
+        public Timeline gantt = new Timeline();
         public List<ProcessModel> processes = new ArrayList<>(); // final processes with metrics
     }
 
+    // Runs the policy with the given display name; quantum is only used by policies that
+    // take one (Round Robin, MLFQ).
+    public static Result run(String algo, List<ProcessModel> input, int quantum, SimulationMonitor monitor) {
+        return run(algo, input, new SimulationConfig(quantum, monitor));
+    }
+
+    public static Result run(String algo, List<ProcessModel> input, SimulationConfig config) {
+        return SimulationKernel.run(input, SchedulingPolicies.create(algo), config);
+    }
+
     // FCFS (non preemptive)
     public static Result fcfs(List<ProcessModel> input) {
-        List<ProcessModel> procs = copyAndSortByArrival(input);
-        Result res = new Result();
-        int time = 0;
-        for (ProcessModel p : procs) {
-            if (time < p.arrival) time = p.arrival;
-            p.startTime = time;
-            p.completionTime = time + p.burst;
-            p.turnaroundTime = p.completionTime - p.arrival;
-            p.waitingTime = p.startTime - p.arrival;
-            res.gantt.add(new GanttEntry(p.pid, p.startTime, p.completionTime, p.color));
-            time = p.completionTime;
-            res.processes.add(p);
-        }
-        return res;
+        return fcfs(input, SimulationMonitor.NONE);
+    }
+
+    public static Result fcfs(List<ProcessModel> input, SimulationMonitor monitor) {
+        return SimulationKernel.run(input, new FcfsPolicy(), new SimulationConfig(0, monitor));
     }
 
     // SJF Non-preemptive (Shortest Job First)
+    // tie-break: earlier arrival, then input order
     public static Result sjfNonPreemptive(List<ProcessModel> input) {
-        List<ProcessModel> procs = copyList(input);
-        Result res = new Result();
-        int n = procs.size();
-        int completed = 0;
-        int time = 0;
-        boolean[] done = new boolean[n];
-
-        while (completed < n) {
-            // collect arrived and not done
-            int idx = -1;
-            int bestBurst = Integer.MAX_VALUE;
-            for (int i = 0; i < n; i++) {
-                ProcessModel p = procs.get(i);
-                if (!done[i] && p.arrival <= time) {
-                    if (p.burst < bestBurst) {
-                        bestBurst = p.burst;
-                        idx = i;
-                    } else if (p.burst == bestBurst) {
-                        // tie-break: earlier arrival or PID
-                        if (p.arrival < procs.get(idx).arrival) idx = i;
-                    }
-                }
-            }
-            if (idx == -1) {
-                // no process arrived yet
-                time++;
-                continue;
-            }
-            ProcessModel p = procs.get(idx);
-            p.startTime = time;
-            p.completionTime = time + p.burst;
-            p.turnaroundTime = p.completionTime - p.arrival;
-            p.waitingTime = p.startTime - p.arrival;
-            res.gantt.add(new GanttEntry(p.pid, p.startTime, p.completionTime, p.color));
-            time = p.completionTime;
-            done[idx] = true;
-            completed++;
-            res.processes.add(p);
-        }
-        return res;
+        return sjfNonPreemptive(input, SimulationMonitor.NONE);
+    }
+
+    public static Result sjfNonPreemptive(List<ProcessModel> input, SimulationMonitor monitor) {
+        return SimulationKernel.run(input, new SjfPolicy(), new SimulationConfig(0, monitor));
     }
 
     // Priority Non-preemptive (lower number = higher priority)
+    // tie-break: shorter burst, then input order
     public static Result priorityNonPreemptive(List<ProcessModel> input) {
-        List<ProcessModel> procs = copyList(input);
-        Result res = new Result();
-        int n = procs.size();
-        int completed = 0;
-        int time = 0;
-        boolean[] done = new boolean[n];
-
-        while (completed < n) {
-            int idx = -1;
-            int bestPriority = Integer.MAX_VALUE;
-            for (int i = 0; i < n; i++) {
-                ProcessModel p = procs.get(i);
-                if (!done[i] && p.arrival <= time) {
-                    if (p.priority < bestPriority) {
-                        bestPriority = p.priority;
-                        idx = i;
-                    } else if (p.priority == bestPriority) {
-                        // tie-break: shorter burst
-                        if (p.burst < procs.get(idx).burst) idx = i;
-                    }
-                }
-            }
-            if (idx == -1) {
-                time++;
-                continue;
-            }
-            ProcessModel p = procs.get(idx);
-            p.startTime = time;
-            p.completionTime = time + p.burst;
-            p.turnaroundTime = p.completionTime - p.arrival;
-            p.waitingTime = p.startTime - p.arrival;
-            res.gantt.add(new GanttEntry(p.pid, p.startTime, p.completionTime, p.color));
-            time = p.completionTime;
-            done[idx] = true;
-            completed++;
-            res.processes.add(p);
-        }
-        return res;
+        return priorityNonPreemptive(input, SimulationMonitor.NONE);
+    }
+
+    public static Result priorityNonPreemptive(List<ProcessModel> input, SimulationMonitor monitor) {
+        return SimulationKernel.run(input, new PriorityPolicy(), new SimulationConfig(0, monitor));
+    }
+
+    // SRTF (Shortest Remaining Time First, preemptive SJF)
+    // tie-break: earlier arrival, then input order
+    public static Result srtf(List<ProcessModel> input) {
+        return srtf(input, SimulationMonitor.NONE);
+    }
+
+    public static Result srtf(List<ProcessModel> input, SimulationMonitor monitor) {
+        return SimulationKernel.run(input, new SrtfPolicy(), new SimulationConfig(0, monitor));
+    }
+
+    // Priority Preemptive (lower number = higher priority)
+    // tie-break: shorter remaining time, earlier arrival, then input order
+    public static Result priorityPreemptive(List<ProcessModel> input) {
+        return priorityPreemptive(input, SimulationMonitor.NONE);
+    }
+
+    public static Result priorityPreemptive(List<ProcessModel> input, SimulationMonitor monitor) {
+        return SimulationKernel.run(input, new PreemptivePriorityPolicy(), new SimulationConfig(0, monitor));
     }
 
     // Round Robin
     public static Result roundRobin(List<ProcessModel> input, int quantum) {
-        if (quantum <= 0) quantum = 1;
-        List<ProcessModel> procs = copyList(input);
-        Result res = new Result();
-        int time = 0;
-        // sort by arrival to seed the queue
-        procs.sort(Comparator.comparingInt(p -> p.arrival));
-        Queue<ProcessModel> q = new LinkedList<>();
-        int index = 0;
-        int n = procs.size();
-        int completed = 0;
-
-        while (completed < n) {
-            // add arrived processes to queue
-            while (index < n && procs.get(index).arrival <= time) {
-                q.add(procs.get(index));
-                index++;
-            }
-            if (q.isEmpty()) {
-                if (index < n) {
-                    // fast-forward to next arrival
-                    time = procs.get(index).arrival;
-                    continue;
-                } else {
-                    break;
-                }
-            }
-            ProcessModel p = q.poll();
-            if (p.startTime == -1) {
-                p.startTime = time;
-            }
-            int exec = Math.min(quantum, p.remaining);
-            int start = time;
-            time += exec;
-            p.remaining -= exec;
-            int end = time;
-            res.gantt.add(new GanttEntry(p.pid, start, end, p.color));
-
-            // add newly arrived processes during execution
-            while (index < n && procs.get(index).arrival <= time) {
-                q.add(procs.get(index));
-                index++;
-            }
+        return roundRobin(input, quantum, SimulationMonitor.NONE);
+    }
 
-            if (p.remaining > 0) {
-                q.add(p); // requeue
-            } else {
-                p.completionTime = time;
-                p.turnaroundTime = p.completionTime - p.arrival;
-                p.waitingTime = p.turnaroundTime - p.burst;
-                completed++;
-                res.processes.add(p);
-            }
-        }
-        return res;
+    public static Result roundRobin(List<ProcessModel> input, int quantum, SimulationMonitor monitor) {
+        return SimulationKernel.run(input, new RoundRobinPolicy(), new SimulationConfig(quantum, monitor));
     }
 
-    // Utility: deep copy list
-    private static List<ProcessModel> copyList(List<ProcessModel> input) {
-        List<ProcessModel> out = new ArrayList<>();
-        for (ProcessModel p : input) out.add(p.copy());
-        return out;
+    // MLFQ: config.levels queues, quantum doubling per level unless config.levelQuanta is
+    // set, demotion on quantum expiry and a boost to the top every config.boostInterval
+    public static Result mlfq(List<ProcessModel> input, SimulationConfig config) {
+        return SimulationKernel.run(input, new MlfqPolicy(), config);
     }
 
-    private static List<ProcessModel> copyAndSortByArrival(List<ProcessModel> input) {
-        List<ProcessModel> out = copyList(input);
-        out.sort(Comparator.comparingInt(p -> p.arrival));
-        return out;
+    // Indices ordered by arrival; equal arrivals keep their input order.
+    static int[] indicesByArrival(int[] arrival) {
+        int n = arrival.length;
+        long[] keys = new long[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = ((long) arrival[i] << 32) | i;
+        }
+        Arrays.sort(keys);
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) order[i] = (int) keys[i];
+        return order;
     }
 
-    // convenience: compute averages for a result
+    // Metrics of a result: avg/max/p50/p95/p99 of Waiting, Turnaround and Response (first
+    // start - arrival) from ProcessStats, totalTime (timeline end), contextSwitches,
+    // overheadTime (switch and dispatch slices), utilization (share of totalTime spent running
+    // processes) and throughput (completed processes per time unit).
     public static Map<String, Double> computeMetrics(Result res) {
-        double totalWaiting = 0;
-        double totalTurnaround = 0;
-        int n = res.processes.size();
-        for (ProcessModel p : res.processes) {
-            totalWaiting += p.waitingTime;
-            totalTurnaround += p.turnaroundTime;
-        }
+        return computeMetrics(res, ProcessStats.of(res.processes));
+    }
+
+    // as above, reusing stats already collected over res.processes
+    public static Map<String, Double> computeMetrics(Result res, ProcessStats stats) {
         Map<String, Double> m = new HashMap<>();
-        m.put("avgWaiting", n == 0 ? 0.0 : totalWaiting / n);
-        m.put("avgTurnaround", n == 0 ? 0.0 : totalTurnaround / n);
-        m.put("totalTime", res.gantt.isEmpty() ? 0.0 : (double) res.gantt.get(res.gantt.size()-1).end);
+        stats.putMetrics(m);
+        long[] lane = laneTotals(res.gantt);
+        double total = res.gantt.endTime();
+        m.put("totalTime", total);
+        m.put("contextSwitches", (double) lane[0]);
+        m.put("overheadTime", (double) lane[1]);
+        m.put("utilization", total == 0 ? 0.0 : lane[2] / total);
+        m.put("throughput", total == 0 ? 0.0 : res.processes.size() / total);
         return m;
     }
+
+    // {switches between different processes on consecutive slices, overhead time, busy time}
+    static long[] laneTotals(Timeline t) {
+        int overheadProc = t.overheadProcess();
+        long switches = 0;
+        long overhead = 0;
+        long busy = 0;
+        int prev = -1;
+        for (int i = 0; i < t.size(); i++) {
+            int proc = t.proc(i);
+            long len = t.end(i) - t.start(i);
+            if (proc == overheadProc) {
+                overhead += len;
+                continue;
+            }
+            busy += len;
+            if (prev >= 0 && proc != prev) switches++;
+            prev = proc;
+        }
+        return new long[] {switches, overhead, busy};
+    }
 }
@@ -0,0 +1,381 @@
+// SchedulerCli.java
+// Headless batch runner: streams a process CSV (the PID,Arrival,Burst,Priority,Color format
+// written by "Export CSV...") or a generated workload, runs one scheduling algorithm and
+// writes the metrics and optionally the Gantt timeline, on one CPU or several (--cpus). Never touches AWT/Swing, so it runs
+// on servers without a display; the Color column is accepted but ignored.
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.util.*;
+
+public class SchedulerCli {
+
+    private static final String USAGE =
+            "Usage: java SchedulerCli [options] <processes.csv | - | --generate SPEC | --load FILE>\n" +
+            "  -a, --algorithm NAME   " + String.join(" | ", SchedulingPolicies.ids()) + " (default fcfs)\n" +
+            "  -q, --quantum N        time quantum for quantum-based policies such as rr (default 2)\n" +
+            "      --levels N         mlfq: number of levels (default 3)\n" +
+            "      --level-quanta L   mlfq: quantum per level, e.g. 2:4:8 (default: quantum doubled per level)\n" +
+            "      --boost T          mlfq: time units between boosts to the top level, 0 for none (default 100)\n" +
+            "  -m, --metrics FILE     write metrics to FILE instead of stdout\n" +
+            "  -g, --gantt FILE       write the Gantt timeline to FILE ('-' for CSV on stdout)\n" +
+            "  -e, --export FILE      write per-process metrics (start, completion, waiting, ...) to FILE\n" +
+            "                         -g/-e files ending in .jsonl or .ndjson are JSON Lines, else CSV;\n" +
+            "                         a further .gz suffix compresses them with gzip\n" +
+            "  -p, --per-process      include per-process rows in the metrics output\n" +
+            "  -s, --save FILE        save the result in the binary result format (single CPU)\n" +
+            "      --load FILE        report on a saved result instead of simulating\n" +
+            "      --off-heap         keep the timeline off the Java heap, spilling to temporary files\n" +
+            "      --spill-mb N       off-heap timeline size in MB before it spills to disk (default 256)\n" +
+            "  -c, --cpus N           simulate N CPUs with one Gantt lane each (default 1)\n" +
+            "      --queues MODE      global | balanced | static ready queues for --cpus (default global)\n" +
+            "      --no-steal         idle CPUs do not steal from other per-CPU queues\n" +
+            "      --switch-cost N    time units lost when a CPU switches to a different process (default 0)\n" +
+            "      --dispatch-latency N  time units the dispatcher takes before every dispatch (default 0)\n" +
+            "  -G, --generate SPEC    use a synthetic workload instead of a file, e.g.\n" +
+            "                         count=1000000,seed=7,arrivals=poisson|bursty,rate=0.1,on=100,off=1000,\n" +
+            "                         bursts=exponential|pareto|bimodal,mean=10,shape=1.5,short=2,long=50,\n" +
+            "                         longfraction=0.1,maxburst=N,priorities=uniform|weighted,levels=10,weights=4:2:1\n" +
+            "                         Generated workloads are streamed on one CPU (unless -p, -e or -s is\n" +
+            "                         given), so any count runs in memory bounded by the unfinished processes.\n";
+
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        String algo = "fcfs";
+        int quantum = 2;
+        String input = null, metricsFile = null, ganttFile = null, generate = null, saveFile = null, loadFile = null;
+        String exportFile = null;
+        boolean perProcess = false;
+        SimulationConfig config = new SimulationConfig();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String a = args[i];
+                switch (a) {
+                    case "-a": case "--algorithm": algo = args[++i].toLowerCase(Locale.ROOT); break;
+                    case "-q": case "--quantum": quantum = Integer.parseInt(args[++i]); break;
+                    case "-m": case "--metrics": metricsFile = args[++i]; break;
+                    case "-g": case "--gantt": ganttFile = args[++i]; break;
+                    case "-e": case "--export": exportFile = args[++i]; break;
+                    case "-p": case "--per-process": perProcess = true; break;
+                    case "-G": case "--generate": generate = args[++i]; break;
+                    case "-s": case "--save": saveFile = args[++i]; break;
+                    case "--load": loadFile = args[++i]; break;
+                    case "--off-heap": config.offHeap = true; break;
+                    case "--spill-mb": config.spillBytes = Long.parseLong(args[++i]) << 20; break;
+                    case "-c": case "--cpus": config.cpus = Integer.parseInt(args[++i]); break;
+                    case "--queues": config.queues = parseQueues(args[++i]); break;
+                    case "--no-steal": config.workStealing = false; break;
+                    case "--levels": config.levels = Integer.parseInt(args[++i]); break;
+                    case "--level-quanta": config.levelQuanta = parseQuanta(args[++i]); break;
+                    case "--boost": config.boostInterval = Integer.parseInt(args[++i]); break;
+                    case "--switch-cost": config.switchCost = Integer.parseInt(args[++i]); break;
+                    case "--dispatch-latency": config.dispatchLatency = Integer.parseInt(args[++i]); break;
+                    case "-h": case "--help": System.out.print(USAGE); return;
+                    default:
+                        if (a.startsWith("-") && !a.equals("-")) throw new IllegalArgumentException("Unknown option: " + a);
+                        input = a;
+                }
+            }
+        } catch (ArrayIndexOutOfBoundsException | IllegalArgumentException ex) {
+            System.err.println(ex instanceof ArrayIndexOutOfBoundsException ? "Missing option value" : ex.getMessage());
+            System.err.print(USAGE);
+            System.exit(2);
+        }
+        String name = SchedulingPolicies.nameForId(algo);
+        if (config.cpus < 1 || config.levels < 1 || config.levels > MlfqPolicy.MAX_LEVELS || config.boostInterval < 0
+                || config.switchCost < 0 || config.dispatchLatency < 0 || config.spillBytes < 0) {
+            System.err.println("Invalid --cpus, --levels, --boost, --switch-cost, --dispatch-latency or --spill-mb value");
+            System.err.print(USAGE);
+            System.exit(2);
+        }
+        config.quantum = quantum;
+        if (loadFile != null) {
+            report(loadFile, metricsFile, ganttFile, exportFile, perProcess);
+            return;
+        }
+        if ((input == null && generate == null) || name == null) {
+            System.err.println(name != null ? "No input file given" : "Unknown algorithm: " + algo);
+            System.err.print(USAGE);
+            System.exit(2);
+        }
+
+        try {
+            List<ProcessModel> procs;
+            if (generate != null) {
+                WorkloadGenerator gen = WorkloadGenerator.fromSpec(generate);
+                if (!perProcess && saveFile == null && exportFile == null && config.cpus == 1) {
+                    streamRun(gen, name, config, metricsFile, ganttFile);
+                    return;
+                }
+                procs = gen.toList();
+            } else {
+                procs = readCsv(input);
+            }
+            if (config.cpus > 1) {
+                long t0 = System.nanoTime();
+                SmpSimulator.Result res = SmpSimulator.run(name, procs, config);
+                long elapsedMs = (System.nanoTime() - t0) / 1_000_000;
+                try (PrintWriter out = open(metricsFile)) {
+                    writeSmpMetrics(out, name, res, elapsedMs, perProcess);
+                }
+                if (ganttFile != null) {
+                    try (ResultExporter out = ResultExporter.open(ganttFile)) {
+                        out.writeLanes(res.lanes);
+                    }
+                }
+                exportProcesses(exportFile, res.processes);
+                if (saveFile != null) System.err.println("--save is ignored with --cpus");
+                return;
+            }
+            long t0 = System.nanoTime();
+            Scheduler.Result res = Scheduler.run(name, procs, config);
+            long elapsedMs = (System.nanoTime() - t0) / 1_000_000;
+            try (PrintWriter out = open(metricsFile)) {
+                writeMetrics(out, name, res, elapsedMs, perProcess);
+            }
+            if (ganttFile != null) {
+                try (ResultExporter out = ResultExporter.open(ganttFile)) {
+                    out.writeTimeline(res.gantt);
+                }
+            }
+            exportProcesses(exportFile, res.processes);
+            if (saveFile != null) ResultStore.save(res, Paths.get(saveFile));
+        } catch (IOException | ParseException | IllegalArgumentException | IllegalStateException ex) {
+            System.err.println("Error: " + ex.getMessage());
+            System.exit(1);
+        }
+    }
+
+    // metrics and Gantt rows of a result saved with --save, read from the mapped file
+    private static void report(String file, String metricsFile, String ganttFile, String exportFile, boolean perProcess) {
+        try {
+            long t0 = System.nanoTime();
+            Scheduler.Result res = ResultStore.open(Paths.get(file));
+            long elapsedMs = (System.nanoTime() - t0) / 1_000_000;
+            try (PrintWriter out = open(metricsFile)) {
+                writeMetrics(out, file, res, elapsedMs, perProcess);
+            }
+            if (ganttFile != null) {
+                try (ResultExporter out = ResultExporter.open(ganttFile)) {
+                    out.writeTimeline(res.gantt);
+                }
+            }
+            exportProcesses(exportFile, res.processes);
+        } catch (IOException | IllegalArgumentException | IllegalStateException ex) {
+            System.err.println("Error: " + ex.getMessage());
+            System.exit(1);
+        }
+    }
+
+    private static int[] parseQuanta(String value) {
+        String[] parts = value.split(":");
+        int[] quanta = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) quanta[i] = Integer.parseInt(parts[i].trim());
+        return quanta;
+    }
+
+    private static SmpSimulator.Queues parseQueues(String mode) {
+        for (SmpSimulator.Queues q : SmpSimulator.Queues.values()) {
+            if (q.name().equalsIgnoreCase(mode)) return q;
+        }
+        throw new IllegalArgumentException("Unknown queue mode: " + mode);
+    }
+
+    // Feeds the generated processes one by one into a SchedulerSession that keeps no result;
+    // metrics are accumulated and Gantt rows written as slices are emitted. The Tag column is
+    // known from the first process slice, so an overhead slice before it waits for the header.
+    private static void streamRun(WorkloadGenerator gen, String name, SimulationConfig config,
+                                  String metricsFile, String ganttFile) throws IOException {
+        ResultExporter gantt = ganttFile == null ? null : ResultExporter.open(ganttFile);
+        long[] totals = new long[5]; // slices, context switches, end, busy, overhead
+        long[] early = {-1, -1};     // overhead slice written after the header
+        ProcessStats stats = new ProcessStats();
+        String[] lastPid = new String[1];
+        SchedulerSession session = new SchedulerSession(SchedulingPolicies.create(name), config);
+        session.setRetainResult(false);
+        session.addListener(new SchedulerSession.Listener() {
+            @Override public void onSlice(Scheduler.GanttEntry slice, int tag) {
+                boolean first = lastPid[0] == null;
+                totals[0]++;
+                if (!first && !lastPid[0].equals(slice.pid)) totals[1]++;
+                lastPid[0] = slice.pid;
+                totals[2] = slice.end;
+                totals[3] += slice.end - slice.start;
+                if (gantt == null) return;
+                try {
+                    if (first) {
+                        gantt.timelineHeader(false, tag >= 0);
+                        if (early[0] >= 0) gantt.slice(-1, Scheduler.OVERHEAD_PID, (int) early[0], (int) early[1], -1);
+                    }
+                    gantt.slice(-1, slice.pid, slice.start, slice.end, tag);
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            }
+            @Override public void onOverhead(int start, int end) {
+                totals[0]++;
+                totals[2] = end;
+                totals[4] += end - start;
+                if (gantt == null) return;
+                if (lastPid[0] == null) {
+                    early[0] = start;
+                    early[1] = end;
+                    return;
+                }
+                try {
+                    gantt.slice(-1, Scheduler.OVERHEAD_PID, start, end, -1);
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            }
+            @Override public void onComplete(ProcessModel p) {
+                stats.add(p);
+            }
+        });
+        long t0 = System.nanoTime();
+        try {
+            for (ProcessModel p : gen) {
+                session.advanceTo(p.arrival);
+                session.submit(p);
+            }
+            session.finish();
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+        long elapsedMs = (System.nanoTime() - t0) / 1_000_000;
+        if (gantt != null) {
+            if (lastPid[0] == null) gantt.timelineHeader(false, false);
+            gantt.close();
+        }
+        try (PrintWriter out = open(metricsFile)) {
+            double end = totals[2];
+            Map<String, Double> m = new HashMap<>();
+            stats.putMetrics(m);
+            m.put("totalTime", end);
+            m.put("contextSwitches", (double) totals[1]);
+            m.put("overheadTime", (double) totals[4]);
+            m.put("utilization", end == 0 ? 0.0 : totals[3] / end);
+            m.put("throughput", end == 0 ? 0.0 : stats.count() / end);
+            writeSummary(out, name, stats.count(), totals[0], m, elapsedMs);
+        }
+    }
+
+    // Files are memory-mapped and parsed in parallel by CsvImporter; stdin is streamed line by
+    // line, skipping a header line whose first field is PID. Errors give the line number as
+    // their offset.
+    static List<ProcessModel> readCsv(String path) throws IOException, ParseException {
+        if (!"-".equals(path)) {
+            return CsvImporter.load(Paths.get(path)).toModels(false);
+        }
+        List<ProcessModel> procs = new ArrayList<>();
+        try (BufferedReader r = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8), 1 << 16)) {
+            String line;
+            int lineNo = 0;
+            while ((line = r.readLine()) != null) {
+                lineNo++;
+                if (line.isEmpty() || (lineNo == 1 && CsvImporter.isHeader(line))) continue;
+                StringBuilder pidField = new StringBuilder();
+                int c1 = CsvImporter.pidField(line, pidField);
+                int c2 = c1 < 0 ? -1 : line.indexOf(',', c1 + 1);
+                int c3 = c2 < 0 ? -1 : line.indexOf(',', c2 + 1);
+                if (c2 < 0) throw new ParseException("Malformed CSV at line " + lineNo + ": " + line, lineNo);
+                int c4 = c3 < 0 ? line.length() : line.indexOf(',', c3 + 1);
+                if (c4 < 0) c4 = line.length();
+                String pid = pidField.toString();
+                int arrival, burst, priority;
+                try {
+                    arrival = Integer.parseInt(line.substring(c1 + 1, c2).trim());
+                    burst = Integer.parseInt(line.substring(c2 + 1, c3 < 0 ? line.length() : c3).trim());
+                    priority = c3 < 0 ? 0 : Integer.parseInt(line.substring(c3 + 1, c4).trim());
+                } catch (NumberFormatException ex) {
+                    throw new ParseException("Invalid number at line " + lineNo + ": " + line, lineNo);
+                }
+                if (arrival < 0 || burst <= 0) {
+                    throw new ParseException("Invalid process at line " + lineNo + " (arrival >= 0, burst > 0): " + line, lineNo);
+                }
+                procs.add(new ProcessModel(pid, arrival, burst, priority, null));
+            }
+        }
+        return procs;
+    }
+
+    private static PrintWriter open(String path) throws IOException {
+        if (path == null || "-".equals(path)) {
+            // closing the writer must only flush stdout, later outputs may still use it
+            OutputStream stdout = new FilterOutputStream(new FileOutputStream(FileDescriptor.out)) {
+                @Override public void write(byte[] b, int off, int len) throws IOException {
+                    out.write(b, off, len);
+                }
+                @Override public void close() throws IOException {
+                    flush();
+                }
+            };
+            return new PrintWriter(new BufferedWriter(new OutputStreamWriter(stdout, StandardCharsets.UTF_8), 1 << 16));
+        }
+        return new PrintWriter(new BufferedWriter(new OutputStreamWriter(new FileOutputStream(path), StandardCharsets.UTF_8), 1 << 16));
+    }
+
+    static void writeMetrics(PrintWriter out, String algo, Scheduler.Result res, long elapsedMs, boolean perProcess) {
+        Map<String, Double> m = Scheduler.computeMetrics(res);
+        writeSummary(out, algo, res.processes.size(), res.gantt.size(), m, elapsedMs);
+        if (perProcess) writeProcesses(out, res.processes);
+    }
+
+    private static void writeProcesses(PrintWriter out, List<ProcessModel> processes) {
+        out.println();
+        out.println("PID,Arrival,Burst,Priority,Start,Completion,Waiting,Turnaround");
+        for (ProcessModel p : processes) {
+            out.print(p.pid); out.print(',');
+            out.print(p.arrival); out.print(',');
+            out.print(p.burst); out.print(',');
+            out.print(p.priority); out.print(',');
+            out.print(p.startTime); out.print(',');
+            out.print(p.completionTime); out.print(',');
+            out.print(p.waitingTime); out.print(',');
+            out.println(p.turnaroundTime);
+        }
+    }
+
+    static void writeSmpMetrics(PrintWriter out, String algo, SmpSimulator.Result res, long elapsedMs, boolean perProcess) {
+        Map<String, Double> m = SmpSimulator.computeMetrics(res);
+        long slices = 0;
+        for (Timeline lane : res.lanes) slices += lane.size();
+        writeSummary(out, algo, res.processes.size(), slices, m, elapsedMs);
+        out.println("cpus: " + res.cpus());
+        out.println("migrations: " + res.migrations);
+        for (int c = 0; c < res.cpus(); c++) {
+            out.printf(Locale.ROOT, "cpu%d: busy=%d, utilization=%.4f, slices=%d%n",
+                    c, res.busy[c], res.utilization(c), res.lanes[c].size());
+        }
+        if (perProcess) writeProcesses(out, res.processes);
+    }
+
+    // percentiles are approximate above 255, see LatencyHistogram
+    private static void writeSummary(PrintWriter out, String algo, long processes, long slices,
+                                     Map<String, Double> m, long elapsedMs) {
+        out.println("algorithm: " + algo);
+        out.println("processes: " + processes);
+        out.println("slices: " + slices);
+        for (String name : new String[] {"Waiting", "Turnaround", "Response"}) {
+            out.printf(Locale.ROOT, "avg%s: %.2f%n", name, m.get("avg" + name));
+            for (String key : new String[] {"p50", "p95", "p99", "max"}) {
+                out.println(key + name + ": " + m.get(key + name).longValue());
+            }
+        }
+        out.println("totalTime: " + m.get("totalTime").longValue());
+        out.println("contextSwitches: " + m.get("contextSwitches").longValue());
+        out.println("overheadTime: " + m.get("overheadTime").longValue());
+        out.printf(Locale.ROOT, "utilization: %.4f%n", m.get("utilization"));
+        out.printf(Locale.ROOT, "throughput: %.6f%n", m.get("throughput"));
+        out.println("simulationMillis: " + elapsedMs);
+    }
+
+    private static void exportProcesses(String file, List<ProcessModel> processes) throws IOException {
+        if (file == null) return;
+        try (ResultExporter out = ResultExporter.open(file)) {
+            out.writeProcesses(processes);
+        }
+    }
+}
@@ -12,17 +12,37 @@ import java.awt.image.BufferedImage;
 import java.io.*;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
 
 public class SchedulerGUI extends JFrame {
-    private DefaultTableModel tableModel;
+    private ProcessTableModel tableModel;
     private JTable processTable;
-    private JTextField pidField, arrivalField, burstField, priorityField, quantumField;
-    private JComboBox<String> algoCombo;
+    private JTextField pidField, arrivalField, burstField, priorityField, quantumField, cpusField;
+    private JTextField levelsField, boostField, switchCostField, latencyField;
+    private JComboBox<String> algoCombo, queuesCombo;
+    private JCheckBox stealCheck;
     private GanttPanel ganttPanel;
     private JTextArea metricsArea;
+    private HistogramPanel histogramPanel;
+    private JComboBox<String> histogramCombo;
+    private ProcessStats lastStats;
     private JSlider zoomSlider;
+    private JCheckBox liveCheck;
     private JLabel statusLabel;
+    private Scheduler.Result lastResult;
+    // results of earlier runs by table fingerprint, algorithm and settings; an eighth of the heap,
+    // and for off-heap timelines a quarter of the heap size (the default direct-memory limit)
+    private final ResultCache resultCache = new ResultCache(Runtime.getRuntime().maxMemory() / 8,
+            Runtime.getRuntime().maxMemory() / 4);
+    // checkpoints of the last finished run; the next run resumes from them after table edits
+    private SimulationKernel.Run lastRun;
+    private JButton runBtn, compareBtn, smpBtn, runTool, cancelTool;
+    private SimulationMonitor runMonitor; // non-null while a simulation is running
+    private javax.swing.Timer progressTimer;
     private int autoPidCounter = 1;
+    private static final int MAX_METRIC_ROWS = 200; // per-process rows listed up to this many processes
+    private static final int OFF_HEAP_ROWS = 1 << 20; // runs this large keep their timeline off the heap
     private final Color[] PALETTE = {
             new Color(135,206,250), new Color(144,238,144), new Color(255,182,193),
             new Color(255,228,181), new Color(221,160,221), new Color(240,230,140),
@@ -59,15 +79,43 @@ public class SchedulerGUI extends JFrame {
         quantumField = new JTextField(4);
         quantumField.setText("2");
 
-        algoCombo = new JComboBox<>(new String[] {"FCFS", "SJF (Non-preemptive)", "Priority (Non-preemptive)", "Round Robin"});
+        algoCombo = new JComboBox<>(Scheduler.ALGORITHMS.toArray(new String[0]));
         algoCombo.setToolTipText("Select scheduling algorithm");
-        algoCombo.addActionListener(e -> quantumField.setEnabled("Round Robin".equals(algoCombo.getSelectedItem())));
+        levelsField = new JTextField("3", 3);
+        levelsField.setToolTipText("MLFQ levels; the quantum doubles at each lower level");
+        boostField = new JTextField("100", 4);
+        boostField.setToolTipText("MLFQ: time units between boosts of every process to the top level (0 = never)");
+        algoCombo.addActionListener(e -> updateAlgorithmFields());
+        updateAlgorithmFields();
+        JPanel quantumPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 4, 0));
+        quantumPanel.setOpaque(false);
+        quantumPanel.add(quantumField);
+        quantumPanel.add(new JLabel("Levels"));
+        quantumPanel.add(levelsField);
+        quantumPanel.add(new JLabel("Boost"));
+        quantumPanel.add(boostField);
 
         JButton addBtn = new JButton("Add");
         addBtn.setToolTipText("Add process (use PID optional)");
         JButton removeBtn = new JButton("Remove");
         JButton clearBtn = new JButton("Clear All");
-        JButton runBtn = new JButton("Run Simulation");
+        runBtn = new JButton("Run Simulation");
+        compareBtn = new JButton("Compare All");
+        compareBtn.setToolTipText("Run every algorithm and a sweep of RR quanta in parallel");
+        cpusField = new JTextField(4);
+        cpusField.setText("4");
+        queuesCombo = new JComboBox<>(new String[] {"Global", "Per-CPU (balanced)", "Per-CPU (static)"});
+        queuesCombo.setToolTipText("One shared ready queue, or one per CPU filled by load or round robin");
+        switchCostField = new JTextField("0", 4);
+        switchCostField.setToolTipText("Time units lost whenever the CPU switches to a different process");
+        latencyField = new JTextField("0", 4);
+        latencyField.setToolTipText("Time units the dispatcher takes before every dispatched slice");
+        stealCheck = new JCheckBox("Work stealing", true);
+        stealCheck.setToolTipText("Idle CPUs take work from the longest per-CPU queue");
+        queuesCombo.addActionListener(e -> stealCheck.setEnabled(queuesCombo.getSelectedIndex() != 0));
+        stealCheck.setEnabled(false);
+        smpBtn = new JButton("Run on CPUs");
+        smpBtn.setToolTipText("Simulate the selected algorithm on several CPUs, one Gantt lane per CPU");
 
         // layout
         int row = 0;
@@ -77,27 +125,32 @@ public class SchedulerGUI extends JFrame {
         c.gridx = 3; input.add(arrivalField, c);
         c.gridx = 4; input.add(new JLabel("Burst"), c);
         c.gridx = 5; input.add(burstField, c);
+        c.gridx = 6; input.add(new JLabel("CPUs"), c);
+        c.gridx = 7; input.add(cpusField, c);
         row++;
         c.gridy = row; c.gridx = 0; input.add(new JLabel("Priority"), c);
         c.gridx = 1; input.add(priorityField, c);
         c.gridx = 2; input.add(new JLabel("Algorithm"), c);
         c.gridx = 3; input.add(algoCombo, c);
         c.gridx = 4; input.add(new JLabel("Quantum"), c);
-        c.gridx = 5; input.add(quantumField, c);
+        c.gridx = 5; input.add(quantumPanel, c);
+        c.gridx = 6; input.add(new JLabel("Queues"), c);
+        c.gridx = 7; input.add(queuesCombo, c);
+        c.gridx = 8; input.add(new JLabel("Switch cost"), c);
+        c.gridx = 9; input.add(switchCostField, c);
         row++;
         c.gridy = row; c.gridx = 0; input.add(addBtn, c);
         c.gridx = 1; input.add(removeBtn, c);
         c.gridx = 2; input.add(clearBtn, c);
         c.gridx = 3; input.add(runBtn, c);
+        c.gridx = 4; input.add(compareBtn, c);
+        c.gridx = 6; input.add(stealCheck, c);
+        c.gridx = 7; input.add(smpBtn, c);
+        c.gridx = 8; input.add(new JLabel("Dispatch latency"), c);
+        c.gridx = 9; input.add(latencyField, c);
 
-        // table (editable)
-        String[] cols = {"PID", "Arrival", "Burst", "Priority", "Color"};
-        tableModel = new DefaultTableModel(cols, 0) {
-            @Override public boolean isCellEditable(int row, int col) {
-                // allow editing arrival, burst, priority and color
-                return col == 1 || col == 2 || col == 3 || col == 4;
-            }
-        };
+        // table (editable), virtualized over primitive columns
+        tableModel = new ProcessTableModel(PALETTE);
         processTable = new JTable(tableModel);
         processTable.setRowHeight(24);
         setupTableRenderers();
@@ -110,23 +163,43 @@ public class SchedulerGUI extends JFrame {
         JScrollPane ganttScroll = new JScrollPane(ganttPanel);
         ganttScroll.setPreferredSize(new Dimension(1000, 260));
 
-        // zoom slider
-        zoomSlider = new JSlider(6, 60, 30);
+        // zoom slider: 1..60 px/unit, values <= 0 halve the scale per step
+        zoomSlider = new JSlider(-16, 60, 30);
         zoomSlider.setMajorTickSpacing(12);
         zoomSlider.setPaintTicks(true);
         zoomSlider.setToolTipText("Zoom (pixels per time unit)");
         zoomSlider.addChangeListener(e -> {
-            ganttPanel.setScale(zoomSlider.getValue());
-            status("Zoom: " + zoomSlider.getValue() + " px/unit");
+            ganttPanel.setScale(sliderScale(zoomSlider.getValue()));
+            status("Zoom: " + formatScale(ganttPanel.getScale()));
+        });
+        JButton fitBtn = new JButton("Fit");
+        fitBtn.setToolTipText("Fit the whole timeline into the view");
+        fitBtn.addActionListener(e -> {
+            ganttPanel.fitTo(ganttScroll.getViewport().getWidth());
+            status("Zoom: " + formatScale(ganttPanel.getScale()));
         });
 
         JPanel zoomPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
         zoomPanel.add(new JLabel("Zoom:"));
         zoomPanel.add(zoomSlider);
+        zoomPanel.add(fitBtn);
+        liveCheck = new JCheckBox("Live");
+        liveCheck.setToolTipText("Draw the Gantt chart while the simulation runs (FCFS, SJF, Priority, RR; not with switch cost or latency)");
+        zoomPanel.add(liveCheck);
 
         metricsArea = new JTextArea(7, 80);
         metricsArea.setEditable(false);
+        metricsArea.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
         JScrollPane metricsScroll = new JScrollPane(metricsArea);
+        histogramPanel = new HistogramPanel();
+        histogramCombo = new JComboBox<>(new String[] {"Waiting", "Turnaround", "Response"});
+        histogramCombo.addActionListener(e -> showHistogram());
+        JPanel histogramBox = new JPanel(new BorderLayout());
+        JPanel histogramBar = new JPanel(new FlowLayout(FlowLayout.LEFT, 4, 0));
+        histogramBar.add(new JLabel("Distribution:"));
+        histogramBar.add(histogramCombo);
+        histogramBox.add(histogramBar, BorderLayout.NORTH);
+        histogramBox.add(histogramPanel, BorderLayout.CENTER);
 
         // Assemble main content
         JPanel topPanel = new JPanel(new BorderLayout());
@@ -139,6 +212,7 @@ public class SchedulerGUI extends JFrame {
 
         JPanel bottomPanel = new JPanel(new BorderLayout());
         bottomPanel.add(metricsScroll, BorderLayout.CENTER);
+        bottomPanel.add(histogramBox, BorderLayout.EAST);
 
         JPanel content = new JPanel(new BorderLayout(8,8));
         content.setBorder(BorderFactory.createEmptyBorder(8,8,8,8));
@@ -158,6 +232,8 @@ public class SchedulerGUI extends JFrame {
         removeBtn.addActionListener(e -> onRemove());
         clearBtn.addActionListener(e -> onClear());
         runBtn.addActionListener(e -> onRun());
+        compareBtn.addActionListener(e -> onCompareAll());
+        smpBtn.addActionListener(e -> onRunSmp());
 
         // double-click color chooser for color column
         processTable.addMouseListener(new MouseAdapter() {
@@ -166,11 +242,10 @@ public class SchedulerGUI extends JFrame {
                     int row = processTable.rowAtPoint(e.getPoint());
                     int col = processTable.columnAtPoint(e.getPoint());
                     if (col == 4 && row >= 0) {
-                        String hex = (String) tableModel.getValueAt(row, 4);
-                        Color initial = hexToColor(hex);
+                        Color initial = tableModel.color(row);
                         Color chosen = JColorChooser.showDialog(SchedulerGUI.this, "Choose color for " + tableModel.getValueAt(row,0), initial);
                         if (chosen != null) {
-                            tableModel.setValueAt(colorToHex(chosen), row, 4);
+                            tableModel.setValueAt(chosen, row, 4);
                         }
                     } else if (col >= 1 && col <= 3 && row >= 0) {
                         processTable.editCellAt(row, col);
@@ -198,21 +273,43 @@ public class SchedulerGUI extends JFrame {
     private void createMenuBar() {
         JMenuBar mb = new JMenuBar();
         JMenu file = new JMenu("File");
+        JMenuItem importCsv = new JMenuItem("Import CSV...");
+        JMenuItem generate = new JMenuItem("Generate...");
         JMenuItem exportCsv = new JMenuItem("Export CSV...");
+        JMenuItem exportGantt = new JMenuItem("Export Gantt...");
+        JMenuItem exportMetrics = new JMenuItem("Export Process Metrics...");
         JMenuItem savePng = new JMenuItem("Save Gantt as PNG...");
+        JMenuItem exportPng = new JMenuItem("Export Full Timeline PNG...");
+        JMenuItem saveResult = new JMenuItem("Save Result...");
+        JMenuItem openResult = new JMenuItem("Open Result...");
         JMenuItem exit = new JMenuItem("Exit");
+        importCsv.addActionListener(e -> onImportCsv());
+        generate.addActionListener(e -> onGenerate());
         exportCsv.addActionListener(e -> onExportCsv());
+        exportGantt.addActionListener(e -> onExportGantt());
+        exportMetrics.addActionListener(e -> onExportMetrics());
         savePng.addActionListener(e -> onSavePng());
+        exportPng.addActionListener(e -> onExportTimelinePng());
+        saveResult.addActionListener(e -> onSaveResult());
+        openResult.addActionListener(e -> onOpenResult());
         exit.addActionListener(e -> System.exit(0));
+        file.add(importCsv);
+        file.add(generate);
         file.add(exportCsv);
+        file.add(exportGantt);
+        file.add(exportMetrics);
         file.add(savePng);
+        file.add(exportPng);
+        file.addSeparator();
+        file.add(saveResult);
+        file.add(openResult);
         file.addSeparator();
         file.add(exit);
 
         JMenu help = new JMenu("Help");
         JMenuItem about = new JMenuItem("About");
         about.addActionListener(e -> JOptionPane.showMessageDialog(this,
-                "Process Scheduler System\nImproved UI\n\nAlgorithms: FCFS, SJF, Priority, Round Robin\nAuthor: ChatGPT",
+                "Process Scheduler System\nImproved UI\n\nAlgorithms: " + String.join(", ", Scheduler.ALGORITHMS) + "\nAuthor: ChatGPT",
                 "About", JOptionPane.INFORMATION_MESSAGE));
         help.add(about);
 
@@ -225,21 +322,26 @@ public class SchedulerGUI extends JFrame {
         JToolBar tb = new JToolBar();
         tb.setFloatable(false);
         JButton add = new JButton("Add");
-        JButton run = new JButton("Run");
+        runTool = new JButton("Run");
+        cancelTool = new JButton("Cancel");
+        cancelTool.setEnabled(false);
         JButton csv = new JButton("CSV");
         JButton png = new JButton("PNG");
         add.setToolTipText("Add process");
-        run.setToolTipText("Run simulation");
+        runTool.setToolTipText("Run simulation");
+        cancelTool.setToolTipText("Cancel the running simulation");
         csv.setToolTipText("Export CSV");
         png.setToolTipText("Save Gantt PNG");
 
         add.addActionListener(e -> onAdd());
-        run.addActionListener(e -> onRun());
+        runTool.addActionListener(e -> onRun());
+        cancelTool.addActionListener(e -> onCancel());
         csv.addActionListener(e -> onExportCsv());
         png.addActionListener(e -> onSavePng());
 
         tb.add(add);
-        tb.add(run);
+        tb.add(runTool);
+        tb.add(cancelTool);
         tb.addSeparator();
         tb.add(csv);
         tb.add(png);
@@ -280,7 +382,7 @@ public class SchedulerGUI extends JFrame {
 
     private void safeAddProcess(String pid, int arrival, int burst, int priority) {
         Color color = PALETTE[(tableModel.getRowCount()) % PALETTE.length];
-        tableModel.addRow(new Object[] {pid, arrival, burst, priority, colorToHex(color)});
+        tableModel.add(pid, arrival, burst, priority, color);
     }
 
     private void onRemove() {
@@ -289,80 +391,426 @@ public class SchedulerGUI extends JFrame {
             JOptionPane.showMessageDialog(this, "Select one or more rows to remove.", "Info", JOptionPane.INFORMATION_MESSAGE);
             return;
         }
-        // remove from last to first
-        for (int i = sel.length - 1; i >= 0; i--) {
-            tableModel.removeRow(processTable.convertRowIndexToModel(sel[i]));
-        }
+        int[] rows = new int[sel.length];
+        for (int i = 0; i < sel.length; i++) rows[i] = processTable.convertRowIndexToModel(sel[i]);
+        Arrays.sort(rows);
+        tableModel.removeRows(rows);
         status("Removed selected processes");
     }
 
     private void onClear() {
-        tableModel.setRowCount(0);
+        tableModel.clear();
         ganttPanel.setGantt(null);
+        lastResult = null;
+        lastRun = null;
+        lastStats = null;
         metricsArea.setText("");
+        showHistogram();
         autoPidCounter = 1;
         status("Cleared all processes");
     }
 
     private void onRun() {
-        List<ProcessModel> procs = new ArrayList<>();
-        for (int r = 0; r < tableModel.getRowCount(); r++) {
-            try {
-                String pid = tableModel.getValueAt(r, 0).toString();
-                int arr = Integer.parseInt(tableModel.getValueAt(r, 1).toString());
-                int burst = Integer.parseInt(tableModel.getValueAt(r, 2).toString());
-                int pri = Integer.parseInt(tableModel.getValueAt(r, 3).toString());
-                Color c = hexToColor(tableModel.getValueAt(r, 4).toString());
-                procs.add(new ProcessModel(pid, arr, burst, pri, c));
-            } catch (Exception ex) {
-                JOptionPane.showMessageDialog(this, "Invalid table data at row " + (r+1) + ". Check Arrival/Burst/Priority.", "Data Error", JOptionPane.ERROR_MESSAGE);
-                return;
+        if (runMonitor != null) return;
+        if (!hasProcesses()) return;
+        String algo = (String) algoCombo.getSelectedItem();
+        SimulationConfig config = readConfig(algo);
+        if (config == null) return;
+
+        // an unchanged table with the same settings needs no new run (and no ProcessModels);
+        // live runs are always replayed
+        long fingerprint = tableModel.table().fingerprint();
+        boolean live = liveCheck.isSelected();
+        Scheduler.Result cached = live ? null : resultCache.get(fingerprint, algo, config);
+        if (cached != null) {
+            lastResult = cached;
+            ganttPanel.setGantt(cached.gantt);
+            displayMetrics(cached);
+            status("Simulation completed (" + algo + ", cached)");
+            return;
+        }
+        List<ProcessModel> procs = readProcesses();
+        if (procs == null) return;
+        config.offHeap = procs.size() >= OFF_HEAP_ROWS;
+
+        // simulate off the EDT; results are only published once complete, unless the chart
+        // follows the run live
+        SimulationMonitor monitor = new SimulationMonitor();
+        config.monitor = monitor;
+        if (live) {
+            ganttPanel.setFollowHead(true);
+            ganttPanel.startLive();
+        }
+        SimulationKernel.Run prevRun = lastRun;
+        SwingWorker<Scheduler.Result, Void> worker = new SwingWorker<Scheduler.Result, Void>() {
+            private SimulationKernel.Run run;
+
+            @Override protected Scheduler.Result doInBackground() {
+                if (live) return streamRun(algo, procs, config, monitor);
+                run = SimulationKernel.resume(prevRun, procs, SchedulingPolicies.create(algo), config);
+                resultCache.put(fingerprint, algo, config, run.result);
+                return run.result;
+            }
+            @Override protected void done() {
+                if (finishRun(this, algo) && run != null) {
+                    lastRun = run;
+                    if (run.resumedAt() >= 0) {
+                        status(String.format("Simulation completed (%s, resumed at t=%,d)", algo, run.resumedAt()));
+                    }
+                }
+            }
+        };
+        runMonitor = monitor;
+        progressTimer = new javax.swing.Timer(200, e -> status(String.format("Running %s: %,d events, t=%,d",
+                algo, monitor.events(), monitor.simulatedTime())));
+        progressTimer.start();
+        setRunning(true);
+        status("Running " + algo + "...");
+        worker.execute();
+    }
+
+    // Feeds the processes through a SchedulerSession so every slice reaches the chart as soon
+    // as it is decided; the clock advances in steps to keep cancel and progress responsive.
+    private Scheduler.Result streamRun(String algo, List<ProcessModel> procs, SimulationConfig config,
+                                       SimulationMonitor monitor) {
+        SchedulerSession session = new SchedulerSession(SchedulingPolicies.create(algo), config);
+        long[] slices = new long[1];
+        session.addListener(new SchedulerSession.Listener() {
+            @Override public void onSlice(Scheduler.GanttEntry slice, int tag) {
+                slices[0]++;
+                ganttPanel.append(slice);
             }
+            @Override public void onOverhead(int start, int end) {
+                slices[0]++;
+                ganttPanel.appendOverhead(start, end);
+            }
+            @Override public void onComplete(ProcessModel p) {
+            }
+        });
+        long span = 0; // upper bound of the makespan
+        for (ProcessModel p : procs) {
+            span = Math.max(span, p.arrival);
+            session.submit(p);
         }
-        if (procs.isEmpty()) {
-            JOptionPane.showMessageDialog(this, "No processes to schedule.", "Info", JOptionPane.INFORMATION_MESSAGE);
-            return;
+        for (ProcessModel p : procs) span += p.burst;
+        long step = Math.max(1, span / 4096);
+        for (long t = step; session.result().processes.size() < procs.size(); t += step) {
+            if (monitor.isCancelled()) throw new CancellationException("simulation cancelled");
+            session.advanceTo((int) Math.min(t, Integer.MAX_VALUE));
+            monitor.report(slices[0], session.now());
         }
+        return session.result();
+    }
 
-        String algo = (String) algoCombo.getSelectedItem();
+    // True when the run completed and its result is shown. A finished result replaces the live
+    // chart outright (setGantt drops its pending slices); only a cancelled or failed run leaves
+    // the partial live chart on screen, so only then is it drawn out in full.
+    private boolean finishRun(SwingWorker<Scheduler.Result, Void> worker, String algo) {
+        progressTimer.stop();
+        runMonitor = null;
+        setRunning(false);
         Scheduler.Result res;
         try {
-            if ("FCFS".equals(algo)) {
-                res = Scheduler.fcfs(procs);
-            } else if ("SJF (Non-preemptive)".equals(algo)) {
-                res = Scheduler.sjfNonPreemptive(procs);
-            } else if ("Priority (Non-preemptive)".equals(algo)) {
-                res = Scheduler.priorityNonPreemptive(procs);
-            } else { // Round Robin
-                int quantum = Integer.parseInt(quantumField.getText().trim());
-                res = Scheduler.roundRobin(procs, quantum);
+            res = worker.get();
+        } catch (CancellationException | InterruptedException ex) {
+            ganttPanel.stopLive();
+            status("Simulation cancelled (" + algo + ")");
+            return false;
+        } catch (ExecutionException ex) {
+            ganttPanel.stopLive();
+            Throwable cause = ex.getCause();
+            if (cause instanceof CancellationException) {
+                status("Simulation cancelled (" + algo + ")");
+                return false;
             }
-        } catch (Exception ex) {
-            JOptionPane.showMessageDialog(this, "Error running scheduler: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-            ex.printStackTrace();
-            return;
+            JOptionPane.showMessageDialog(this, "Error running scheduler: " + cause.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+            cause.printStackTrace();
+            status("Simulation failed (" + algo + ")");
+            return false;
         }
 
+        lastResult = res;
         ganttPanel.setGantt(res.gantt);
         displayMetrics(res);
         status("Simulation completed (" + algo + ")");
+        return true;
+    }
+
+    // Runs every algorithm, with a quantum sweep for RR and MLFQ, on the fork-join pool and shows the
+    // metrics side by side with one Gantt lane per run.
+    private void onCompareAll() {
+        if (runMonitor != null) return;
+        List<ProcessModel> procs = readProcesses();
+        if (procs == null) return;
+        SimulationConfig config = readConfig(null);
+        if (config == null) return;
+        // the sweep always includes the quantum in the field, so the configured run is in the table
+        int[] quanta = Comparison.DEFAULT_QUANTA;
+        if (config.quantum >= 1 && Arrays.stream(quanta).noneMatch(q -> q == config.quantum)) {
+            quanta = Arrays.copyOf(quanta, quanta.length + 1);
+            quanta[quanta.length - 1] = config.quantum;
+            Arrays.sort(quanta);
+        }
+        int[] sweep = quanta;
+
+        SimulationMonitor monitor = new SimulationMonitor();
+        config.monitor = monitor;
+        SwingWorker<List<Comparison.Run>, Void> worker = new SwingWorker<List<Comparison.Run>, Void>() {
+            @Override protected List<Comparison.Run> doInBackground() throws Exception {
+                return Comparison.runAll(procs, sweep, config);
+            }
+            @Override protected void done() {
+                progressTimer.stop();
+                runMonitor = null;
+                setRunning(false);
+                try {
+                    List<Comparison.Run> runs = get();
+                    new CompareDialog(SchedulerGUI.this, runs).setVisible(true);
+                    status("Comparison completed (" + runs.size() + " runs)");
+                } catch (CancellationException | InterruptedException ex) {
+                    status("Comparison cancelled");
+                } catch (ExecutionException ex) {
+                    Throwable cause = ex.getCause();
+                    if (cause instanceof CancellationException) {
+                        status("Comparison cancelled");
+                        return;
+                    }
+                    JOptionPane.showMessageDialog(SchedulerGUI.this, "Error running comparison: " + cause.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+                    cause.printStackTrace();
+                    status("Comparison failed");
+                }
+            }
+        };
+        runMonitor = monitor;
+        progressTimer = new javax.swing.Timer(200, e -> status("Comparing all algorithms..."));
+        progressTimer.start();
+        setRunning(true);
+        status("Comparing all algorithms...");
+        worker.execute();
+    }
+
+    private void updateAlgorithmFields() {
+        String algo = (String) algoCombo.getSelectedItem();
+        quantumField.setEnabled(SchedulingPolicies.usesQuantum(algo));
+        levelsField.setEnabled(MlfqPolicy.NAME.equals(algo));
+        boostField.setEnabled(MlfqPolicy.NAME.equals(algo));
+    }
+
+    // Quantum (when algo takes one), MLFQ and overhead settings; null (after telling the user)
+    // when invalid. A null algo (Compare All) reads every setting.
+    private SimulationConfig readConfig(String algo) {
+        SimulationConfig config = new SimulationConfig();
+        try {
+            if (algo == null || SchedulingPolicies.usesQuantum(algo)) config.quantum = Integer.parseInt(quantumField.getText().trim());
+            if (algo == null || MlfqPolicy.NAME.equals(algo)) {
+                config.levels = Integer.parseInt(levelsField.getText().trim());
+                config.boostInterval = Integer.parseInt(boostField.getText().trim());
+            }
+            config.switchCost = Integer.parseInt(switchCostField.getText().trim());
+            config.dispatchLatency = Integer.parseInt(latencyField.getText().trim());
+        } catch (NumberFormatException ex) {
+            JOptionPane.showMessageDialog(this, "Quantum, levels, boost and overheads must be integers.", "Input Error", JOptionPane.ERROR_MESSAGE);
+            return null;
+        }
+        if (config.levels < 1 || config.levels > MlfqPolicy.MAX_LEVELS || config.boostInterval < 0
+                || config.switchCost < 0 || config.dispatchLatency < 0) {
+            JOptionPane.showMessageDialog(this, "Levels must be between 1 and " + MlfqPolicy.MAX_LEVELS
+                    + "; boost and overheads must not be negative.", "Input Error", JOptionPane.ERROR_MESSAGE);
+            return null;
+        }
+        return config;
+    }
+
+    // Runs the selected algorithm on the configured number of CPUs and shows one lane per CPU.
+    private void onRunSmp() {
+        if (runMonitor != null) return;
+        List<ProcessModel> procs = readProcesses();
+        if (procs == null) return;
+        String algo = (String) algoCombo.getSelectedItem();
+        SimulationConfig config = readConfig(algo);
+        if (config == null) return;
+        try {
+            config.cpus = Integer.parseInt(cpusField.getText().trim());
+        } catch (NumberFormatException ex) {
+            JOptionPane.showMessageDialog(this, "CPUs must be an integer.", "Input Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        if (config.cpus < 1 || config.cpus > 1024) {
+            JOptionPane.showMessageDialog(this, "CPUs must be between 1 and 1024.", "Input Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        config.queues = SmpSimulator.Queues.values()[queuesCombo.getSelectedIndex()];
+        config.workStealing = stealCheck.isSelected();
+        SimulationMonitor monitor = new SimulationMonitor();
+        config.monitor = monitor;
+        String label = algo + " on " + config.cpus + " CPUs";
+
+        SwingWorker<SmpSimulator.Result, Void> worker = new SwingWorker<SmpSimulator.Result, Void>() {
+            @Override protected SmpSimulator.Result doInBackground() {
+                return SmpSimulator.run(algo, procs, config);
+            }
+            @Override protected void done() {
+                progressTimer.stop();
+                runMonitor = null;
+                setRunning(false);
+                try {
+                    new SmpDialog(SchedulerGUI.this, label, get()).setVisible(true);
+                    status("Simulation completed (" + label + ")");
+                } catch (CancellationException | InterruptedException ex) {
+                    status("Simulation cancelled (" + label + ")");
+                } catch (ExecutionException ex) {
+                    Throwable cause = ex.getCause();
+                    if (cause instanceof CancellationException) {
+                        status("Simulation cancelled (" + label + ")");
+                        return;
+                    }
+                    JOptionPane.showMessageDialog(SchedulerGUI.this, "Error running scheduler: " + cause.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+                    cause.printStackTrace();
+                    status("Simulation failed (" + label + ")");
+                }
+            }
+        };
+        runMonitor = monitor;
+        progressTimer = new javax.swing.Timer(200, e -> status(String.format("Running %s: %,d events, t=%,d",
+                label, monitor.events(), monitor.simulatedTime())));
+        progressTimer.start();
+        setRunning(true);
+        status("Running " + label + "...");
+        worker.execute();
+    }
+
+    // Reads the process table; returns null (after telling the user) when it is empty. The
+    // model only accepts valid cells, so the columns are used as they are.
+    private List<ProcessModel> readProcesses() {
+        if (!hasProcesses()) return null;
+        return tableModel.toModels();
+    }
+
+    private boolean hasProcesses() {
+        if (tableModel.getRowCount() > 0) return true;
+        JOptionPane.showMessageDialog(this, "No processes to schedule.", "Info", JOptionPane.INFORMATION_MESSAGE);
+        return false;
     }
 
+    private void onCancel() {
+        if (runMonitor != null) {
+            runMonitor.cancel();
+            status("Cancelling...");
+        }
+    }
+
+    private void setRunning(boolean running) {
+        runBtn.setEnabled(!running);
+        compareBtn.setEnabled(!running);
+        smpBtn.setEnabled(!running);
+        runTool.setEnabled(!running);
+        cancelTool.setEnabled(running);
+    }
+
+    // Summary and distribution histogram; per-process rows only for small runs.
     private void displayMetrics(Scheduler.Result res) {
+        lastStats = ProcessStats.of(res.processes);
+        Map<String, Double> m = Scheduler.computeMetrics(res, lastStats);
         StringBuilder sb = new StringBuilder();
-        sb.append("Process Metrics:\n");
-        sb.append(String.format("%-8s %-8s %-10s %-12s %-12s\n", "PID","Arrival","Burst","Waiting","Turnaround"));
-        // sort by PID for stable view
-        res.processes.sort(Comparator.comparing(p -> p.pid));
-        for (ProcessModel p : res.processes) {
-            sb.append(String.format("%-8s %-8d %-10d %-12d %-12d\n", p.pid, p.arrival, p.burst, p.waitingTime, p.turnaroundTime));
-        }
-        Map<String, Double> m = Scheduler.computeMetrics(res);
-        sb.append("\nAverages:\n");
-        sb.append(String.format("Average Waiting Time: %.2f\n", m.get("avgWaiting")));
-        sb.append(String.format("Average Turnaround Time: %.2f\n", m.get("avgTurnaround")));
+        sb.append(String.format("Processes: %d\n", res.processes.size()));
+        sb.append(String.format("%-12s %10s %8s %8s %8s %8s\n", "", "Average", "p50", "p95", "p99", "Max"));
+        for (String name : new String[] {"Waiting", "Turnaround", "Response"}) {
+            sb.append(String.format("%-12s %10.2f %8.0f %8.0f %8.0f %8.0f\n", name, m.get("avg" + name),
+                    m.get("p50" + name), m.get("p95" + name), m.get("p99" + name), m.get("max" + name)));
+        }
         sb.append(String.format("Total CPU Time (timeline end): %.0f\n", m.get("totalTime")));
+        sb.append(String.format("CPU Utilization: %.1f%%\n", 100 * m.get("utilization")));
+        sb.append(String.format("Throughput: %.4f processes per time unit\n", m.get("throughput")));
+        sb.append(String.format("Context Switches: %.0f (overhead %.0f time units)\n",
+                m.get("contextSwitches"), m.get("overheadTime")));
+        if (res.processes.size() <= MAX_METRIC_ROWS) {
+            sb.append("\nProcess Metrics:\n");
+            sb.append(String.format("%-8s %-8s %-10s %-12s %-12s\n", "PID","Arrival","Burst","Waiting","Turnaround"));
+            // sort a copy by PID for stable view
+            List<ProcessModel> rows = new ArrayList<>(res.processes);
+            rows.sort(Comparator.comparing(p -> p.pid));
+            for (ProcessModel p : rows) {
+                sb.append(String.format("%-8s %-8d %-10d %-12d %-12d\n", p.pid, p.arrival, p.burst, p.waitingTime, p.turnaroundTime));
+            }
+        }
         metricsArea.setText(sb.toString());
+        metricsArea.setCaretPosition(0);
+        showHistogram();
+    }
+
+    private void showHistogram() {
+        String name = (String) histogramCombo.getSelectedItem();
+        LatencyHistogram h = lastStats == null ? null
+                : "Turnaround".equals(name) ? lastStats.turnaround
+                : "Response".equals(name) ? lastStats.response
+                : lastStats.waiting;
+        histogramPanel.setHistogram(h, name);
+    }
+
+    // Loads a CSV in the background and replaces the table contents with it.
+    private void onImportCsv() {
+        JFileChooser fc = new JFileChooser();
+        fc.setFileFilter(new FileNameExtensionFilter("CSV files", "csv"));
+        int rc = fc.showOpenDialog(this);
+        if (rc != JFileChooser.APPROVE_OPTION) return;
+        File f = fc.getSelectedFile();
+        status("Importing " + f.getName() + "...");
+        new SwingWorker<ProcessTable, Void>() {
+            @Override protected ProcessTable doInBackground() throws Exception {
+                return CsvImporter.load(f.toPath());
+            }
+            @Override protected void done() {
+                ProcessTable t;
+                try {
+                    t = get();
+                } catch (Exception ex) {
+                    Throwable cause = ex instanceof ExecutionException ? ex.getCause() : ex;
+                    JOptionPane.showMessageDialog(SchedulerGUI.this, "Failed to import CSV: " + cause.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+                    status("Import failed");
+                    return;
+                }
+                showTable(t);
+                status("Imported " + t.size() + " processes from " + f.getName());
+            }
+        }.execute();
+    }
+
+    // Generates a synthetic workload in the background and replaces the table contents with it.
+    private void onGenerate() {
+        int[] trace = null;
+        ProcessTable current = tableModel.table();
+        if (current.size() > 0) {
+            trace = new int[current.size()];
+            for (int i = 0; i < trace.length; i++) trace[i] = current.arrival(i);
+            Arrays.sort(trace);
+        }
+        WorkloadGenerator gen = new GenerateDialog(this, trace).showDialog();
+        if (gen == null) return;
+        status("Generating " + gen.count + " processes...");
+        new SwingWorker<ProcessTable, Void>() {
+            @Override protected ProcessTable doInBackground() {
+                return gen.toTable();
+            }
+            @Override protected void done() {
+                ProcessTable t;
+                try {
+                    t = get();
+                } catch (Exception ex) {
+                    Throwable cause = ex instanceof ExecutionException ? ex.getCause() : ex;
+                    JOptionPane.showMessageDialog(SchedulerGUI.this, "Failed to generate workload: " + cause.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+                    status("Generation failed");
+                    return;
+                }
+                showTable(t);
+                autoPidCounter = t.size() + 1;
+                status("Generated " + t.size() + " processes (seed " + gen.seed + ")");
+            }
+        }.execute();
+    }
+
+    // Replaces the table contents with t (no copy), firing a single table event.
+    private void showTable(ProcessTable t) {
+        tableModel.setTable(t);
     }
 
     private void onExportCsv() {
@@ -376,15 +824,11 @@ public class SchedulerGUI extends JFrame {
         if (rc != JFileChooser.APPROVE_OPTION) return;
         File f = fc.getSelectedFile();
         if (!f.getName().toLowerCase().endsWith(".csv")) f = new File(f.getParentFile(), f.getName() + ".csv");
-        try (PrintWriter pw = new PrintWriter(f)) {
-            pw.println("PID,Arrival,Burst,Priority,Color");
-            for (int r = 0; r < tableModel.getRowCount(); r++) {
-                pw.printf("%s,%s,%s,%s,%s\n",
-                        tableModel.getValueAt(r,0),
-                        tableModel.getValueAt(r,1),
-                        tableModel.getValueAt(r,2),
-                        tableModel.getValueAt(r,3),
-                        tableModel.getValueAt(r,4));
+        try (ResultExporter out = ResultExporter.open(f.toPath(), ResultExporter.Format.CSV, false)) {
+            out.inputHeader();
+            ProcessTable t = tableModel.table();
+            for (int r = 0; r < t.size(); r++) {
+                out.input(t.pid(r), t.arrival(r), t.burst(r), t.priority(r), tableModel.color(r));
             }
             status("Exported CSV: " + f.getName());
             JOptionPane.showMessageDialog(this, "Exported to " + f.getAbsolutePath(), "Export CSV", JOptionPane.INFORMATION_MESSAGE);
@@ -393,6 +837,125 @@ public class SchedulerGUI extends JFrame {
         }
     }
 
+    private void onExportGantt() {
+        if (lastResult == null || lastResult.gantt.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "Run a simulation first.", "Info", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+        Timeline t = lastResult.gantt;
+        File f = chooseExportFile();
+        if (f != null) export(f, "Gantt", out -> out.writeTimeline(t));
+    }
+
+    private void onExportMetrics() {
+        if (lastResult == null || lastResult.processes.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "Run a simulation first.", "Info", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+        List<ProcessModel> procs = lastResult.processes;
+        File f = chooseExportFile();
+        if (f != null) export(f, "process metrics", out -> out.writeProcesses(procs));
+    }
+
+    private interface ExportTask {
+        void write(ResultExporter out) throws IOException;
+    }
+
+    // Save dialog for ResultExporter files; the chosen filter supplies a missing extension.
+    private File chooseExportFile() {
+        JFileChooser fc = new JFileChooser();
+        FileNameExtensionFilter csv = new FileNameExtensionFilter("CSV files", "csv");
+        FileNameExtensionFilter jsonl = new FileNameExtensionFilter("JSON Lines", "jsonl", "ndjson");
+        FileNameExtensionFilter gz = new FileNameExtensionFilter("Gzipped CSV or JSON Lines", "gz");
+        fc.addChoosableFileFilter(csv);
+        fc.addChoosableFileFilter(jsonl);
+        fc.addChoosableFileFilter(gz);
+        fc.setFileFilter(csv);
+        if (fc.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return null;
+        File f = fc.getSelectedFile();
+        String name = f.getName().toLowerCase();
+        boolean known = name.endsWith(".csv") || name.endsWith(".jsonl") || name.endsWith(".ndjson") || name.endsWith(".gz");
+        if (!known) {
+            String ext = fc.getFileFilter() == jsonl ? ".jsonl" : fc.getFileFilter() == gz ? ".csv.gz" : ".csv";
+            f = new File(f.getParentFile(), f.getName() + ext);
+        }
+        return f;
+    }
+
+    // Streams the export in the background; the format follows the file name.
+    private void export(File f, String what, ExportTask task) {
+        status("Exporting " + what + "...");
+        new SwingWorker<Void, Void>() {
+            @Override protected Void doInBackground() throws IOException {
+                try (ResultExporter out = ResultExporter.open(f.getPath())) {
+                    task.write(out);
+                }
+                return null;
+            }
+            @Override protected void done() {
+                try {
+                    get();
+                    status("Exported " + what + ": " + f.getName());
+                } catch (Exception ex) {
+                    Throwable cause = ex instanceof ExecutionException ? ex.getCause() : ex;
+                    JOptionPane.showMessageDialog(SchedulerGUI.this, "Failed to export " + what + ": " + cause.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+                    status("Export failed");
+                }
+            }
+        }.execute();
+    }
+
+    // Writes the last result in the ResultStore format in the background.
+    private void onSaveResult() {
+        if (lastResult == null) {
+            JOptionPane.showMessageDialog(this, "Run a simulation first.", "Info", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+        JFileChooser fc = new JFileChooser();
+        fc.setFileFilter(new FileNameExtensionFilter("Scheduler results", "sres"));
+        if (fc.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        File chosen = fc.getSelectedFile();
+        File f = chosen.getName().toLowerCase().endsWith(".sres") ? chosen : new File(chosen.getParentFile(), chosen.getName() + ".sres");
+        Scheduler.Result res = lastResult;
+        status("Saving result...");
+        new SwingWorker<Void, Void>() {
+            @Override protected Void doInBackground() throws IOException {
+                ResultStore.save(res, f.toPath());
+                return null;
+            }
+            @Override protected void done() {
+                try {
+                    get();
+                    status("Saved result: " + f.getName());
+                } catch (Exception ex) {
+                    Throwable cause = ex instanceof ExecutionException ? ex.getCause() : ex;
+                    JOptionPane.showMessageDialog(SchedulerGUI.this, "Failed to save result: " + cause.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+                    status("Save failed");
+                }
+            }
+        }.execute();
+    }
+
+    // Maps a saved result and shows its chart and metrics without simulating again.
+    private void onOpenResult() {
+        if (runMonitor != null) return;
+        JFileChooser fc = new JFileChooser();
+        fc.setFileFilter(new FileNameExtensionFilter("Scheduler results", "sres"));
+        if (fc.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        File f = fc.getSelectedFile();
+        Scheduler.Result res;
+        try {
+            res = ResultStore.open(f.toPath());
+        } catch (IOException ex) {
+            JOptionPane.showMessageDialog(this, "Failed to open result: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        lastResult = res;
+        ganttPanel.setGantt(res.gantt);
+        displayMetrics(res);
+        status(String.format("Opened %s: %,d processes, %,d slices", f.getName(), res.processes.size(), res.gantt.size()));
+    }
+
     private void onSavePng() {
         if (ganttPanel == null) {
             JOptionPane.showMessageDialog(this, "No Gantt to save.", "Info", JOptionPane.INFORMATION_MESSAGE);
@@ -418,6 +981,52 @@ public class SchedulerGUI extends JFrame {
         }
     }
 
+    // Renders the whole timeline at a chosen scale, off the EDT, in bounded memory.
+    private void onExportTimelinePng() {
+        if (lastResult == null || lastResult.gantt.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "Run a simulation first.", "Info", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+        String input = JOptionPane.showInputDialog(this, "Pixels per time unit:", String.valueOf(ganttPanel.getScale()));
+        if (input == null) return;
+        double scale;
+        try {
+            scale = Double.parseDouble(input.trim());
+            if (!(scale > 0)) throw new NumberFormatException();
+        } catch (NumberFormatException ex) {
+            JOptionPane.showMessageDialog(this, "Scale must be a positive number.", "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        GanttPanel copy = ganttPanel.exportCopy(scale);
+        if (copy.exportWidth() > GanttPanel.MAX_EXPORT_WIDTH) {
+            JOptionPane.showMessageDialog(this, String.format("At this scale the image would be %,d px wide; the limit is %,d px.",
+                    copy.exportWidth(), GanttPanel.MAX_EXPORT_WIDTH), "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        JFileChooser fc = new JFileChooser();
+        fc.setFileFilter(new FileNameExtensionFilter("PNG image", "png"));
+        if (fc.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        File chosen = fc.getSelectedFile();
+        File f = chosen.getName().toLowerCase().endsWith(".png") ? chosen : new File(chosen.getParentFile(), chosen.getName() + ".png");
+        status(String.format("Exporting %,d x %d PNG...", copy.exportWidth(), copy.exportHeight()));
+        new SwingWorker<Void, Void>() {
+            @Override protected Void doInBackground() throws IOException {
+                copy.writePng(f.toPath());
+                return null;
+            }
+            @Override protected void done() {
+                try {
+                    get();
+                    status("Exported timeline PNG: " + f.getName());
+                } catch (Exception ex) {
+                    Throwable cause = ex instanceof ExecutionException ? ex.getCause() : ex;
+                    JOptionPane.showMessageDialog(SchedulerGUI.this, "Failed to export PNG: " + cause.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+                    status("Export failed");
+                }
+            }
+        }.execute();
+    }
+
     private void clearInputs() {
         pidField.setText("");
         arrivalField.setText("");
@@ -429,16 +1038,13 @@ public class SchedulerGUI extends JFrame {
         statusLabel.setText(s);
     }
 
-    // Helpers: color hex <-> Color
-    private String colorToHex(Color c) {
-        return String.format("#%02x%02x%02x", c.getRed(), c.getGreen(), c.getBlue());
+    private static double sliderScale(int v) {
+        return v >= 1 ? v : Math.pow(2, v - 1);
     }
-    private Color hexToColor(String hex) {
-        try {
-            return Color.decode(hex);
-        } catch (Exception e) {
-            return Color.LIGHT_GRAY;
-        }
+
+    private static String formatScale(double pxPerUnit) {
+        if (pxPerUnit >= 1) return String.format("%.1f px/unit", pxPerUnit);
+        return String.format("1 px per %.0f units", 1 / pxPerUnit);
     }
 
     // Color cell renderer
@@ -447,11 +1053,7 @@ public class SchedulerGUI extends JFrame {
                                                        boolean isSelected, boolean hasFocus, int row, int column) {
             JLabel lbl = (JLabel) super.getTableCellRendererComponent(table, "", isSelected, hasFocus, row, column);
             lbl.setOpaque(true);
-            try {
-                lbl.setBackground(Color.decode(value.toString()));
-            } catch (Exception e) {
-                lbl.setBackground(Color.LIGHT_GRAY);
-            }
+            lbl.setBackground(value instanceof Color ? (Color) value : Color.LIGHT_GRAY);
             lbl.setBorder(BorderFactory.createLineBorder(Color.DARK_GRAY));
             return lbl;
         }
@@ -460,27 +1062,26 @@ public class SchedulerGUI extends JFrame {
     // Color cell editor (shows a small button to open chooser)
     private class ColorCellEditor extends AbstractCellEditor implements TableCellEditor {
         private JButton button = new JButton();
-        private String currentHex = "#cccccc";
+        private Color current = Color.LIGHT_GRAY;
 
         public ColorCellEditor() {
             button.setBorderPainted(false);
             button.addActionListener(e -> {
-                Color init = hexToColor(currentHex);
-                Color chosen = JColorChooser.showDialog(SchedulerGUI.this, "Choose color", init);
+                Color chosen = JColorChooser.showDialog(SchedulerGUI.this, "Choose color", current);
                 if (chosen != null) {
-                    currentHex = colorToHex(chosen);
+                    current = chosen;
                 }
                 fireEditingStopped();
             });
         }
 
         public Object getCellEditorValue() {
-            return currentHex;
+            return current;
         }
 
         public Component getTableCellEditorComponent(JTable table, Object value, boolean isSelected, int row, int col) {
-            currentHex = value == null ? "#cccccc" : value.toString();
-            button.setBackground(hexToColor(currentHex));
+            current = value instanceof Color ? (Color) value : Color.LIGHT_GRAY;
+            button.setBackground(current);
             return button;
         }
     }
@@ -0,0 +1,296 @@
+// SchedulerSession.java
+// Stateful, online scheduler for a live stream of job arrivals. Jobs are submit()ted as they
+// become known and advanceTo(time) moves the clock forward, emitting each finished Gantt
+// slice and completion to the listeners. Work done per call is proportional to the new
+// events only; nothing is re-simulated from t=0.
+//
+// The session takes SimulationKernel's loop one decision at a time with any SchedulingPolicy,
+// the switch cost and the dispatch latency, so jobs submitted in input order give the
+// schedule Scheduler.run gives for that input (a slice continued after a preemption check is
+// emitted once, merged). Jobs are numbered in submission order in a kernel's columns; when
+// the columns fill up, finished jobs are dropped and the rest renumbered in order
+// (SchedulingPolicy.renumber), so memory follows the unfinished jobs.
+//
+// Contract: after advanceTo(t), every later submission must arrive at or after t. Decisions
+// that could still be changed by such a submission (a dispatch at time >= t, a slice an
+// arrival before its end would cut, or a requeue at exactly t) are deferred to the next
+// advanceTo().
+
+import java.util.*;
+
+public class SchedulerSession {
+
+    public interface Listener {
+        // a finished slice and its SchedulingPolicy.tag(), -1 for none
+        void onSlice(Scheduler.GanttEntry slice, int tag);
+
+        // switch or dispatch overhead before the next slice
+        default void onOverhead(int start, int end) {
+        }
+
+        void onComplete(ProcessModel p);
+    }
+
+    private static final int MIN_CAPACITY = 16;
+
+    private final SchedulingPolicy policy;
+    private final SimulationConfig config;
+    private final boolean preemptive;
+    private final int switchCost;
+    private final int latency;
+    private final List<Listener> listeners = new ArrayList<>();
+    private final Scheduler.Result result = new Scheduler.Result();
+    private boolean retainResult = true;
+
+    // arrival, burst, priority and remaining of each job by number, in the kernel's columns
+    private SimulationKernel kernel;
+    private ProcessModel[] jobs; // null once finished
+    private int[] timelineProc;
+    private int count;           // numbers given out since the last renumbering
+    private IndexedHeap pending; // submitted but not yet arrived, by arrival then number
+
+    private int time;     // the CPU is free from here on (when nothing is running)
+    private int horizon;  // last advanceTo() target
+
+    // the dispatched job; its end is planned once everything arrived by runStart is ready
+    private int running = -1;
+    private int runStart;
+    private int runTag;
+    private boolean runResumes;
+    private boolean planned;
+    private int runEnd;
+
+    // the kernel's record of the previous slice, for switch costs and merging
+    private int lastProc = -1;
+    private int lastEnd = -1;
+    private int lastTag = -1;
+    private boolean lastCut;
+
+    // the previous slice, held back while its process may still continue it
+    private ProcessModel held;
+    private int heldProc;
+    private int heldStart;
+    private int heldEnd;
+    private int heldTag;
+
+    public SchedulerSession(SchedulingPolicy policy, SimulationConfig config) {
+        this.policy = policy;
+        this.config = config;
+        this.preemptive = policy.preemptive();
+        this.switchCost = Math.max(0, config.switchCost);
+        this.latency = Math.max(0, config.dispatchLatency);
+        if (config.offHeap) result.gantt = new OffHeapTimeline(config.spillBytes);
+        allocate(MIN_CAPACITY);
+        policy.reset(kernel);
+    }
+
+    public void addListener(Listener l) {
+        listeners.add(l);
+    }
+
+    public void removeListener(Listener l) {
+        listeners.remove(l);
+    }
+
+    // the clock as of the last advanceTo()
+    public int now() {
+        return horizon;
+    }
+
+    // Live view of everything emitted so far (timeline and completed processes).
+    public Scheduler.Result result() {
+        return result;
+    }
+
+    // When false, slices and completions only go to the listeners and result() stays empty,
+    // so unbounded streams run in memory proportional to the unfinished jobs. Set before
+    // submitting.
+    public void setRetainResult(boolean retainResult) {
+        this.retainResult = retainResult;
+    }
+
+    public void submit(ProcessModel process) {
+        if (process.arrival < horizon) {
+            throw new IllegalArgumentException("Arrival " + process.arrival + " of " + process.pid
+                    + " is before the session clock " + horizon);
+        }
+        if (count == jobs.length) renumber();
+        ProcessModel p = process.copy();
+        p.remaining = p.burst;
+        p.startTime = -1;
+        int j = count++;
+        kernel.arrivals()[j] = p.arrival;
+        kernel.bursts()[j] = p.burst;
+        kernel.priorities()[j] = p.priority;
+        kernel.remaining()[j] = p.burst;
+        jobs[j] = p;
+        timelineProc[j] = retainResult ? result.gantt.addProcessRow(p.pid, p.color) : -1;
+        pending.add(j);
+    }
+
+    public void advanceTo(int t) {
+        if (t < horizon) throw new IllegalArgumentException("Cannot move the clock back to " + t);
+        horizon = t;
+        while (true) {
+            if (running >= 0 && !endSlice()) break;
+            admit(time);
+            if (time >= t) break;
+            policy.advanceClock(time);
+            int p = policy.pickNext();
+            if (p < 0) {
+                // idle: jump to the next known arrival, if it is before the horizon
+                if (pending.isEmpty() || kernel.arrivals()[pending.peek()] >= t) break;
+                time = kernel.arrivals()[pending.peek()];
+                continue;
+            }
+            dispatch(p);
+        }
+    }
+
+    // Runs every submitted job to completion.
+    public void finish() {
+        advanceTo(Integer.MAX_VALUE);
+    }
+
+    private void dispatch(int p) {
+        int tag = policy.tag(p);
+        boolean resume = p == lastProc && lastCut && lastEnd == time && tag == lastTag;
+        if (!resume) emitHeld();
+        int overhead = resume ? 0 : latency + (lastProc >= 0 && lastProc != p ? switchCost : 0);
+        if (overhead > 0) {
+            if (retainResult) result.gantt.add(result.gantt.addOverheadProcess(), time, time + overhead);
+            for (Listener l : listeners) l.onOverhead(time, time + overhead);
+            time += overhead;
+        }
+        if (jobs[p].startTime == -1) jobs[p].startTime = time;
+        running = p;
+        runStart = time;
+        runTag = tag;
+        runResumes = resume;
+        planned = false;
+    }
+
+    // Ends the running slice as the kernel would; false while a later submission could still
+    // cut it short or arrive at its end ahead of a requeue.
+    private boolean endSlice() {
+        int p = running;
+        int[] remaining = kernel.remaining();
+        if (!planned) {
+            if (runStart >= horizon) return false;
+            admit(runStart);
+            runEnd = runStart + Math.min(remaining[p], Math.max(1, policy.timeSlice(p)));
+            planned = true;
+        }
+        int end = runEnd;
+        boolean cut = false;
+        if (preemptive && !pending.isEmpty() && kernel.arrivals()[pending.peek()] < end) {
+            end = kernel.arrivals()[pending.peek()];
+            cut = true;
+        }
+        int event = policy.nextEventTime();
+        if (event > runStart && event < end) {
+            end = event;
+            cut = true;
+        }
+        boolean done = end - runStart == remaining[p];
+        if (end > horizon || (end == horizon && !done)) return false;
+
+        running = -1;
+        if (runResumes) {
+            heldEnd = end;
+        } else {
+            held = jobs[p];
+            heldProc = timelineProc[p];
+            heldStart = runStart;
+            heldEnd = end;
+            heldTag = runTag;
+        }
+        lastProc = p;
+        lastEnd = end;
+        lastTag = runTag;
+        lastCut = cut && event != end;
+        remaining[p] -= end - runStart;
+        time = end;
+        if (!lastCut || done) emitHeld();
+
+        // processes that arrived during the slice are ready before p is handed back
+        admit(time);
+        if (done) {
+            complete(p);
+        } else if (cut) {
+            policy.onPreempted(p);
+        } else {
+            policy.onQuantumExpiry(p);
+        }
+        return true;
+    }
+
+    private void emitHeld() {
+        if (held == null) return;
+        if (retainResult) result.gantt.add(heldProc, heldStart, heldEnd, heldTag);
+        Scheduler.GanttEntry slice = new Scheduler.GanttEntry(held.pid, heldStart, heldEnd, held.color);
+        for (Listener l : listeners) l.onSlice(slice, heldTag);
+        held = null;
+    }
+
+    private void complete(int p) {
+        ProcessModel m = jobs[p];
+        jobs[p] = null;
+        m.remaining = 0;
+        m.completionTime = time;
+        m.turnaroundTime = m.completionTime - m.arrival;
+        m.waitingTime = m.turnaroundTime - m.burst;
+        if (retainResult) result.processes.add(m);
+        for (Listener l : listeners) l.onComplete(m);
+    }
+
+    private void admit(int upTo) {
+        int[] arrival = kernel.arrivals();
+        while (!pending.isEmpty() && arrival[pending.peek()] <= upTo) {
+            policy.onArrival(pending.poll());
+        }
+    }
+
+    private void allocate(int capacity) {
+        kernel = new SimulationKernel(capacity, config);
+        jobs = new ProcessModel[capacity];
+        timelineProc = new int[capacity];
+        int[] arrival = kernel.arrivals();
+        pending = new IndexedHeap(capacity, (a, b) -> arrival[a] != arrival[b] ? arrival[a] < arrival[b] : a < b);
+    }
+
+    // Drops finished jobs and numbers the rest from 0 in the same order, doubling the columns
+    // when more than half of them are still in use. The last job to run keeps its number until
+    // another one runs, for the switch cost.
+    private void renumber() {
+        SimulationKernel old = kernel;
+        ProcessModel[] oldJobs = jobs;
+        int[] oldProcs = timelineProc;
+        int[] waiting = pending.toArray();
+        int live = 0;
+        for (int j = 0; j < count; j++) {
+            if (oldJobs[j] != null || j == lastProc) live++;
+        }
+        allocate(live * 2 > oldJobs.length ? oldJobs.length * 2 : oldJobs.length);
+        int[] renumbered = new int[count];
+        int k = 0;
+        for (int j = 0; j < count; j++) {
+            if (oldJobs[j] == null && j != lastProc) {
+                renumbered[j] = -1;
+                continue;
+            }
+            kernel.arrivals()[k] = old.arrivals()[j];
+            kernel.bursts()[k] = old.bursts()[j];
+            kernel.priorities()[k] = old.priorities()[j];
+            kernel.remaining()[k] = old.remaining()[j];
+            jobs[k] = oldJobs[j];
+            timelineProc[k] = oldProcs[j];
+            renumbered[j] = k++;
+        }
+        count = k;
+        for (int j : waiting) pending.add(renumbered[j]);
+        if (running >= 0) running = renumbered[running];
+        if (lastProc >= 0) lastProc = renumbered[lastProc];
+        policy.renumber(kernel, renumbered);
+    }
+}
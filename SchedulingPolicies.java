@@ -0,0 +1,59 @@
+// SchedulingPolicies.java
+// Registry of the SchedulingPolicy implementations found by ServiceLoader, in service file
+// order. Built-in policies missing from the class path's service file (e.g. when the
+// classes were compiled without resources) are added afterwards, so the list is never empty.
+
+import java.util.*;
+import java.util.function.Supplier;
+
+public class SchedulingPolicies {
+    private static final Map<String, SchedulingPolicy> PROTOTYPES = new LinkedHashMap<>();
+    private static final Map<String, Supplier<SchedulingPolicy>> FACTORIES = new HashMap<>();
+    private static final Map<String, String> NAMES_BY_ID = new LinkedHashMap<>();
+
+    static {
+        ServiceLoader.load(SchedulingPolicy.class).stream().forEach(provider -> register(provider.get(), provider::get));
+        register(new FcfsPolicy(), FcfsPolicy::new);
+        register(new SjfPolicy(), SjfPolicy::new);
+        register(new PriorityPolicy(), PriorityPolicy::new);
+        register(new SrtfPolicy(), SrtfPolicy::new);
+        register(new PreemptivePriorityPolicy(), PreemptivePriorityPolicy::new);
+        register(new RoundRobinPolicy(), RoundRobinPolicy::new);
+        register(new MlfqPolicy(), MlfqPolicy::new);
+    }
+
+    private static void register(SchedulingPolicy prototype, Supplier<SchedulingPolicy> factory) {
+        String name = prototype.name();
+        if (PROTOTYPES.containsKey(name)) return;
+        PROTOTYPES.put(name, prototype);
+        FACTORIES.put(name, factory);
+        NAMES_BY_ID.put(prototype.id(), name);
+    }
+
+    // display names, in registration order
+    public static List<String> names() {
+        return new ArrayList<>(PROTOTYPES.keySet());
+    }
+
+    // command line ids, in registration order
+    public static List<String> ids() {
+        return new ArrayList<>(NAMES_BY_ID.keySet());
+    }
+
+    // display name for a command line id, null when unknown
+    public static String nameForId(String id) {
+        return NAMES_BY_ID.get(id);
+    }
+
+    public static boolean usesQuantum(String name) {
+        SchedulingPolicy p = PROTOTYPES.get(name);
+        return p != null && p.usesQuantum();
+    }
+
+    // a fresh policy instance for one run
+    public static SchedulingPolicy create(String name) {
+        Supplier<SchedulingPolicy> f = FACTORIES.get(name);
+        if (f == null) throw new IllegalArgumentException("Unknown algorithm: " + name);
+        return f.get();
+    }
+}
@@ -0,0 +1,82 @@
+// SchedulingPolicy.java
+// Service interface for scheduling policies. The SimulationKernel owns the clock, arrival
+// admission, idle skipping and Result bookkeeping; a policy only keeps the ready set and
+// decides what runs next. Processes are identified by their input position 0..n-1.
+//
+// Implementations are listed in META-INF/services/SchedulingPolicy, found by ServiceLoader
+// (see SchedulingPolicies) and need a public no-arg constructor. A fresh instance is created
+// for every run, so per-run state can live in fields.
+
+public interface SchedulingPolicy {
+    // display name, e.g. "Round Robin"
+    String name();
+
+    // short lower-case token for the command line, e.g. "rr"
+    String id();
+
+    // whether the quantum setting applies
+    default boolean usesQuantum() {
+        return false;
+    }
+
+    // when true, each arrival ends the running slice so pickNext() can reconsider
+    default boolean preemptive() {
+        return false;
+    }
+
+    // called once before the run; the kernel exposes the process columns
+    void reset(SimulationKernel kernel);
+
+    // process p arrived and is ready
+    void onArrival(int p);
+
+    // removes and returns the process to run next, -1 when none is ready
+    int pickNext();
+
+    // the simulated time, called before every pickNext() for policies with timed events
+    default void advanceClock(int time) {
+    }
+
+    // time of the policy's next timed event after the last advanceClock() (e.g. an MLFQ
+    // boost); the running slice is cut there as at a preempting arrival
+    default int nextEventTime() {
+        return Integer.MAX_VALUE;
+    }
+
+    // tag recorded with the slice p was just picked for (e.g. its queue level), -1 for none
+    default int tag(int p) {
+        return -1;
+    }
+
+    // longest slice p may run before onQuantumExpiry(); MAX_VALUE runs it to completion
+    default int timeSlice(int p) {
+        return Integer.MAX_VALUE;
+    }
+
+    // p used up its slice with work left and is ready again
+    default void onQuantumExpiry(int p) {
+        onArrival(p);
+    }
+
+    // p was interrupted by an arrival (preemptive policies only) and is ready again
+    default void onPreempted(int p) {
+        onArrival(p);
+    }
+
+    // The ready processes for a SimulationKernel checkpoint, in an order in which onArrival()
+    // after reset() rebuilds the same state. null (the default) when the policy keeps state
+    // beyond its ready set, so its runs are never resumed from a checkpoint.
+    default int[] readySet() {
+        return null;
+    }
+
+    // A SchedulerSession compacted its process columns: process p is now renumbered[p] (-1
+    // once dropped, relative order kept) and kernel holds the new columns. The default
+    // rebuilds the policy from its readySet(); policies without one must override this.
+    default void renumber(SimulationKernel kernel, int[] renumbered) {
+        int[] ready = readySet();
+        if (ready == null) throw new UnsupportedOperationException(name() + " cannot renumber its processes");
+        reset(kernel);
+        for (int p : ready) onArrival(renumbered[p]);
+    }
+}
@@ -0,0 +1,63 @@
+// SimulationConfig.java
+// Settings for one SimulationKernel or SmpSimulator run.
+
+public class SimulationConfig {
+    public int quantum = 2; // only read by policies that use a quantum
+    public SimulationMonitor monitor = SimulationMonitor.NONE;
+
+    // overhead slices before a dispatch: switchCost when the CPU changes process, plus
+    // dispatchLatency on every dispatch (continuing a preempted slice is not a dispatch)
+    public int switchCost = 0;
+    public int dispatchLatency = 0;
+
+    // keep the timeline's slices off the Java heap (OffHeapTimeline), moving them to
+    // memory-mapped temporary files once they need more than spillBytes
+    public boolean offHeap = false;
+    public long spillBytes = 256L << 20;
+
+    // MLFQ only
+    public int levels = 3;
+    public int[] levelQuanta;       // per level; null doubles the quantum at each level
+    public int boostInterval = 100; // time units between boosts to the top level, 0 for none
+
+    // SmpSimulator only
+    public int cpus = 1;
+    public SmpSimulator.Queues queues = SmpSimulator.Queues.GLOBAL;
+    public boolean workStealing = true; // with per-CPU queues
+
+    public SimulationConfig() {
+    }
+
+    public SimulationConfig(int quantum, SimulationMonitor monitor) {
+        this.quantum = quantum;
+        this.monitor = monitor;
+    }
+
+    // the settings that change algo's schedule, as a string to compare or key by: the quantum
+    // only for policies that read it, MLFQ settings only for MLFQ, and the overheads
+    public String scheduleKey(String algo) {
+        StringBuilder sb = new StringBuilder(64).append(algo);
+        if (SchedulingPolicies.usesQuantum(algo)) sb.append("|q=").append(quantum);
+        if (MlfqPolicy.NAME.equals(algo)) {
+            sb.append("|levels=").append(levels)
+                    .append("|lq=").append(java.util.Arrays.toString(levelQuanta))
+                    .append("|boost=").append(boostInterval);
+        }
+        return sb.append("|switch=").append(switchCost).append("|latency=").append(dispatchLatency).toString();
+    }
+
+    public SimulationConfig copy() {
+        SimulationConfig c = new SimulationConfig(quantum, monitor);
+        c.switchCost = switchCost;
+        c.dispatchLatency = dispatchLatency;
+        c.offHeap = offHeap;
+        c.spillBytes = spillBytes;
+        c.levels = levels;
+        c.levelQuanta = levelQuanta;
+        c.boostInterval = boostInterval;
+        c.cpus = cpus;
+        c.queues = queues;
+        c.workStealing = workStealing;
+        return c;
+    }
+}
@@ -0,0 +1,397 @@
+// SimulationKernel.java
+// Shared discrete-event loop behind every SchedulingPolicy. Process state lives in int
+// columns indexed by input position and the clock only moves to dispatch decisions and
+// slice ends, jumping straight to the next arrival when nothing is ready. Arrivals during
+// a slice are admitted before the running process is handed back to the policy, and slices
+// cut only by a preemption check are merged when the same process keeps the CPU. Configured
+// switch and dispatch costs become explicit overhead slices (Timeline.addOverheadProcess).
+// With config.offHeap the slices are written to an OffHeapTimeline instead of the heap.
+// A kernel simulates its input once; use the static run() for one-off runs.
+// runCheckpointed() also records checkpoints of the loop state (clock, admitted count, ready
+// set with its remaining and first-start times, timeline and completion offsets) every so
+// many events. At a checkpoint with clock C every admitted process arrived at or before C,
+// so edits to processes that arrive later cannot change anything up to it: resume() starts
+// from the last checkpoint before the earliest affected arrival, copies the result up to it
+// and simulates only the tail. Policies take part by returning their ready set.
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+public class SimulationKernel {
+    private final List<ProcessModel> input;
+    private final SimulationConfig config;
+    private final int n;
+    private final int[] arrival;
+    private final int[] burst;
+    private final int[] priority;
+    private final int[] remaining;
+    private final int[] startTime;
+    private boolean used;
+
+    private static final int MIN_CHECKPOINT_EVENTS = 1 << 12;
+    private List<Checkpoint> checkpoints; // recorded while non-null
+    private int[] timelineProc;
+    private int[] completionOrder;        // input index of each completed process, in order
+    private int overheadProc = -1;        // timeline row of the overhead slices once added
+
+    // loop state at the top of an iteration; ready is the policy's readySet() with the
+    // remaining and first-start time of each of those processes
+    private static final class Checkpoint {
+        int time, next, completed, lastProc, lastEnd, lastTag, slices;
+        boolean lastCut, overhead;
+        long events;
+        int[] ready, readyRemaining, readyStart;
+    }
+
+    // A finished run that resume() can continue after edits to its input.
+    public static final class Run {
+        public final Scheduler.Result result;
+        final String schedule;  // policy name and settings, see SimulationConfig.scheduleKey
+        final int[] arrival;
+        final int[] burst;
+        final int[] priority;
+        final int[] timelineProc;
+        final int[] completionOrder;
+        final int overheadProc;
+        final List<Checkpoint> checkpoints;
+        final int resumedAt;
+
+        private Run(SimulationKernel k, Scheduler.Result result, String schedule, int resumedAt) {
+            this.result = result;
+            this.schedule = schedule;
+            this.arrival = k.arrival;
+            this.burst = k.burst;
+            this.priority = k.priority;
+            this.timelineProc = k.timelineProc;
+            this.completionOrder = k.completionOrder;
+            this.overheadProc = k.overheadProc;
+            this.checkpoints = k.checkpoints == null ? Collections.emptyList() : k.checkpoints;
+            this.resumedAt = resumedAt;
+        }
+
+        public int checkpointCount() {
+            return checkpoints.size();
+        }
+
+        // clock of the checkpoint this run was resumed from, -1 for a full run
+        public int resumedAt() {
+            return resumedAt;
+        }
+    }
+
+    public SimulationKernel(List<ProcessModel> input, SimulationConfig config) {
+        this(input, input.size(), config);
+        for (int i = 0; i < n; i++) {
+            ProcessModel p = input.get(i);
+            arrival[i] = p.arrival;
+            burst[i] = p.burst;
+            priority[i] = p.priority;
+            remaining[i] = p.burst;
+            startTime[i] = -1;
+        }
+    }
+
+    // Empty columns for capacity processes, filled in by a SchedulerSession that runs the loop
+    // itself; such a kernel has no input and cannot run().
+    SimulationKernel(int capacity, SimulationConfig config) {
+        this(null, capacity, config);
+        used = true;
+    }
+
+    private SimulationKernel(List<ProcessModel> input, int n, SimulationConfig config) {
+        this.input = input;
+        this.config = config;
+        this.n = n;
+        this.arrival = new int[n];
+        this.burst = new int[n];
+        this.priority = new int[n];
+        this.remaining = new int[n];
+        this.startTime = new int[n];
+    }
+
+    public static Scheduler.Result run(List<ProcessModel> input, SchedulingPolicy policy, SimulationConfig config) {
+        return new SimulationKernel(input, config).run(policy);
+    }
+
+    // read-only views of the process columns for policies
+    public int processCount() { return n; }
+    public int[] arrivals() { return arrival; }
+    public int[] bursts() { return burst; }
+    public int[] priorities() { return priority; }
+    public int[] remaining() { return remaining; }
+    public int quantum() { return Math.max(1, config.quantum); }
+    public SimulationConfig config() { return config; }
+
+    // Runs like run() and keeps what resume() needs.
+    public static Run runCheckpointed(List<ProcessModel> input, SchedulingPolicy policy, SimulationConfig config) {
+        return resume(null, input, policy, config);
+    }
+
+    // Simulates input, reusing prev up to its last checkpoint before the earliest arrival
+    // that input changes (old or new arrival of an edited row, arrival of an appended row).
+    // Falls back to a full run when there is no such checkpoint, prev ran another policy or
+    // settings, rows were removed or PIDs differ.
+    public static Run resume(Run prev, List<ProcessModel> input, SchedulingPolicy policy, SimulationConfig config) {
+        SimulationKernel k = new SimulationKernel(input, config);
+        String schedule = config.scheduleKey(policy.name());
+        int at = prev == null ? -1 : k.checkpointIndex(prev, schedule);
+        Checkpoint cp = at < 0 ? null : prev.checkpoints.get(at);
+        k.checkpoints = new ArrayList<>();
+        if (cp != null) k.checkpoints.addAll(prev.checkpoints.subList(0, at + 1));
+        Scheduler.Result res = k.simulate(policy, prev, cp);
+        return new Run(k, res, schedule, cp == null ? -1 : cp.time);
+    }
+
+    // index in prev.checkpoints to resume from, -1 for none
+    private int checkpointIndex(Run prev, String schedule) {
+        int m = prev.arrival.length;
+        if (!schedule.equals(prev.schedule) || n < m || prev.checkpoints.isEmpty()) return -1;
+        long affected = Long.MAX_VALUE;
+        for (int i = 0; i < m; i++) {
+            if (arrival[i] != prev.arrival[i] || burst[i] != prev.burst[i] || priority[i] != prev.priority[i]) {
+                affected = Math.min(affected, Math.min(arrival[i], prev.arrival[i]));
+            }
+        }
+        for (int i = m; i < n; i++) affected = Math.min(affected, arrival[i]);
+        Timeline t = prev.result.gantt;
+        for (int i = 0; i < m; i++) {
+            if (!input.get(i).pid.equals(t.processPid(prev.timelineProc[i]))) return -1;
+        }
+        // last checkpoint strictly before the affected arrival
+        int lo = 0, hi = prev.checkpoints.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (prev.checkpoints.get(mid).time < affected) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo - 1;
+    }
+
+    public Scheduler.Result run(SchedulingPolicy policy) {
+        return simulate(policy, null, null);
+    }
+
+    // Runs from the start, or from cp after copying prev's result up to it.
+    private Scheduler.Result simulate(SchedulingPolicy policy, Run prev, Checkpoint cp) {
+        if (used) throw new IllegalStateException("a SimulationKernel can only run once");
+        used = true;
+        Scheduler.Result res = new Scheduler.Result();
+        if (config.offHeap) res.gantt = new OffHeapTimeline(config.spillBytes);
+        timelineProc = new int[n];
+        int interned = 0;
+        if (cp != null && sameProcessTable(prev)) {
+            // PIDs already checked equal: reuse prev's table, only colors may have changed
+            interned = prev.timelineProc.length;
+            res.gantt.copyProcesses(prev.result.gantt, interned);
+            for (int i = 0; i < interned; i++) {
+                timelineProc[i] = i;
+                Color c = input.get(i).color;
+                if (!Objects.equals(c, res.gantt.processColor(i))) res.gantt.setProcessColor(i, c);
+            }
+        }
+        for (int i = interned; i < n; i++) {
+            ProcessModel p = input.get(i);
+            timelineProc[i] = res.gantt.addProcessRow(p.pid, p.color);
+        }
+        completionOrder = new int[n];
+
+        SimulationMonitor monitor = config.monitor;
+        boolean preemptive = policy.preemptive();
+        int switchCost = Math.max(0, config.switchCost);
+        int latency = Math.max(0, config.dispatchLatency);
+        int[] order = Scheduler.indicesByArrival(arrival);
+        long events = 0;
+        int next = 0;
+        int completed = 0;
+        int time = 0;
+        int lastProc = -1;
+        int lastEnd = -1;
+        int lastTag = -1;
+        boolean lastCut = false;
+        if (cp != null) {
+            restore(prev, cp, res);
+            events = cp.events;
+            next = cp.next;
+            completed = cp.completed;
+            time = cp.time;
+            lastProc = cp.lastProc;
+            lastEnd = cp.lastEnd;
+            lastTag = cp.lastTag;
+            lastCut = cp.lastCut;
+        }
+        policy.reset(this);
+        if (cp != null) {
+            for (int p : cp.ready) policy.onArrival(p);
+        }
+        long checkpointEvery = Math.max(MIN_CHECKPOINT_EVENTS, n / 64);
+        long checkpointBudget = 4L * n + (1 << 16); // ready-set entries kept over all checkpoints
+        long lastCheckpoint = events;
+        boolean recording = checkpoints != null;
+        if (recording) {
+            for (Checkpoint c : checkpoints) checkpointBudget -= c.ready.length;
+        }
+
+        while (completed < n) {
+            if (recording && events - lastCheckpoint >= checkpointEvery) {
+                lastCheckpoint = events;
+                int[] ready = policy.readySet();
+                if (ready == null) {
+                    recording = false; // the policy cannot be resumed
+                } else {
+                    // over budget: keep every other checkpoint and take them half as often
+                    for (checkpointBudget -= ready.length; checkpointBudget < 0 && checkpoints.size() > 1; ) {
+                        List<Checkpoint> kept = new ArrayList<>();
+                        for (int k = 0; k < checkpoints.size(); k++) {
+                            if (k % 2 == 1) kept.add(checkpoints.get(k));
+                            else checkpointBudget += checkpoints.get(k).ready.length;
+                        }
+                        checkpoints = kept;
+                        checkpointEvery *= 2;
+                    }
+                    Checkpoint c = new Checkpoint();
+                    c.time = time;
+                    c.next = next;
+                    c.completed = completed;
+                    c.lastProc = lastProc;
+                    c.lastEnd = lastEnd;
+                    c.lastTag = lastTag;
+                    c.lastCut = lastCut;
+                    c.overhead = overheadProc >= 0;
+                    c.slices = res.gantt.size();
+                    c.events = events;
+                    c.ready = ready;
+                    c.readyRemaining = new int[ready.length];
+                    c.readyStart = new int[ready.length];
+                    for (int k = 0; k < ready.length; k++) {
+                        c.readyRemaining[k] = remaining[ready[k]];
+                        c.readyStart[k] = startTime[ready[k]];
+                    }
+                    checkpoints.add(c);
+                }
+            }
+            monitor.tick(++events, time);
+            while (next < n && arrival[order[next]] <= time) {
+                policy.onArrival(order[next++]);
+            }
+            policy.advanceClock(time);
+            int p = policy.pickNext();
+            if (p < 0) {
+                if (next == n) {
+                    throw new IllegalStateException(policy.name() + " left " + (n - completed) + " processes unscheduled");
+                }
+                // CPU idle: jump straight to the next arrival
+                time = arrival[order[next]];
+                continue;
+            }
+            int tag = policy.tag(p);
+            boolean resume = p == lastProc && lastCut && lastEnd == time && tag == lastTag;
+            int overhead = resume ? 0 : latency + (lastProc >= 0 && lastProc != p ? switchCost : 0);
+            if (overhead > 0) {
+                if (overheadProc < 0) overheadProc = res.gantt.addOverheadProcess();
+                res.gantt.add(overheadProc, time, time + overhead);
+                time += overhead;
+                // arrivals during the switch are ready, but cannot preempt before p has run
+                while (next < n && arrival[order[next]] <= time) {
+                    policy.onArrival(order[next++]);
+                }
+            }
+            if (startTime[p] == -1) startTime[p] = time;
+
+            // run for the policy's slice, or until the next arrival when preemptive
+            int end = time + Math.min(remaining[p], Math.max(1, policy.timeSlice(p)));
+            boolean cut = false;
+            if (preemptive && next < n && arrival[order[next]] < end) {
+                end = arrival[order[next]];
+                cut = true;
+            }
+            int event = policy.nextEventTime();
+            if (event > time && event < end) {
+                end = event;
+                cut = true;
+            }
+            if (resume) {
+                res.gantt.extendLast(end);
+            } else {
+                res.gantt.add(timelineProc[p], time, end, tag);
+            }
+            lastProc = p;
+            lastEnd = end;
+            lastTag = tag;
+            // a slice cut at a timed event (an MLFQ boost) is not continued by the next one,
+            // which starts a fresh quantum
+            lastCut = cut && event != end;
+            remaining[p] -= end - time;
+            time = end;
+
+            // processes that arrived during the slice are ready before p is handed back
+            while (next < n && arrival[order[next]] <= time) {
+                policy.onArrival(order[next++]);
+            }
+            if (remaining[p] == 0) {
+                ProcessModel m = input.get(p).copy();
+                m.remaining = 0;
+                m.startTime = startTime[p];
+                m.completionTime = time;
+                m.turnaroundTime = time - m.arrival;
+                m.waitingTime = m.turnaroundTime - m.burst;
+                res.processes.add(m);
+                completionOrder[completed++] = p;
+            } else if (cut) {
+                policy.onPreempted(p);
+            } else {
+                policy.onQuantumExpiry(p);
+            }
+        }
+        monitor.report(events, time);
+        return res;
+    }
+
+    // Copies prev's slices and completed processes up to cp into res (with this input's
+    // PIDs and colors) and restores the ready processes' state.
+    // prev interned each input row at its own index, so its table can be copied as is
+    private static boolean sameProcessTable(Run prev) {
+        int[] procs = prev.timelineProc;
+        for (int i = 0; i < procs.length; i++) {
+            if (procs[i] != i) return false;
+        }
+        return prev.result.gantt.getClass() == Timeline.class || prev.result.gantt instanceof OffHeapTimeline;
+    }
+
+    private void restore(Run prev, Checkpoint cp, Scheduler.Result res) {
+        Timeline from = prev.result.gantt;
+        int[] remap = new int[from.processCount()];
+        Arrays.fill(remap, -1);
+        for (int i = 0; i < prev.timelineProc.length; i++) remap[prev.timelineProc[i]] = timelineProc[i];
+        if (cp.overhead) {
+            overheadProc = res.gantt.addOverheadProcess();
+            remap[prev.overheadProc] = overheadProc;
+        }
+        for (int k = 0; k < cp.slices; k++) {
+            // the last slice may have been extended after the checkpoint
+            int end = k == cp.slices - 1 ? cp.lastEnd : from.end(k);
+            res.gantt.add(remap[from.proc(k)], from.start(k), end, from.tag(k));
+        }
+        for (int k = 0; k < cp.completed; k++) {
+            int p = prev.completionOrder[k];
+            ProcessModel done = prev.result.processes.get(k);
+            ProcessModel m = input.get(p).copy();
+            m.remaining = 0;
+            m.startTime = done.startTime;
+            m.completionTime = done.completionTime;
+            m.turnaroundTime = done.turnaroundTime;
+            m.waitingTime = done.waitingTime;
+            res.processes.add(m);
+            completionOrder[k] = p;
+            remaining[p] = 0;
+            startTime[p] = done.startTime;
+        }
+        for (int k = 0; k < cp.ready.length; k++) {
+            remaining[cp.ready[k]] = cp.readyRemaining[k];
+            startTime[cp.ready[k]] = cp.readyStart[k];
+        }
+    }
+}
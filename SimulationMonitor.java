@@ -0,0 +1,47 @@
+// SimulationMonitor.java
+// Cancellation token and progress sink shared between a running simulation and the
+// thread that started it. Scheduler loops call tick() once per event; the volatile
+// fields are only touched every CHECK_INTERVAL events so the hot path stays cheap.
+
+import java.util.concurrent.CancellationException;
+
+public class SimulationMonitor {
+    // for callers that neither cancel nor watch progress
+    public static final SimulationMonitor NONE = new SimulationMonitor();
+
+    private static final int CHECK_INTERVAL = 1 << 12;
+
+    private volatile boolean cancelled;
+    private volatile long events;
+    private volatile long simulatedTime;
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    // events (dispatches, slices) processed so far, as of the last report
+    public long events() {
+        return events;
+    }
+
+    // simulated clock, as of the last report
+    public long simulatedTime() {
+        return simulatedTime;
+    }
+
+    // throws CancellationException once cancel() has been called
+    public void tick(long events, long time) {
+        if ((events & (CHECK_INTERVAL - 1)) != 0) return;
+        report(events, time);
+        if (cancelled) throw new CancellationException("simulation cancelled");
+    }
+
+    public void report(long events, long time) {
+        this.events = events;
+        this.simulatedTime = time;
+    }
+}
@@ -0,0 +1,33 @@
+// SjfPolicy.java
+// Shortest Job First (non-preemptive).
+// tie-break: earlier arrival, then input order
+
+public class SjfPolicy implements SchedulingPolicy {
+    private IndexedHeap ready;
+
+    @Override public String name() { return "SJF (Non-preemptive)"; }
+    @Override public String id() { return "sjf"; }
+
+    @Override
+    public void reset(SimulationKernel kernel) {
+        int[] burst = kernel.bursts();
+        int[] arrival = kernel.arrivals();
+        ready = new IndexedHeap(kernel.processCount(), (a, b) -> burst[a] != burst[b] ? burst[a] < burst[b]
+                : arrival[a] != arrival[b] ? arrival[a] < arrival[b] : a < b);
+    }
+
+    @Override
+    public void onArrival(int p) {
+        ready.add(p);
+    }
+
+    @Override
+    public int pickNext() {
+        return ready.isEmpty() ? -1 : ready.poll();
+    }
+
+    @Override
+    public int[] readySet() {
+        return ready.toArray();
+    }
+}
@@ -0,0 +1,66 @@
+// SmpDialog.java
+// Result of a multi-CPU run: per-CPU busy time and utilization on top, the overall metrics
+// below them and one Gantt lane per CPU, all drawn at the same scale so the lanes line up.
+
+import javax.swing.*;
+import javax.swing.table.DefaultTableModel;
+import java.awt.*;
+import java.util.Map;
+
+public class SmpDialog extends JDialog {
+
+    public SmpDialog(Frame owner, String title, SmpSimulator.Result res) {
+        super(owner, title, false);
+        setSize(1000, 700);
+
+        String[] cols = {"CPU", "Busy", "Utilization", "Slices"};
+        DefaultTableModel model = new DefaultTableModel(cols, 0) {
+            @Override public boolean isCellEditable(int row, int col) {
+                return false;
+            }
+        };
+        for (int c = 0; c < res.cpus(); c++) {
+            model.addRow(new Object[] {
+                    "CPU " + c,
+                    res.busy[c],
+                    String.format("%.1f%%", 100 * res.utilization(c)),
+                    res.lanes[c].size()});
+        }
+        JTable table = new JTable(model);
+        table.setRowHeight(22);
+        JScrollPane tableScroll = new JScrollPane(table);
+        tableScroll.setPreferredSize(new Dimension(980, 22 * (Math.min(res.cpus(), 8) + 2)));
+
+        Map<String, Double> m = SmpSimulator.computeMetrics(res);
+        JLabel summary = new JLabel(String.format(
+                "Avg waiting %.2f (p95 %.0f)   Avg turnaround %.2f   Avg response %.2f   Makespan %.0f   Utilization %.1f%%"
+                        + "   Throughput %.4f   Context switches %.0f   Migrations %.0f",
+                m.get("avgWaiting"), m.get("p95Waiting"), m.get("avgTurnaround"), m.get("avgResponse"), m.get("totalTime"),
+                100 * m.get("utilization"), m.get("throughput"), m.get("contextSwitches"), m.get("migrations")));
+
+        // stacked lanes share one scale, fitted to the makespan
+        double scale = Math.min(30, 800.0 / Math.max(1, res.makespan()));
+        JPanel lanes = new JPanel();
+        lanes.setLayout(new BoxLayout(lanes, BoxLayout.Y_AXIS));
+        for (int c = 0; c < res.cpus(); c++) {
+            GanttPanel lane = new GanttPanel();
+            lane.setTitle(String.format("CPU %d (%.1f%% busy)", c, 100 * res.utilization(c)));
+            lane.setGantt(res.lanes[c]);
+            lane.setScale(scale);
+            lanes.add(lane);
+        }
+        JScrollPane laneScroll = new JScrollPane(lanes);
+        laneScroll.getVerticalScrollBar().setUnitIncrement(16);
+
+        JPanel top = new JPanel(new BorderLayout(4, 4));
+        top.add(tableScroll, BorderLayout.CENTER);
+        top.add(summary, BorderLayout.SOUTH);
+
+        JPanel content = new JPanel(new BorderLayout(8, 8));
+        content.setBorder(BorderFactory.createEmptyBorder(8, 8, 8, 8));
+        content.add(top, BorderLayout.NORTH);
+        content.add(laneScroll, BorderLayout.CENTER);
+        setContentPane(content);
+        setLocationRelativeTo(owner);
+    }
+}
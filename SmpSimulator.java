@@ -0,0 +1,372 @@
+// SmpSimulator.java
+// Multi-CPU version of the SimulationKernel loop. `cpus` simulated processors run the same
+// SchedulingPolicy, either as one global ready queue shared by every CPU or as one queue per
+// CPU. With per-CPU queues an arriving process goes to its affinity CPU when it names one
+// (ProcessModel.affinity), otherwise to the least-loaded CPU (BALANCED) or round robin by
+// input position (STATIC). With work stealing, an idle CPU whose own queue is empty takes the
+// next process of the longest other queue. A stolen process only migrates to the thief's
+// CPU, not its queue: when the slice ends it goes back to the queue it was picked from,
+// whose policy instance holds its state (e.g. its MLFQ level and quantum used). Affinity is
+// only a hint: the global queue ignores it and stealing may move a process away from its
+// CPU. Each CPU gets its own Gantt lane.
+//
+// With preemptive policies an arrival cuts the running slices of the CPUs served by the
+// queue it joins (every CPU for the global queue), once those slices have started. With one
+// CPU the schedule is exactly that of the single-CPU kernel.
+//
+// STATIC placement without stealing leaves the CPUs independent of each other, so their
+// partitions are simulated as separate kernels in parallel on the fork-join pool.
+
+import java.util.*;
+import java.util.concurrent.*;
+
+public class SmpSimulator {
+
+    public enum Queues { GLOBAL, BALANCED, STATIC }
+
+    public static class Result {
+        public Timeline[] lanes;                                 // one per CPU
+        public List<ProcessModel> processes = new ArrayList<>(); // in completion order
+        public long[] busy;                                      // time units each CPU ran
+        public long migrations; // slices run on another CPU than the process's previous slice
+
+        public int cpus() {
+            return lanes.length;
+        }
+
+        public int makespan() {
+            int end = 0;
+            for (Timeline lane : lanes) end = Math.max(end, lane.endTime());
+            return end;
+        }
+
+        public double utilization(int cpu) {
+            int makespan = makespan();
+            return makespan == 0 ? 0 : (double) busy[cpu] / makespan;
+        }
+    }
+
+    public static Result run(String algo, List<ProcessModel> input, SimulationConfig config) {
+        if (config.cpus < 1) throw new IllegalArgumentException("At least one CPU is required");
+        if (config.queues == Queues.STATIC && !config.workStealing && config.cpus > 1) {
+            return runPartitioned(algo, input, config);
+        }
+        return simulate(algo, input, config);
+    }
+
+    // Scheduler.computeMetrics over all lanes; utilization is the busy share of cpus x makespan
+    public static Map<String, Double> computeMetrics(Result res) {
+        Map<String, Double> m = new HashMap<>();
+        ProcessStats.of(res.processes).putMetrics(m);
+        long switches = 0;
+        long overhead = 0;
+        long busy = 0;
+        for (int c = 0; c < res.cpus(); c++) {
+            long[] lane = Scheduler.laneTotals(res.lanes[c]);
+            switches += lane[0];
+            overhead += lane[1];
+            busy += res.busy[c];
+        }
+        double makespan = res.makespan();
+        m.put("totalTime", makespan);
+        m.put("contextSwitches", (double) switches);
+        m.put("overheadTime", (double) overhead);
+        m.put("utilization", makespan == 0 ? 0.0 : busy / (makespan * res.cpus()));
+        m.put("throughput", makespan == 0 ? 0.0 : res.processes.size() / makespan);
+        m.put("migrations", (double) res.migrations);
+        return m;
+    }
+
+    // CPU an input position is bound to under STATIC placement
+    private static int staticCpu(ProcessModel p, int index, int cpus) {
+        return p.affinity >= 0 && p.affinity < cpus ? p.affinity : index % cpus;
+    }
+
+    private static Result runPartitioned(String algo, List<ProcessModel> input, SimulationConfig config) {
+        int cpus = config.cpus;
+        List<List<ProcessModel>> parts = new ArrayList<>();
+        for (int c = 0; c < cpus; c++) parts.add(new ArrayList<>());
+        for (int i = 0; i < input.size(); i++) {
+            ProcessModel p = input.get(i);
+            parts.get(staticCpu(p, i, cpus)).add(p);
+        }
+        List<Callable<Scheduler.Result>> tasks = new ArrayList<>();
+        for (List<ProcessModel> part : parts) {
+            tasks.add(() -> SimulationKernel.run(part, SchedulingPolicies.create(algo), config));
+        }
+
+        Result res = new Result();
+        res.lanes = new Timeline[cpus];
+        res.busy = new long[cpus];
+        try {
+            List<Future<Scheduler.Result>> done = ForkJoinPool.commonPool().invokeAll(tasks);
+            for (int c = 0; c < cpus; c++) {
+                Scheduler.Result r = done.get(c).get();
+                res.lanes[c] = r.gantt;
+                for (ProcessModel p : parts.get(c)) res.busy[c] += p.burst;
+                res.processes.addAll(r.processes);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("simulation interrupted");
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            throw new IllegalStateException(cause);
+        }
+        // stable, so simultaneous completions stay in CPU order as in the sequential loop
+        res.processes.sort(Comparator.comparingInt(p -> p.completionTime));
+        return res;
+    }
+
+    private final String algo;
+    private final List<ProcessModel> input;
+    private final SimulationConfig config;
+    private final int cpus;
+    private final int n;
+    private final boolean global;
+    private final boolean stealing;
+    private final boolean preemptive;
+    private final int switchCost;
+    private final int latency;
+    private final SchedulingPolicy[] queues;
+    private final int[] queued; // processes waiting in each queue
+    private int totalQueued;
+    private final int[] arrival;
+    private final int[] remaining;
+    private final int[] startTime;
+    private final int[] lastCpu;
+    private final int[][] laneProcs; // per lane and process, its table entry; -1 until it runs there
+    private final int[] running;  // per CPU, -1 when idle
+    private final int[] pickedFrom; // per CPU, queue the running process was picked from
+    private final int[] sliceStart;
+    private final int[] sliceEnd;
+    private final boolean[] sliceCut;
+    private final boolean[] lastCut; // slice may be continued: cut by an arrival, not a timed event
+    private final int[] lastProc;
+    private final int[] lastEnd;
+    private final int[] lastTag;
+    private final int[] overheadProc; // per lane, -1 until the first overhead slice
+    private final IndexedHeap busyCpus; // running CPUs by slice end
+    private final int[] order;
+    private int next;
+    private int time;
+    private final Result res = new Result();
+
+    private SmpSimulator(String algo, List<ProcessModel> input, SimulationConfig config) {
+        this.algo = algo;
+        this.input = input;
+        this.config = config;
+        this.cpus = config.cpus;
+        this.n = input.size();
+        // one kernel holds the process columns that every queue's policy reads
+        SimulationKernel kernel = new SimulationKernel(input, config);
+        this.arrival = kernel.arrivals();
+        this.remaining = kernel.remaining();
+        this.global = config.queues == Queues.GLOBAL;
+        int queueCount = global ? 1 : cpus;
+        this.queues = new SchedulingPolicy[queueCount];
+        for (int q = 0; q < queueCount; q++) {
+            queues[q] = SchedulingPolicies.create(algo);
+            queues[q].reset(kernel);
+        }
+        this.stealing = config.workStealing && queueCount > 1;
+        this.preemptive = queues[0].preemptive();
+        this.switchCost = Math.max(0, config.switchCost);
+        this.latency = Math.max(0, config.dispatchLatency);
+        this.queued = new int[queueCount];
+        this.startTime = new int[n];
+        this.lastCpu = new int[n];
+        Arrays.fill(startTime, -1);
+        Arrays.fill(lastCpu, -1);
+        this.laneProcs = new int[cpus][n];
+        for (int[] procs : laneProcs) Arrays.fill(procs, -1);
+        this.running = new int[cpus];
+        this.pickedFrom = new int[cpus];
+        this.sliceStart = new int[cpus];
+        this.sliceEnd = new int[cpus];
+        this.sliceCut = new boolean[cpus];
+        this.lastCut = new boolean[cpus];
+        this.lastProc = new int[cpus];
+        this.lastEnd = new int[cpus];
+        this.lastTag = new int[cpus];
+        this.overheadProc = new int[cpus];
+        Arrays.fill(overheadProc, -1);
+        Arrays.fill(running, -1);
+        Arrays.fill(lastProc, -1);
+        this.busyCpus = new IndexedHeap(cpus,
+                (a, b) -> sliceEnd[a] < sliceEnd[b] || (sliceEnd[a] == sliceEnd[b] && a < b));
+        this.order = Scheduler.indicesByArrival(arrival);
+        res.lanes = new Timeline[cpus];
+        res.busy = new long[cpus];
+        for (int c = 0; c < cpus; c++) res.lanes[c] = new Timeline();
+    }
+
+    // the shared event loop for every layout; run() splits STATIC without stealing into kernels
+    static Result simulate(String algo, List<ProcessModel> input, SimulationConfig config) {
+        return new SmpSimulator(algo, input, config).loop();
+    }
+
+    private Result loop() {
+        SimulationMonitor monitor = config.monitor;
+        long events = 0;
+        int completed = 0;
+
+        while (completed < n) {
+            monitor.tick(++events, time);
+            while (next < n && arrival[order[next]] <= time) {
+                int p = order[next++];
+                int q = global ? 0 : placement(input.get(p), p);
+                queues[q].onArrival(p);
+                queued[q]++;
+                totalQueued++;
+                if (preemptive) {
+                    if (!global) preempt(q);
+                    else for (int c = 0; c < cpus; c++) preempt(c);
+                }
+            }
+            // idle CPUs take new work first, then each CPU whose slice ended hands its process
+            // back and picks again (so a preempted process keeps its CPU unless something
+            // better is waiting), then CPUs left idle take whatever is still queued
+            dispatchIdle();
+            while (!busyCpus.isEmpty() && sliceEnd[busyCpus.peek()] == time) {
+                int c = busyCpus.poll();
+                int p = running[c];
+                running[c] = -1;
+                if (remaining[p] == 0) {
+                    ProcessModel m = input.get(p).copy();
+                    m.remaining = 0;
+                    m.startTime = startTime[p];
+                    m.completionTime = time;
+                    m.turnaroundTime = time - m.arrival;
+                    m.waitingTime = m.turnaroundTime - m.burst;
+                    res.processes.add(m);
+                    completed++;
+                } else {
+                    int q = pickedFrom[c];
+                    if (sliceCut[c]) queues[q].onPreempted(p);
+                    else queues[q].onQuantumExpiry(p);
+                    queued[q]++;
+                    totalQueued++;
+                }
+                dispatch(c);
+            }
+            dispatchIdle();
+
+            if (busyCpus.isEmpty()) {
+                if (completed == n) break;
+                if (next == n) {
+                    throw new IllegalStateException(algo + " left " + (n - completed) + " processes unscheduled");
+                }
+                // every CPU idle: jump straight to the next arrival
+                time = arrival[order[next]];
+            } else {
+                time = sliceEnd[busyCpus.peek()];
+                if (next < n) time = Math.min(time, arrival[order[next]]);
+            }
+        }
+        monitor.report(events, time);
+        return res;
+    }
+
+    private void dispatchIdle() {
+        for (int c = 0; c < cpus && totalQueued > 0; c++) {
+            if (running[c] < 0) dispatch(c);
+        }
+    }
+
+    // ends CPU c's slice now so its policy can reconsider; a slice still in its switch
+    // overhead is left alone
+    private void preempt(int c) {
+        if (running[c] < 0 || sliceStart[c] >= time || sliceEnd[c] <= time) return;
+        int unused = sliceEnd[c] - time;
+        remaining[running[c]] += unused;
+        res.busy[c] -= unused;
+        res.lanes[c].extendLast(time);
+        sliceEnd[c] = time;
+        lastEnd[c] = time;
+        sliceCut[c] = true;
+        lastCut[c] = true;
+        busyCpus.decreaseKey(c);
+    }
+
+    // starts the next slice on idle CPU c, stealing when its own queue is empty
+    private void dispatch(int c) {
+        int q = global ? 0 : c;
+        if (queued[q] == 0 && stealing) q = longestQueue();
+        if (queued[q] == 0) return;
+        queues[q].advanceClock(time);
+        int p = queues[q].pickNext();
+        if (p < 0) throw new IllegalStateException(algo + " lost a queued process");
+        queued[q]--;
+        totalQueued--;
+        pickedFrom[c] = q;
+        if (lastCpu[p] >= 0 && lastCpu[p] != c) res.migrations++;
+        lastCpu[p] = c;
+
+        int tag = queues[q].tag(p);
+        Timeline lane = res.lanes[c];
+        boolean resume = p == lastProc[c] && lastCut[c] && lastEnd[c] == time && tag == lastTag[c];
+        int start = time;
+        int overhead = resume ? 0 : latency + (lastProc[c] >= 0 && lastProc[c] != p ? switchCost : 0);
+        if (overhead > 0) {
+            if (overheadProc[c] < 0) overheadProc[c] = lane.addOverheadProcess();
+            lane.add(overheadProc[c], start, start + overhead);
+            start += overhead;
+        }
+        if (startTime[p] == -1) startTime[p] = start;
+
+        int end = start + Math.min(remaining[p], Math.max(1, queues[q].timeSlice(p)));
+        boolean cut = false;
+        int event = queues[q].nextEventTime();
+        if (event > start && event < end) {
+            end = event;
+            cut = true;
+        }
+        if (resume) {
+            lane.extendLast(end);
+        } else {
+            // one entry per input row in each lane it runs on, so rows sharing a PID keep their colors
+            if (laneProcs[c][p] < 0) {
+                ProcessModel m = input.get(p);
+                laneProcs[c][p] = lane.addProcessRow(m.pid, m.color);
+            }
+            lane.add(laneProcs[c][p], start, end, tag);
+        }
+        lastProc[c] = p;
+        lastEnd[c] = end;
+        lastTag[c] = tag;
+        sliceCut[c] = cut;
+        lastCut[c] = cut && event != end;
+        remaining[p] -= end - start;
+        res.busy[c] += end - start;
+        running[c] = p;
+        sliceStart[c] = start;
+        sliceEnd[c] = end;
+        busyCpus.add(c);
+    }
+
+    // per-CPU queue an arriving process joins
+    private int placement(ProcessModel p, int index) {
+        if (config.queues == Queues.STATIC) return staticCpu(p, index, cpus);
+        if (p.affinity >= 0 && p.affinity < cpus) return p.affinity;
+        int best = 0;
+        int bestLoad = Integer.MAX_VALUE;
+        for (int c = 0; c < cpus; c++) {
+            int load = queued[c] + (running[c] >= 0 ? 1 : 0);
+            if (load < bestLoad) {
+                best = c;
+                bestLoad = load;
+            }
+        }
+        return best;
+    }
+
+    private int longestQueue() {
+        int best = 0;
+        for (int q = 1; q < queued.length; q++) {
+            if (queued[q] > queued[best]) best = q;
+        }
+        return best;
+    }
+}
@@ -0,0 +1,34 @@
+// SrtfPolicy.java
+// Shortest Remaining Time First (preemptive SJF): every arrival may take the CPU.
+// tie-break: earlier arrival, then input order
+
+public class SrtfPolicy implements SchedulingPolicy {
+    private IndexedHeap ready;
+
+    @Override public String name() { return "SRTF (Preemptive)"; }
+    @Override public String id() { return "srtf"; }
+    @Override public boolean preemptive() { return true; }
+
+    @Override
+    public void reset(SimulationKernel kernel) {
+        int[] remaining = kernel.remaining();
+        int[] arrival = kernel.arrivals();
+        ready = new IndexedHeap(kernel.processCount(), (a, b) -> remaining[a] != remaining[b] ? remaining[a] < remaining[b]
+                : arrival[a] != arrival[b] ? arrival[a] < arrival[b] : a < b);
+    }
+
+    @Override
+    public void onArrival(int p) {
+        ready.add(p);
+    }
+
+    @Override
+    public int pickNext() {
+        return ready.isEmpty() ? -1 : ready.poll();
+    }
+
+    @Override
+    public int[] readySet() {
+        return ready.toArray();
+    }
+}
@@ -0,0 +1,285 @@
+// Timeline.java
+// Compact Gantt timeline: slices are stored in packed int columns (start, end, process
+// index) into a separate process table of PIDs and colors. Simulations add one table entry
+// per input row, so rows sharing a PID keep their own colors; a PID looks up its first entry.
+// Slices are appended in time order, so lookups by time are binary searches. A slice may
+// carry a small tag (e.g. the MLFQ level it ran at); the tag column is only allocated once
+// the first tagged slice is added.
+// Subclasses may keep the slice columns elsewhere (OffHeapTimeline, MappedTimeline) by
+// overriding the slice accessors; lookups and iteration only go through those.
+
+import java.awt.Color;
+import java.util.*;
+
+public class Timeline implements Iterable<Scheduler.GanttEntry> {
+    // process table, shared with range views
+    private final Table table;
+
+    private int[] starts;
+    private int[] ends;
+    private int[] procs;
+    private int[] tags; // null while no slice is tagged
+    private final int offset; // first slice of a range view
+    private int size;
+    private final boolean view;
+
+    private static class Table {
+        String[] pids = new String[8];
+        Color[] colors = new Color[8];
+        int count;
+        final Map<String, Integer> index = new HashMap<>();
+        int overhead = -1; // entry of the overhead slices
+    }
+
+    public Timeline() {
+        this(16);
+    }
+
+    public Timeline(int capacity) {
+        capacity = Math.max(1, capacity);
+        this.table = new Table();
+        this.starts = new int[capacity];
+        this.ends = new int[capacity];
+        this.procs = new int[capacity];
+        this.offset = 0;
+        this.view = false;
+    }
+
+    // for subclasses that keep their slices elsewhere: shares tableOwner's process table,
+    // or starts an empty one when it is null
+    protected Timeline(Timeline tableOwner) {
+        this.table = tableOwner == null ? new Table() : tableOwner.table;
+        this.starts = new int[0];
+        this.ends = new int[0];
+        this.procs = new int[0];
+        this.offset = 0;
+        this.view = true;
+    }
+
+    private Timeline(Timeline parent, int from, int to) {
+        this.table = parent.table;
+        this.starts = parent.starts;
+        this.ends = parent.ends;
+        this.procs = parent.procs;
+        this.tags = parent.tags;
+        this.offset = parent.offset + from;
+        this.size = to - from;
+        this.view = true;
+    }
+
+    // ---- process table ----
+
+    // returns the index of pid in the process table, adding it on first use
+    public int addProcess(String pid, Color color) {
+        Integer idx = table.index.get(pid);
+        if (idx != null) return idx;
+        return addProcessRow(pid, color);
+    }
+
+    // adds an entry for one process row even when its PID is already in the table
+    public int addProcessRow(String pid, Color color) {
+        if (table.count == table.pids.length) {
+            table.pids = Arrays.copyOf(table.pids, table.count * 2);
+            table.colors = Arrays.copyOf(table.colors, table.count * 2);
+        }
+        table.pids[table.count] = pid;
+        table.colors[table.count] = color;
+        table.index.putIfAbsent(pid, table.count);
+        return table.count++;
+    }
+
+    // The entry of the switch/dispatch overhead slices (Scheduler.OVERHEAD_PID), added on first
+    // use. Overhead is told apart by this entry, never by PID, so a process named like it is not
+    // mistaken for overhead.
+    public int addOverheadProcess() {
+        if (table.overhead < 0) table.overhead = addProcessRow(Scheduler.OVERHEAD_PID, Scheduler.OVERHEAD_COLOR);
+        return table.overhead;
+    }
+
+    // entry of the overhead slices, -1 when there are none
+    public int overheadProcess() {
+        return table.overhead;
+    }
+
+    // Fills this timeline's still empty process table with the first count entries of
+    // from's, in the same order; cheaper than adding a large table back one PID at a time.
+    public void copyProcesses(Timeline from, int count) {
+        if (table.count != 0) throw new IllegalStateException("process table is not empty");
+        Table src = from.table;
+        if (count > src.count) throw new IllegalArgumentException(count + " > " + src.count + " processes");
+        table.pids = Arrays.copyOf(src.pids, Math.max(8, count));
+        table.colors = Arrays.copyOf(src.colors, Math.max(8, count));
+        table.index.putAll(src.index);
+        for (int k = count; k < src.count; k++) table.index.remove(src.pids[k], k);
+        table.count = count;
+        table.overhead = src.overhead < count ? src.overhead : -1;
+    }
+
+    public void setProcessColor(int proc, Color color) {
+        table.colors[proc] = color;
+    }
+
+    // index of pid's first entry in the process table, -1 when absent
+    public int indexOf(String pid) {
+        Integer idx = table.index.get(pid);
+        return idx == null ? -1 : idx;
+    }
+
+    public int processCount() {
+        return table.count;
+    }
+
+    public String processPid(int proc) {
+        return table.pids[proc];
+    }
+
+    public Color processColor(int proc) {
+        return table.colors[proc];
+    }
+
+    // ---- slices ----
+
+    public void add(int proc, int start, int end) {
+        add(proc, start, end, -1);
+    }
+
+    // tag < 0 means untagged
+    public void add(int proc, int start, int end, int tag) {
+        if (view) throw new UnsupportedOperationException("range views are read-only");
+        if (size == starts.length) {
+            int cap = size + (size >> 1) + 1;
+            starts = Arrays.copyOf(starts, cap);
+            ends = Arrays.copyOf(ends, cap);
+            procs = Arrays.copyOf(procs, cap);
+            if (tags != null) tags = Arrays.copyOf(tags, cap);
+        }
+        if (tag >= 0 && tags == null) {
+            tags = new int[starts.length];
+            Arrays.fill(tags, 0, size, -1);
+        }
+        starts[size] = start;
+        ends[size] = end;
+        procs[size] = proc;
+        if (tags != null) tags[size] = tag;
+        size++;
+    }
+
+    // grows the last slice, used to merge back-to-back slices of the same process
+    public void extendLast(int end) {
+        if (view) throw new UnsupportedOperationException("range views are read-only");
+        ends[size - 1] = end;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public int start(int i) {
+        return starts[offset + i];
+    }
+
+    public int end(int i) {
+        return ends[offset + i];
+    }
+
+    public int proc(int i) {
+        return procs[offset + i];
+    }
+
+    public String pid(int i) {
+        return processPid(proc(i));
+    }
+
+    public Color color(int i) {
+        return processColor(proc(i));
+    }
+
+    // true for a switch/dispatch overhead slice
+    public boolean isOverhead(int i) {
+        return proc(i) == overheadProcess();
+    }
+
+    public boolean hasTags() {
+        return tags != null;
+    }
+
+    // tag of slice i, -1 when untagged
+    public int tag(int i) {
+        return tags == null ? -1 : tags[offset + i];
+    }
+
+    // false when the slice columns live outside the Java heap
+    public boolean onHeap() {
+        return true;
+    }
+
+    // Closes the files behind off-heap slice columns (nothing for heap timelines). Slices stay
+    // readable; the buffers themselves go when the timeline is garbage collected. Only for
+    // finished timelines: nothing may be added afterwards.
+    public void release() {
+    }
+
+    // end of the last slice, 0 when empty
+    public int endTime() {
+        int n = size();
+        return n == 0 ? 0 : end(n - 1);
+    }
+
+    public Scheduler.GanttEntry entry(int i) {
+        return new Scheduler.GanttEntry(pid(i), start(i), end(i), color(i));
+    }
+
+    // ---- lookups ----
+
+    // index of the first slice ending after time (size() if none)
+    public int firstEndingAfter(int time) {
+        int lo = 0, hi = size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (end(mid) <= time) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    // index of the first slice starting at or after time (size() if none)
+    public int firstStartingAtOrAfter(int time) {
+        int lo = 0, hi = size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (start(mid) < time) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    // index of the slice running at time, or -1 if the CPU is idle then
+    public int indexAt(int time) {
+        int i = firstEndingAfter(time);
+        return i < size() && start(i) <= time ? i : -1;
+    }
+
+    // read-only view of the slices overlapping [fromTime, toTime); shares storage with
+    // this timeline and does not see slices appended after it was taken
+    public Timeline range(int fromTime, int toTime) {
+        int from = firstEndingAfter(fromTime);
+        int to = Math.max(from, firstStartingAtOrAfter(toTime));
+        return new Timeline(this, from, to);
+    }
+
+    @Override
+    public Iterator<Scheduler.GanttEntry> iterator() {
+        return new Iterator<Scheduler.GanttEntry>() {
+            private int i = 0;
+            @Override public boolean hasNext() {
+                return i < size();
+            }
+            @Override public Scheduler.GanttEntry next() {
+                if (i >= size()) throw new NoSuchElementException();
+                return entry(i++);
+            }
+        };
+    }
+}
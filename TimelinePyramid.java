@@ -0,0 +1,132 @@
+// TimelinePyramid.java
+// Multi-resolution summary of a Timeline for zoomed-out views, in the spirit of a mipmap.
+// Level 0 splits the timeline into buckets of baseUnits time units; every further level
+// halves the bucket count. Each bucket records how many units the CPU was busy and the
+// dominant process (the one with the longest contribution seen while merging).
+// Levels become visible one by one while build() runs, so readers can start early.
+
+import java.util.Arrays;
+import java.util.function.BooleanSupplier;
+
+public class TimelinePyramid {
+    private static final int MAX_BASE_BUCKETS = 1 << 21;
+
+    private final Timeline timeline;
+    private final int baseUnits;
+    private final int[][] busy;
+    private final int[][] dom;      // timeline process index, -1 when idle
+    private final int[][] domUnits;
+    private volatile int levelsReady;
+
+    public TimelinePyramid(Timeline timeline) {
+        this.timeline = timeline;
+        long span = Math.max(1, timeline.endTime());
+        int units = 1;
+        while (span / units > MAX_BASE_BUCKETS) units <<= 1;
+        this.baseUnits = units;
+        int levels = 1;
+        for (long buckets = (span + units - 1) / units; buckets > 1; buckets = (buckets + 1) / 2) levels++;
+        busy = new int[levels][];
+        dom = new int[levels][];
+        domUnits = new int[levels][];
+    }
+
+    // Builds level 0 and then each coarser level, calling onLevel after each one is
+    // published; stops early when cancelled returns true.
+    public void build(BooleanSupplier cancelled, Runnable onLevel) {
+        int buckets = (int) ((Math.max(1, timeline.endTime()) + (long) baseUnits - 1) / baseUnits);
+        int[] b = new int[buckets];
+        int[] d = new int[buckets];
+        int[] du = new int[buckets];
+        Arrays.fill(d, -1);
+        for (int i = 0; i < timeline.size(); i++) {
+            if ((i & 0xFFFF) == 0 && cancelled.getAsBoolean()) return;
+            int proc = timeline.proc(i);
+            long s = timeline.start(i);
+            long e = timeline.end(i);
+            for (int k = (int) (s / baseUnits); k < buckets && (long) k * baseUnits < e; k++) {
+                long lo = Math.max(s, (long) k * baseUnits);
+                long hi = Math.min(e, (long) (k + 1) * baseUnits);
+                add(b, d, du, k, proc, (int) (hi - lo));
+            }
+        }
+        publish(0, b, d, du);
+        onLevel.run();
+
+        for (int level = 1; level < busy.length; level++) {
+            if (cancelled.getAsBoolean()) return;
+            int[] pb = busy[level - 1], pd = dom[level - 1], pdu = domUnits[level - 1];
+            int n = (pb.length + 1) / 2;
+            b = new int[n];
+            d = new int[n];
+            du = new int[n];
+            for (int k = 0; k < n; k++) {
+                d[k] = -1;
+                for (int c = 2 * k; c < Math.min(pb.length, 2 * k + 2); c++) {
+                    b[k] += pb[c];
+                    if (pd[c] >= 0) merge(d, du, k, pd[c], pdu[c]);
+                }
+            }
+            publish(level, b, d, du);
+            onLevel.run();
+        }
+    }
+
+    private static void add(int[] b, int[] d, int[] du, int k, int proc, int units) {
+        b[k] += units;
+        merge(d, du, k, proc, units);
+    }
+
+    private static void merge(int[] d, int[] du, int k, int proc, int units) {
+        if (d[k] == proc) {
+            du[k] += units;
+        } else if (units > du[k]) {
+            d[k] = proc;
+            du[k] = units;
+        }
+    }
+
+    private void publish(int level, int[] b, int[] d, int[] du) {
+        busy[level] = b;
+        dom[level] = d;
+        domUnits[level] = du;
+        levelsReady = level + 1; // volatile write publishes the arrays above
+    }
+
+    public boolean isReady() {
+        return levelsReady > 0;
+    }
+
+    public int levelsReady() {
+        return levelsReady;
+    }
+
+    // bucket size in time units of a level
+    public long bucketUnits(int level) {
+        return (long) baseUnits << level;
+    }
+
+    // coarsest ready level whose buckets are no wider than unitsPerPixel
+    public int levelFor(double unitsPerPixel) {
+        int ready = levelsReady;
+        int level = 0;
+        while (level + 1 < ready && bucketUnits(level + 1) <= unitsPerPixel) level++;
+        return level;
+    }
+
+    public int bucketCount(int level) {
+        return busy[level].length;
+    }
+
+    public int busy(int level, int k) {
+        return busy[level][k];
+    }
+
+    public int dominant(int level, int k) {
+        return dom[level][k];
+    }
+
+    public int dominantUnits(int level, int k) {
+        return domUnits[level][k];
+    }
+}
@@ -0,0 +1,269 @@
+// WorkloadGenerator.java
+// Seeded synthetic process sets of any size. Processes are produced lazily by iterator(), so
+// even 100M-process workloads can be streamed without being materialized; the same seed and
+// settings always give the same processes. Arrivals, bursts and priorities draw from
+// independent random streams, so changing e.g. the burst model leaves the arrivals untouched.
+//
+//   arrivals   POISSON  exponential gaps at arrivalRate per time unit
+//              BURSTY   on/off source: Poisson at arrivalRate during on periods, silent during
+//                       off periods (both exponentially distributed, means onTime/offTime)
+//              TRACE    replays recorded arrival times (traceArrivals), repeating the trace
+//                       shifted past its end when more processes are requested
+//   bursts     EXPONENTIAL (meanBurst), PARETO (heavy tail with shape paretoShape, same mean)
+//              or BIMODAL (shortBurst / longBurst, longFraction of them long), capped at maxBurst
+//   priorities UNIFORM over 0..priorityLevels-1, or WEIGHTED by priorityWeights (default:
+//              each level half as likely as the one before)
+
+import java.util.*;
+
+public class WorkloadGenerator implements Iterable<ProcessModel> {
+
+    public enum ArrivalModel { POISSON, BURSTY, TRACE }
+    public enum BurstModel { EXPONENTIAL, PARETO, BIMODAL }
+    public enum PriorityModel { UNIFORM, WEIGHTED }
+
+    public long count = 1000;
+    public long seed = 1;
+
+    public ArrivalModel arrivals = ArrivalModel.POISSON;
+    public double arrivalRate = 0.1;
+    public double onTime = 100;
+    public double offTime = 1000;
+    public int[] traceArrivals;
+
+    public BurstModel bursts = BurstModel.EXPONENTIAL;
+    public double meanBurst = 10;
+    public double paretoShape = 1.5;
+    public int shortBurst = 2;
+    public int longBurst = 50;
+    public double longFraction = 0.1;
+    public int maxBurst = 1_000_000;
+
+    public PriorityModel priorities = PriorityModel.UNIFORM;
+    public int priorityLevels = 10;
+    public double[] priorityWeights;
+
+    // Parses "key=value,key=value" settings, e.g.
+    // "count=1000000,seed=7,arrivals=bursty,rate=0.5,bursts=pareto,mean=10".
+    public static WorkloadGenerator fromSpec(String spec) {
+        WorkloadGenerator g = new WorkloadGenerator();
+        for (String part : spec.split(",")) {
+            part = part.trim();
+            if (part.isEmpty()) continue;
+            int eq = part.indexOf('=');
+            if (eq < 0) throw new IllegalArgumentException("Expected key=value in workload spec: " + part);
+            String key = part.substring(0, eq).trim().toLowerCase(Locale.ROOT);
+            String value = part.substring(eq + 1).trim();
+            try {
+                switch (key) {
+                    case "count": g.count = Long.parseLong(value); break;
+                    case "seed": g.seed = Long.parseLong(value); break;
+                    case "arrivals": g.arrivals = ArrivalModel.valueOf(value.toUpperCase(Locale.ROOT)); break;
+                    case "rate": g.arrivalRate = Double.parseDouble(value); break;
+                    case "on": g.onTime = Double.parseDouble(value); break;
+                    case "off": g.offTime = Double.parseDouble(value); break;
+                    case "bursts": g.bursts = BurstModel.valueOf(value.toUpperCase(Locale.ROOT)); break;
+                    case "mean": g.meanBurst = Double.parseDouble(value); break;
+                    case "shape": g.paretoShape = Double.parseDouble(value); break;
+                    case "short": g.shortBurst = Integer.parseInt(value); break;
+                    case "long": g.longBurst = Integer.parseInt(value); break;
+                    case "longfraction": g.longFraction = Double.parseDouble(value); break;
+                    case "maxburst": g.maxBurst = Integer.parseInt(value); break;
+                    case "priorities": g.priorities = PriorityModel.valueOf(value.toUpperCase(Locale.ROOT)); break;
+                    case "levels": g.priorityLevels = Integer.parseInt(value); break;
+                    case "weights": g.priorityWeights = parseWeights(value); break;
+                    default: throw new IllegalArgumentException("Unknown workload setting: " + key);
+                }
+            } catch (NumberFormatException ex) {
+                throw new IllegalArgumentException("Invalid value for " + key + ": " + value);
+            }
+        }
+        g.validate();
+        return g;
+    }
+
+    // weights are separated by ':' because ',' separates settings
+    private static double[] parseWeights(String value) {
+        String[] parts = value.split(":");
+        double[] w = new double[parts.length];
+        for (int i = 0; i < parts.length; i++) w[i] = Double.parseDouble(parts[i].trim());
+        return w;
+    }
+
+    // Arrival times of a recorded workload, e.g. one loaded with CsvImporter, for TRACE.
+    public static int[] traceOf(ProcessTable table) {
+        int[] arrivals = new int[table.size()];
+        for (int i = 0; i < arrivals.length; i++) arrivals[i] = table.arrival(i);
+        Arrays.sort(arrivals);
+        return arrivals;
+    }
+
+    public void validate() {
+        if (count < 0) throw new IllegalArgumentException("count must not be negative");
+        if (arrivals != ArrivalModel.TRACE && !(arrivalRate > 0)) throw new IllegalArgumentException("rate must be positive");
+        if (arrivals == ArrivalModel.BURSTY && (!(onTime > 0) || offTime < 0)) {
+            throw new IllegalArgumentException("on must be positive and off not negative");
+        }
+        if (arrivals == ArrivalModel.TRACE && (traceArrivals == null || traceArrivals.length == 0)) {
+            throw new IllegalArgumentException("TRACE arrivals need a non-empty trace");
+        }
+        if (!(meanBurst >= 1) || maxBurst < 1) throw new IllegalArgumentException("bursts must be at least 1");
+        if (bursts == BurstModel.PARETO && !(paretoShape > 1)) throw new IllegalArgumentException("shape must be > 1");
+        if (bursts == BurstModel.BIMODAL && (shortBurst < 1 || longBurst < 1 || longFraction < 0 || longFraction > 1)) {
+            throw new IllegalArgumentException("invalid bimodal burst settings");
+        }
+        if (priorityLevels < 1) throw new IllegalArgumentException("levels must be at least 1");
+        if (priorities == PriorityModel.WEIGHTED && priorityWeights != null) cumulative(priorityWeights);
+    }
+
+    @Override
+    public Iterator<ProcessModel> iterator() {
+        validate();
+        return new Source();
+    }
+
+    // Materializes the workload in columnar form (colors left unset).
+    public ProcessTable toTable() {
+        if (count > Integer.MAX_VALUE) throw new IllegalArgumentException("Too many processes to hold in memory: " + count);
+        ProcessTable table = new ProcessTable((int) Math.max(16, count));
+        for (Source s = (Source) iterator(); s.hasNext(); ) {
+            s.advance();
+            table.add(s.pid(), s.arrival, s.burst, s.priority, -1);
+        }
+        return table;
+    }
+
+    public List<ProcessModel> toList() {
+        if (count > Integer.MAX_VALUE) throw new IllegalArgumentException("Too many processes to hold in memory: " + count);
+        List<ProcessModel> out = new ArrayList<>((int) count);
+        for (ProcessModel p : this) out.add(p);
+        return out;
+    }
+
+    private class Source implements Iterator<ProcessModel> {
+        private final SplittableRandom arrivalRng;
+        private final SplittableRandom burstRng;
+        private final SplittableRandom priorityRng;
+        private final double[] cumulativeWeights;
+        private final double paretoScale;
+        private long produced;
+        private double clock;
+        private double onUntil;
+        private long traceShift;
+        int arrival, burst, priority;
+
+        Source() {
+            SplittableRandom root = new SplittableRandom(seed);
+            arrivalRng = root.split();
+            burstRng = root.split();
+            priorityRng = root.split();
+            // x_m such that the Pareto mean alpha * x_m / (alpha - 1) equals meanBurst
+            paretoScale = meanBurst * (paretoShape - 1) / paretoShape;
+            cumulativeWeights = priorities == PriorityModel.WEIGHTED ? cumulative(weights()) : null;
+            onUntil = exponential(arrivalRng, onTime);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return produced < count;
+        }
+
+        @Override
+        public ProcessModel next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            advance();
+            return new ProcessModel(pid(), arrival, burst, priority, null);
+        }
+
+        String pid() {
+            return "P" + produced;
+        }
+
+        void advance() {
+            long t = nextArrival();
+            if (t > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Arrival times overflow after " + produced
+                        + " processes; use a higher arrival rate");
+            }
+            arrival = (int) t;
+            burst = nextBurst();
+            priority = nextPriority();
+            produced++;
+        }
+
+        private long nextArrival() {
+            switch (arrivals) {
+                case BURSTY:
+                    clock += exponential(arrivalRng, 1 / arrivalRate);
+                    while (clock > onUntil) {
+                        // the gap ran past the on period: skip the off period and start over
+                        // there (memoryless, so nothing is lost by redrawing)
+                        clock = onUntil + exponential(arrivalRng, offTime);
+                        onUntil = clock + exponential(arrivalRng, onTime);
+                        clock += exponential(arrivalRng, 1 / arrivalRate);
+                    }
+                    return (long) clock;
+                case TRACE: {
+                    int n = traceArrivals.length;
+                    int k = (int) (produced % n);
+                    if (k == 0 && produced > 0) {
+                        // repeat the trace, shifted so it starts one mean gap after the last arrival
+                        long span = (long) traceArrivals[n - 1] - traceArrivals[0];
+                        traceShift += span + Math.max(1, span / n);
+                    }
+                    return traceArrivals[k] + traceShift;
+                }
+                default:
+                    clock += exponential(arrivalRng, 1 / arrivalRate);
+                    return (long) clock;
+            }
+        }
+
+        private int nextBurst() {
+            double b;
+            switch (bursts) {
+                case PARETO:
+                    b = paretoScale / Math.pow(1 - burstRng.nextDouble(), 1 / paretoShape);
+                    break;
+                case BIMODAL: {
+                    int mode = burstRng.nextDouble() < longFraction ? longBurst : shortBurst;
+                    b = mode * (0.75 + 0.5 * burstRng.nextDouble());
+                    break;
+                }
+                default:
+                    b = exponential(burstRng, meanBurst);
+            }
+            return (int) Math.max(1, Math.min(maxBurst, Math.round(b)));
+        }
+
+        private int nextPriority() {
+            if (cumulativeWeights == null) return priorityRng.nextInt(priorityLevels);
+            double u = priorityRng.nextDouble() * cumulativeWeights[cumulativeWeights.length - 1];
+            int i = Arrays.binarySearch(cumulativeWeights, u);
+            return Math.min(cumulativeWeights.length - 1, i < 0 ? -i - 1 : i + 1);
+        }
+
+        private double[] weights() {
+            if (priorityWeights != null) return priorityWeights;
+            double[] w = new double[priorityLevels];
+            for (int i = 0; i < w.length; i++) w[i] = Math.pow(0.5, i);
+            return w;
+        }
+    }
+
+    private static double exponential(SplittableRandom rng, double mean) {
+        return -mean * Math.log(1 - rng.nextDouble());
+    }
+
+    private static double[] cumulative(double[] w) {
+        double[] c = new double[w.length];
+        double sum = 0;
+        for (int i = 0; i < w.length; i++) {
+            if (w[i] < 0) throw new IllegalArgumentException("priority weights must not be negative");
+            sum += w[i];
+            c[i] = sum;
+        }
+        if (!(sum > 0)) throw new IllegalArgumentException("priority weights must not all be zero");
+        return c;
+    }
+}
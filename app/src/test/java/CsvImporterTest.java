@@ -0,0 +1,103 @@
+// CsvImporterTest.java
+// Header detection, row validation and quoted PIDs of the mapped CSV import.
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.Color;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CsvImporterTest {
+    @TempDir
+    Path dir;
+
+    private ProcessTable load(String csv) throws Exception {
+        Path file = dir.resolve("processes.csv");
+        Files.write(file, csv.getBytes(StandardCharsets.UTF_8));
+        return CsvImporter.load(file);
+    }
+
+    @Test
+    void skipsOnlyARealHeader() throws Exception {
+        ProcessTable t = load("PID,Arrival,Burst,Priority,Color\nA,0,5,1,#ff0000\n");
+        assertEquals(1, t.size());
+        assertEquals("A", t.pid(0));
+
+        t = load("\uFEFF PID ,Arrival,Burst\r\nA,0,5\r\n");
+        assertEquals(1, t.size());
+
+        // a first row whose PID merely starts with "PID" is data
+        t = load("PID1,0,5\nB,5,3\n");
+        assertEquals(2, t.size());
+        assertEquals("PID1", t.pid(0));
+        assertEquals(5, t.burst(0));
+    }
+
+    @Test
+    void rejectsRowsTheFormWouldReject() {
+        ParseException ex = assertThrows(ParseException.class, () -> load("PID,Arrival,Burst\nA,0,2\nB,5,-3\n"));
+        assertEquals(24, ex.getErrorOffset()); // start of the B row
+        assertTrue(ex.getMessage().contains("burst"), ex.getMessage());
+
+        ex = assertThrows(ParseException.class, () -> load("A,-1,2\n"));
+        assertTrue(ex.getMessage().contains("arrival"), ex.getMessage());
+
+        assertThrows(ParseException.class, () -> load("A,0,0\n"));
+        assertThrows(ParseException.class, () -> load("A,0,x\n"));
+    }
+
+    @Test
+    void headerTokenIsTheWholeFirstField() {
+        assertTrue(CsvImporter.isHeader("PID,Arrival,Burst"));
+        assertTrue(CsvImporter.isHeader(" PID ,Arrival"));
+        assertFalse(CsvImporter.isHeader("PID1,0,5"));
+        assertFalse(CsvImporter.isHeader("PIDs,0,5"));
+    }
+
+    @Test
+    void exportedInputTableImportsUnchanged() throws Exception {
+        String[] pids = {"A", "B,x", "say \"hi\"", "\"", ",", " pad ", "P\u03c0"};
+        Path file = dir.resolve("export.csv");
+        try (ResultExporter out = ResultExporter.open(file, ResultExporter.Format.CSV, false)) {
+            out.inputHeader();
+            for (int i = 0; i < pids.length; i++) out.input(pids[i], i, i + 1, i % 3, i % 2 == 0 ? null : new Color(0x102030 * i));
+        }
+        ProcessTable t = CsvImporter.load(file);
+        assertEquals(pids.length, t.size());
+        for (int i = 0; i < pids.length; i++) {
+            // unquoted PIDs are trimmed, as the form trims them
+            assertEquals(pids[i].equals(" pad ") ? "pad" : pids[i], t.pid(i), "row " + i);
+            assertEquals(i, t.arrival(i));
+            assertEquals(i + 1, t.burst(i));
+            assertEquals(i % 3, t.priority(i));
+        }
+    }
+
+    @Test
+    void quotedPidsMustBeClosedOnTheirLine() {
+        ParseException ex = assertThrows(ParseException.class, () -> load("A,0,1\n\"B,0,5\n"));
+        assertEquals(6, ex.getErrorOffset());
+        assertTrue(ex.getMessage().contains("quoted PID"), ex.getMessage());
+        assertThrows(ParseException.class, () -> load("\"B\"x,0,5\n"));
+        assertThrows(ParseException.class, () -> load("\"B"));
+    }
+
+    @Test
+    void pidFieldOfALine() {
+        StringBuilder pid = new StringBuilder();
+        assertEquals(5, CsvImporter.pidField(" A b ,0,5", pid));
+        assertEquals("A b", pid.toString());
+
+        pid.setLength(0);
+        assertEquals(10, CsvImporter.pidField("\"B,\"\"x\"\"\" ,0,5", pid));
+        assertEquals("B,\"x\"", pid.toString());
+
+        assertEquals(-1, CsvImporter.pidField("\"B,0,5", new StringBuilder()));
+        assertEquals(-1, CsvImporter.pidField("\"B\"x,0,5", new StringBuilder()));
+        assertEquals(-1, CsvImporter.pidField("A", new StringBuilder()));
+    }
+}
@@ -0,0 +1,110 @@
+// LatencyHistogramTest.java
+// Bucket math at the exact/log-linear boundary and the top of the range, percentiles,
+// bins and merging.
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+
+    @Test
+    void valuesBelow256AreExact() {
+        LatencyHistogram h = new LatencyHistogram();
+        for (long v = 0; v < 256; v++) {
+            assertEquals(v, LatencyHistogram.bucketOf(v));
+            assertEquals(v, LatencyHistogram.lowest((int) v));
+            assertEquals(v, LatencyHistogram.highest((int) v));
+            h.record(255 - v);
+        }
+        assertEquals(256, h.count());
+        assertEquals(0, h.min());
+        assertEquals(255, h.max());
+        assertEquals(127.5, h.mean());
+        assertEquals(127, h.percentile(0.5));   // 128th of 256
+        assertEquals(243, h.percentile(0.95));  // ceil(243.2) = 244th
+        assertEquals(253, h.percentile(0.99));
+        assertEquals(255, h.percentile(1));
+        assertArrayEquals(new long[] {128, 128}, h.bins(2, 255));
+    }
+
+    @Test
+    void bucketEdges() {
+        assertEquals(255, LatencyHistogram.bucketOf(255));
+        assertEquals(256, LatencyHistogram.bucketOf(256));
+        assertEquals(256, LatencyHistogram.bucketOf(257));
+        assertEquals(383, LatencyHistogram.bucketOf(511));
+        assertEquals(384, LatencyHistogram.bucketOf(512));
+        assertEquals(256, LatencyHistogram.lowest(256));
+        assertEquals(257, LatencyHistogram.highest(256));
+        assertEquals(510, LatencyHistogram.lowest(383));
+        assertEquals(511, LatencyHistogram.highest(383));
+        assertEquals(512, LatencyHistogram.lowest(384));
+        assertEquals(515, LatencyHistogram.highest(384));
+
+        int top = LatencyHistogram.bucketOf(Long.MAX_VALUE);
+        assertEquals(Long.MAX_VALUE, LatencyHistogram.highest(top));
+        assertEquals(255L << 55, LatencyHistogram.lowest(top));
+        LatencyHistogram h = new LatencyHistogram();
+        h.record(Long.MAX_VALUE);
+        assertEquals(Long.MAX_VALUE, h.percentile(0.5));
+    }
+
+    // buckets tile [0, Long.MAX_VALUE] without gaps, each at most 1/128 of its lowest value wide
+    @Test
+    void bucketsAreContiguousAndNarrow() {
+        int top = LatencyHistogram.bucketOf(Long.MAX_VALUE);
+        for (int b = 0; b < top; b++) {
+            assertEquals(LatencyHistogram.highest(b) + 1, LatencyHistogram.lowest(b + 1), "after bucket " + b);
+            long width = LatencyHistogram.highest(b) - LatencyHistogram.lowest(b) + 1;
+            assertTrue(b < 256 ? width == 1 : width <= LatencyHistogram.lowest(b) / 128, "width of bucket " + b);
+        }
+        Random r = new Random(1);
+        for (int i = 0; i < 100_000; i++) {
+            long v = (r.nextLong() >>> 1) >>> r.nextInt(63);
+            int b = LatencyHistogram.bucketOf(v);
+            assertTrue(LatencyHistogram.lowest(b) <= v && v <= LatencyHistogram.highest(b), "bucket of " + v);
+        }
+    }
+
+    @Test
+    void percentilesAreClampedToTheRecordedRange() {
+        LatencyHistogram h = new LatencyHistogram();
+        assertEquals(0, h.percentile(0.5));
+        assertEquals(0, h.min());
+        assertEquals(0, h.max());
+
+        h.record(1000); // bucket 1000..1003
+        assertEquals(1000, h.percentile(0));
+        assertEquals(1000, h.percentile(0.99));
+        h.record(1001);
+        assertEquals(1001, h.percentile(0.5));
+        assertEquals(1001, h.percentile(1));
+
+        h.record(-5); // negative values count as 0
+        assertEquals(0, h.min());
+        assertEquals(0, h.percentile(0.01));
+    }
+
+    @Test
+    void mergeMatchesRecordingEverything() {
+        Random r = new Random(7);
+        LatencyHistogram a = new LatencyHistogram();
+        LatencyHistogram b = new LatencyHistogram();
+        LatencyHistogram all = new LatencyHistogram();
+        for (int i = 0; i < 20_000; i++) {
+            long v = (long) Math.exp(r.nextDouble() * 20);
+            (i % 3 == 0 ? a : b).record(v);
+            all.record(v);
+        }
+        a.merge(b);
+        a.merge(new LatencyHistogram()); // an empty histogram changes nothing
+        assertEquals(all.count(), a.count());
+        assertEquals(all.mean(), a.mean());
+        assertEquals(all.min(), a.min());
+        assertEquals(all.max(), a.max());
+        for (double q : new double[] {0, 0.5, 0.9, 0.95, 0.99, 0.999, 1}) assertEquals(all.percentile(q), a.percentile(q), "p" + q);
+        assertArrayEquals(all.bins(40, all.percentile(0.999)), a.bins(40, a.percentile(0.999)));
+    }
+}
@@ -0,0 +1,185 @@
+// ReferenceScheduler.java
+// Unit-by-unit reference simulation of the built-in policies, written for clarity rather
+// than speed: every time unit the ready processes are looked at again and the policy's rule
+// applied directly. Schedules are compared as one "pid/tag" entry per time unit ("-" while
+// idle), so they do not depend on how a simulator splits or merges its slices.
+
+import java.util.*;
+
+public final class ReferenceScheduler {
+    public final String timeline;
+    public final int[] start;      // first time unit each process ran
+    public final int[] completion;
+
+    private ReferenceScheduler(String timeline, int[] start, int[] completion) {
+        this.timeline = timeline;
+        this.start = start;
+        this.completion = completion;
+    }
+
+    // single CPU without overheads
+    public static ReferenceScheduler run(String algo, List<ProcessModel> in, SimulationConfig config) {
+        int n = in.size();
+        int quantum = Math.max(1, config.quantum);
+        int[] rem = new int[n];
+        int[] start = new int[n];
+        int[] completion = new int[n];
+        Arrays.fill(start, -1);
+        for (int i = 0; i < n; i++) rem[i] = in.get(i).burst;
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) order[i] = i;
+        Arrays.sort(order, Comparator.comparingInt(i -> in.get(i).arrival)); // stable: input order on ties
+
+        // FCFS and Round Robin
+        Deque<Integer> fifo = new ArrayDeque<>();
+        // key-ordered policies
+        List<Integer> ready = new ArrayList<>();
+        Comparator<Integer> key = key(algo, in, rem);
+        boolean preemptive = "SRTF (Preemptive)".equals(algo) || "Priority (Preemptive)".equals(algo);
+        // MLFQ
+        boolean mlfq = MlfqPolicy.NAME.equals(algo);
+        int levels = Math.max(1, Math.min(MlfqPolicy.MAX_LEVELS, config.levels));
+        int[] quanta = new int[levels];
+        for (int l = 0; l < levels; l++) {
+            quanta[l] = config.levelQuanta != null && l < config.levelQuanta.length
+                    ? Math.max(1, config.levelQuanta[l]) : quantum << l;
+        }
+        List<Deque<Integer>> queues = new ArrayList<>();
+        for (int l = 0; l < levels; l++) queues.add(new ArrayDeque<>());
+        int[] level = new int[n];
+        int[] used = new int[n];
+
+        StringBuilder sb = new StringBuilder();
+        int done = 0;
+        int next = 0;
+        int running = -1;
+        int sliceUsed = 0;
+        for (int t = 0; done < n; t++) {
+            while (next < n && in.get(order[next]).arrival <= t) {
+                int p = order[next++];
+                if (mlfq) queues.get(0).addLast(p);
+                else if (key == null) fifo.addLast(p);
+                else ready.add(p);
+            }
+            if (running >= 0) {
+                if (rem[running] == 0) {
+                    completion[running] = t;
+                    done++;
+                    running = -1;
+                } else if (mlfq) {
+                    if (used[running] == quanta[level[running]]) {
+                        level[running] = Math.min(level[running] + 1, levels - 1);
+                        used[running] = 0;
+                        queues.get(level[running]).addLast(running);
+                    } else {
+                        queues.get(level[running]).addFirst(running);
+                    }
+                    running = -1;
+                } else if (preemptive) {
+                    ready.add(running);
+                    running = -1;
+                } else if ("Round Robin".equals(algo) && sliceUsed == quantum) {
+                    fifo.addLast(running);
+                    running = -1;
+                }
+            }
+            if (done == n) break;
+            if (mlfq && config.boostInterval > 0 && t > 0 && t % config.boostInterval == 0) {
+                for (int l = 1; l < levels; l++) {
+                    queues.get(0).addAll(queues.get(l));
+                    queues.get(l).clear();
+                }
+                for (int p : queues.get(0)) {
+                    level[p] = 0;
+                    used[p] = 0;
+                }
+            }
+            if (running < 0) {
+                sliceUsed = 0;
+                if (mlfq) {
+                    for (Deque<Integer> q : queues) {
+                        if (!q.isEmpty()) {
+                            running = q.pollFirst();
+                            break;
+                        }
+                    }
+                } else if (key == null) {
+                    if (!fifo.isEmpty()) running = fifo.pollFirst();
+                } else if (!ready.isEmpty()) {
+                    running = Collections.min(ready, key);
+                    ready.remove(Integer.valueOf(running));
+                }
+            }
+            if (running < 0) {
+                sb.append("-,");
+                continue;
+            }
+            if (start[running] < 0) start[running] = t;
+            sb.append(in.get(running).pid).append('/').append(mlfq ? level[running] : -1).append(',');
+            rem[running]--;
+            used[running]++;
+            sliceUsed++;
+        }
+        return new ReferenceScheduler(sb.toString(), start, completion);
+    }
+
+    // ready-set order of the key-ordered policies, null for the FIFO ones
+    private static Comparator<Integer> key(String algo, List<ProcessModel> in, int[] rem) {
+        Comparator<Integer> byIndex = Comparator.naturalOrder();
+        switch (algo) {
+            case "FCFS":
+            case "Round Robin":
+            case MlfqPolicy.NAME:
+                return null;
+            case "SJF (Non-preemptive)":
+                return Comparator.<Integer>comparingInt(i -> in.get(i).burst)
+                        .thenComparingInt(i -> in.get(i).arrival).thenComparing(byIndex);
+            case "Priority (Non-preemptive)":
+                return Comparator.<Integer>comparingInt(i -> in.get(i).priority)
+                        .thenComparingInt(i -> in.get(i).burst).thenComparing(byIndex);
+            case "SRTF (Preemptive)":
+                return Comparator.<Integer>comparingInt(i -> rem[i])
+                        .thenComparingInt(i -> in.get(i).arrival).thenComparing(byIndex);
+            case "Priority (Preemptive)":
+                return Comparator.<Integer>comparingInt(i -> in.get(i).priority)
+                        .thenComparingInt(i -> rem[i])
+                        .thenComparingInt(i -> in.get(i).arrival).thenComparing(byIndex);
+            default:
+                throw new IllegalArgumentException("No reference for " + algo);
+        }
+    }
+
+    // a simulated timeline in the reference's per-unit form; overhead slices count as idle
+    public static String units(Timeline t) {
+        StringBuilder sb = new StringBuilder();
+        int time = 0;
+        for (int i = 0; i < t.size(); i++) {
+            if (t.isOverhead(i)) continue;
+            for (; time < t.start(i); time++) sb.append("-,");
+            for (; time < t.end(i); time++) sb.append(t.pid(i)).append('/').append(t.tag(i)).append(',');
+        }
+        return sb.toString();
+    }
+
+    // small workloads with many ties (arrivals, bursts, priorities) and idle gaps
+    public static List<ProcessModel> randomWorkload(Random r, int maxProcesses) {
+        int n = 1 + r.nextInt(maxProcesses);
+        List<ProcessModel> in = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            in.add(new ProcessModel("P" + i, r.nextInt(3 * n + 10), 1 + r.nextInt(8), r.nextInt(4), null));
+        }
+        return in;
+    }
+
+    // random MLFQ settings on top of a random quantum
+    public static SimulationConfig randomConfig(Random r) {
+        SimulationConfig c = new SimulationConfig(1 + r.nextInt(4), SimulationMonitor.NONE);
+        c.levels = 1 + r.nextInt(4);
+        c.boostInterval = r.nextInt(3) == 0 ? 0 : 1 + r.nextInt(30);
+        if (r.nextBoolean()) {
+            c.levelQuanta = new int[c.levels];
+            for (int l = 0; l < c.levels; l++) c.levelQuanta[l] = 1 + r.nextInt(6);
+        }
+        return c;
+    }
+}
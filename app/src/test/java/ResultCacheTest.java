@@ -0,0 +1,86 @@
+// ResultCacheTest.java
+// Budgets and eviction of the result cache, for heap and off-heap timelines.
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import org.junit.jupiter.api.Test;
+
+class ResultCacheTest {
+
+    // records whether the cache released it
+    private static class TrackedTimeline extends OffHeapTimeline {
+        boolean released;
+
+        TrackedTimeline() {
+            super(1L << 20);
+        }
+
+        @Override
+        public void release() {
+            released = true;
+            super.release();
+        }
+    }
+
+    private static Scheduler.Result run(String algo, int seed, boolean offHeap) {
+        SimulationConfig c = new SimulationConfig(2, SimulationMonitor.NONE);
+        c.offHeap = offHeap;
+        return Scheduler.run(algo, ReferenceScheduler.randomWorkload(new Random(seed), 12), c);
+    }
+
+    private static Scheduler.Result tracked(int slices) {
+        Scheduler.Result res = new Scheduler.Result();
+        TrackedTimeline t = new TrackedTimeline();
+        int p = t.addProcess("P", null);
+        for (int i = 0; i < slices; i++) t.add(p, i, i + 1);
+        res.gantt = t;
+        return res;
+    }
+
+    @Test
+    void offHeapSlicesOnlyCountAgainstTheirOwnBudget() {
+        Scheduler.Result heap = run("FCFS", 1, false);
+        Scheduler.Result offHeap = run("Round Robin", 1, true);
+        assertTrue(offHeap.gantt.size() > 0);
+        // same workload, so the two differ only in the heap timeline's slices
+        assertEquals(ResultCache.footprint(heap) - heap.gantt.size() * 12L, ResultCache.footprint(offHeap));
+        assertEquals(0, ResultCache.offHeapFootprint(heap));
+        assertEquals(offHeap.gantt.size() * 12L, ResultCache.offHeapFootprint(offHeap));
+
+        // a heap budget that fits both heap footprints, an off-heap one that fits one timeline
+        ResultCache cache = new ResultCache(ResultCache.footprint(heap) + ResultCache.footprint(offHeap),
+                ResultCache.offHeapFootprint(offHeap));
+        SimulationConfig c = new SimulationConfig();
+        cache.put(1, "FCFS", c, heap);
+        cache.put(1, "Round Robin", c, offHeap);
+        assertSame(heap, cache.get(1, "FCFS", c));
+        assertSame(offHeap, cache.get(1, "Round Robin", c));
+        assertEquals(ResultCache.offHeapFootprint(offHeap), cache.offHeapBytes());
+    }
+
+    @Test
+    void evictedOffHeapResultsAreReleased() {
+        Scheduler.Result a = tracked(100);
+        Scheduler.Result b = tracked(100);
+        ResultCache cache = new ResultCache(1L << 20, ResultCache.offHeapFootprint(a));
+        SimulationConfig c = new SimulationConfig();
+        cache.put(1, "FCFS", c, a);
+        cache.put(2, "FCFS", c, a); // the same result under another key stays open
+        assertFalse(((TrackedTimeline) a.gantt).released);
+
+        cache.put(3, "FCFS", c, b);
+        assertNull(cache.get(1, "FCFS", c));
+        assertNull(cache.get(2, "FCFS", c));
+        assertTrue(((TrackedTimeline) a.gantt).released);
+        assertFalse(((TrackedTimeline) b.gantt).released);
+        // released timelines stay readable
+        assertEquals(100, a.gantt.size());
+        assertEquals(99, a.gantt.start(99));
+
+        cache.clear();
+        assertTrue(((TrackedTimeline) b.gantt).released);
+        assertEquals(0, cache.bytes());
+        assertEquals(0, cache.offHeapBytes());
+    }
+}
@@ -0,0 +1,138 @@
+// ResultStoreTest.java
+// Results saved and opened again, from the kernel and from an opened file, and files that
+// are not, or no longer, whole result files.
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.Color;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ResultStoreTest {
+    @TempDir
+    Path dir;
+
+    // an odd number of rows, tagged slices (MLFQ), overhead slices, missing colors and a
+    // multi-byte PID
+    private static Scheduler.Result sample(String algo) {
+        List<ProcessModel> in = ReferenceScheduler.randomWorkload(new Random(5), 12);
+        if (in.size() % 2 == 0) in.add(new ProcessModel("odd", 3, 2, 1, null));
+        in.get(0).pid = "Pπ0";
+        for (int i = 0; i < in.size(); i++) in.get(i).color = i % 3 == 0 ? null : new Color(0x10 * i, 0x80, 0xFF - i);
+        SimulationConfig c = new SimulationConfig(2, SimulationMonitor.NONE);
+        c.switchCost = 1;
+        return Scheduler.run(algo, in, c);
+    }
+
+    private static void assertSameResult(Scheduler.Result expected, Scheduler.Result actual) {
+        Timeline e = expected.gantt;
+        Timeline a = actual.gantt;
+        assertEquals(e.size(), a.size());
+        assertEquals(e.hasTags(), a.hasTags());
+        for (int i = 0; i < e.size(); i++) {
+            String where = "slice " + i;
+            assertEquals(e.start(i), a.start(i), where);
+            assertEquals(e.end(i), a.end(i), where);
+            assertEquals(e.tag(i), a.tag(i), where);
+            assertEquals(e.pid(i), a.pid(i), where);
+            assertEquals(e.color(i), a.color(i), where);
+            assertEquals(e.isOverhead(i), a.isOverhead(i), where);
+        }
+        assertEquals(expected.processes.size(), actual.processes.size());
+        for (int i = 0; i < expected.processes.size(); i++) {
+            ProcessModel pe = expected.processes.get(i);
+            ProcessModel pa = actual.processes.get(i);
+            String where = "row " + i;
+            assertEquals(pe.pid, pa.pid, where);
+            assertEquals(pe.color, pa.color, where);
+            assertEquals(pe.arrival, pa.arrival, where);
+            assertEquals(pe.burst, pa.burst, where);
+            assertEquals(pe.priority, pa.priority, where);
+            assertEquals(pe.startTime, pa.startTime, where);
+            assertEquals(pe.completionTime, pa.completionTime, where);
+            assertEquals(pe.waitingTime, pa.waitingTime, where);
+            assertEquals(pe.turnaroundTime, pa.turnaroundTime, where);
+            assertEquals(pe.affinity, pa.affinity, where);
+        }
+    }
+
+    @Test
+    void savedResultsOpenUnchanged() throws IOException {
+        for (String algo : Scheduler.ALGORITHMS) {
+            Scheduler.Result res = sample(algo);
+            Path file = dir.resolve("run.sres");
+            ResultStore.save(res, file);
+            Scheduler.Result opened = ResultStore.open(file);
+            assertInstanceOf(MappedTimeline.class, opened.gantt);
+            assertSameResult(res, opened);
+            assertEquals(res.gantt.indexOf("Pπ0"), opened.gantt.indexOf("Pπ0"), algo);
+
+            // an opened result saves through its columns
+            Path again = dir.resolve("again.sres");
+            ResultStore.save(opened, again);
+            assertSameResult(res, ResultStore.open(again));
+        }
+        assertTrue(sample(MlfqPolicy.NAME).gantt.hasTags());
+    }
+
+    @Test
+    void sectionsAreEightByteAligned() throws IOException {
+        Scheduler.Result res = sample("FCFS");
+        assertEquals(1, res.processes.size() % 2);
+        Path file = dir.resolve("run.sres");
+        ResultStore.save(res, file);
+        ByteBuffer h = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN);
+        for (int at = 48; at <= 72; at += 8) assertEquals(0, h.getLong(at) % 8, "section offset at byte " + at);
+        assertEquals(h.getLong(72) + 12L * res.gantt.size(), h.capacity());
+    }
+
+    @Test
+    void emptyResultRoundTrips() throws IOException {
+        Path file = dir.resolve("empty.sres");
+        ResultStore.save(new Scheduler.Result(), file);
+        Scheduler.Result opened = ResultStore.open(file);
+        assertEquals(0, opened.gantt.size());
+        assertTrue(opened.processes.isEmpty());
+    }
+
+    @Test
+    void rejectsDamagedFiles() throws IOException {
+        Path file = dir.resolve("run.sres");
+        ResultStore.save(sample("Round Robin"), file);
+        byte[] good = Files.readAllBytes(file);
+
+        Path damaged = dir.resolve("damaged.sres");
+        Files.write(damaged, Arrays.copyOf(good, good.length - 1));
+        assertThrows(IOException.class, () -> ResultStore.open(damaged), "truncated slices");
+        Files.write(damaged, Arrays.copyOf(good, 40));
+        assertThrows(IOException.class, () -> ResultStore.open(damaged), "truncated header");
+
+        byte[] magic = good.clone();
+        magic[0] = 'X';
+        Files.write(damaged, magic);
+        IOException ex = assertThrows(IOException.class, () -> ResultStore.open(damaged));
+        assertTrue(ex.getMessage().startsWith("Not a result file"), ex.getMessage());
+
+        byte[] version = good.clone();
+        version[8] = 1;
+        Files.write(damaged, version);
+        ex = assertThrows(IOException.class, () -> ResultStore.open(damaged));
+        assertTrue(ex.getMessage().contains("version"), ex.getMessage());
+
+        byte[] count = good.clone();
+        ByteBuffer.wrap(count).order(ByteOrder.LITTLE_ENDIAN).putLong(24, -1); // slice count
+        Files.write(damaged, count);
+        assertThrows(IOException.class, () -> ResultStore.open(damaged), "negative count");
+
+        byte[] offsets = good.clone();
+        ByteBuffer.wrap(offsets).order(ByteOrder.LITTLE_ENDIAN).putLong(72, 8); // slices inside the header
+        Files.write(damaged, offsets);
+        assertThrows(IOException.class, () -> ResultStore.open(damaged), "overlapping sections");
+    }
+}
@@ -0,0 +1,141 @@
+// SchedulerSessionTest.java
+// Sessions fed a whole input or a stream of arrivals against Scheduler.run for every
+// registered policy, with switch costs and dispatch latency, and what the listeners see.
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import org.junit.jupiter.api.Test;
+
+class SchedulerSessionTest {
+    private static final int SEEDS = 300;
+
+    // records the listener calls as slices; overhead slices have no PID
+    private static class Recorder implements SchedulerSession.Listener {
+        final List<String> slices = new ArrayList<>();
+        final List<ProcessModel> completed = new ArrayList<>();
+
+        @Override public void onSlice(Scheduler.GanttEntry slice, int tag) {
+            slices.add(slice.pid + "/" + slice.start + "-" + slice.end + "/" + tag);
+        }
+        @Override public void onOverhead(int start, int end) {
+            slices.add("overhead/" + start + "-" + end + "/-1");
+        }
+        @Override public void onComplete(ProcessModel p) {
+            completed.add(p);
+        }
+    }
+
+    private static List<String> slices(Timeline t) {
+        List<String> out = new ArrayList<>();
+        for (int i = 0; i < t.size(); i++) {
+            out.add((t.isOverhead(i) ? "overhead" : t.pid(i)) + "/" + t.start(i) + "-" + t.end(i) + "/" + t.tag(i));
+        }
+        return out;
+    }
+
+    private static SimulationConfig config(Random r) {
+        SimulationConfig c = ReferenceScheduler.randomConfig(r);
+        if (r.nextBoolean()) {
+            c.switchCost = r.nextInt(3);
+            c.dispatchLatency = r.nextInt(2);
+        }
+        return c;
+    }
+
+    private static void assertSameRun(Scheduler.Result expected, List<String> slices, List<ProcessModel> completed,
+                                      String where) {
+        assertEquals(slices(expected.gantt), slices, where);
+        assertEquals(expected.processes.size(), completed.size(), where);
+        for (int i = 0; i < completed.size(); i++) {
+            ProcessModel e = expected.processes.get(i);
+            ProcessModel a = completed.get(i);
+            String p = where + ", completion " + i;
+            assertEquals(e.pid, a.pid, p);
+            assertEquals(e.startTime, a.startTime, p);
+            assertEquals(e.completionTime, a.completionTime, p);
+            assertEquals(e.waitingTime, a.waitingTime, p);
+            assertEquals(e.turnaroundTime, a.turnaroundTime, p);
+        }
+    }
+
+    @Test
+    void wholeInputMatchesTheKernel() {
+        for (String algo : Scheduler.ALGORITHMS) {
+            for (int seed = 0; seed < SEEDS; seed++) {
+                Random r = new Random(seed);
+                List<ProcessModel> in = ReferenceScheduler.randomWorkload(r, 40);
+                SimulationConfig config = config(r);
+                String where = algo + ", seed " + seed;
+
+                SchedulerSession session = new SchedulerSession(SchedulingPolicies.create(algo), config);
+                Recorder rec = new Recorder();
+                session.addListener(rec);
+                for (ProcessModel p : in) session.submit(p);
+                session.finish();
+
+                Scheduler.Result expected = Scheduler.run(algo, in, config);
+                assertSameRun(expected, rec.slices, rec.completed, where);
+                assertSameRun(expected, slices(session.result().gantt), session.result().processes, where + ", result");
+            }
+        }
+    }
+
+    // Arrivals submitted in arrival order, some well ahead of the clock, others only once the
+    // clock has reached them, and the clock moved in random steps in between. Enough work
+    // piles up for finished jobs to be dropped and the rest renumbered mid-run.
+    @Test
+    void streamedArrivalsMatchTheKernel() {
+        for (String algo : Scheduler.ALGORITHMS) {
+            for (int seed = 0; seed < SEEDS; seed++) {
+                Random r = new Random(seed);
+                List<ProcessModel> in = ReferenceScheduler.randomWorkload(r, 80);
+                in.sort(Comparator.comparingInt(p -> p.arrival));
+                SimulationConfig config = config(r);
+                boolean retain = r.nextBoolean();
+                String where = algo + ", seed " + seed + (retain ? "" : ", not retained");
+
+                SchedulerSession session = new SchedulerSession(SchedulingPolicies.create(algo), config);
+                session.setRetainResult(retain);
+                Recorder rec = new Recorder();
+                session.addListener(rec);
+                for (int next = 0; next < in.size(); ) {
+                    int arrival = in.get(next).arrival;
+                    if (r.nextInt(3) == 0 && session.now() < arrival) {
+                        session.advanceTo(session.now() + 1 + r.nextInt(arrival - session.now()));
+                    } else {
+                        session.submit(in.get(next++));
+                    }
+                }
+                session.finish();
+
+                Scheduler.Result expected = Scheduler.run(algo, in, config);
+                assertSameRun(expected, rec.slices, rec.completed, where);
+                if (retain) {
+                    assertSameRun(expected, slices(session.result().gantt), session.result().processes, where + ", result");
+                } else {
+                    assertEquals(0, session.result().gantt.size(), where);
+                    assertTrue(session.result().processes.isEmpty(), where);
+                }
+            }
+        }
+    }
+
+    @Test
+    void slicesAreOnlyEmittedOnceFinal() {
+        SimulationConfig config = new SimulationConfig(4, SimulationMonitor.NONE);
+        SchedulerSession session = new SchedulerSession(SchedulingPolicies.create("SRTF (Preemptive)"), config);
+        Recorder rec = new Recorder();
+        session.addListener(rec);
+        session.submit(new ProcessModel("A", 0, 10, 0, null));
+        session.advanceTo(5);
+        // A may still be cut by an arrival before 10
+        assertTrue(rec.slices.isEmpty());
+        session.submit(new ProcessModel("B", 6, 2, 0, null));
+        session.advanceTo(20);
+        assertEquals(Arrays.asList("A/0-6/-1", "B/6-8/-1", "A/8-12/-1"), rec.slices);
+
+        assertThrows(IllegalArgumentException.class, () -> session.submit(new ProcessModel("C", 19, 1, 0, null)));
+        assertThrows(IllegalArgumentException.class, () -> session.advanceTo(19));
+    }
+}
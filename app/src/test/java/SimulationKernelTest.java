@@ -0,0 +1,244 @@
+// SimulationKernelTest.java
+// The kernel's schedule for every registered policy against ReferenceScheduler, the
+// bookkeeping of its results (metrics, slice order, overhead slices), and runs resumed from
+// checkpoints against full runs of the edited input.
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.Color;
+import java.nio.file.Path;
+import java.util.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SimulationKernelTest {
+    private static final int SEEDS = 400;
+
+    @Test
+    void everyPolicyMatchesReference() {
+        for (String algo : Scheduler.ALGORITHMS) {
+            for (int seed = 0; seed < SEEDS; seed++) {
+                Random r = new Random(seed);
+                List<ProcessModel> in = ReferenceScheduler.randomWorkload(r, 12);
+                SimulationConfig config = ReferenceScheduler.randomConfig(r);
+                String where = algo + ", seed " + seed;
+
+                ReferenceScheduler ref = ReferenceScheduler.run(algo, in, config);
+                Scheduler.Result res = Scheduler.run(algo, in, config);
+                assertEquals(ref.timeline, ReferenceScheduler.units(res.gantt), where);
+                assertEquals(in.size(), res.processes.size(), where);
+                for (ProcessModel p : res.processes) {
+                    int i = Integer.parseInt(p.pid.substring(1));
+                    assertEquals(ref.start[i], p.startTime, where + ", start of " + p.pid);
+                    assertEquals(ref.completion[i], p.completionTime, where + ", completion of " + p.pid);
+                }
+            }
+        }
+    }
+
+    @Test
+    void resultsAreConsistentWithOverheads() {
+        for (String algo : Scheduler.ALGORITHMS) {
+            for (int seed = 0; seed < SEEDS; seed++) {
+                Random r = new Random(seed);
+                List<ProcessModel> in = ReferenceScheduler.randomWorkload(r, 12);
+                SimulationConfig config = ReferenceScheduler.randomConfig(r);
+                config.switchCost = r.nextInt(3);
+                config.dispatchLatency = r.nextInt(2);
+                String where = algo + ", seed " + seed;
+
+                Scheduler.Result res = Scheduler.run(algo, in, config);
+                Timeline t = res.gantt;
+                Map<String, Integer> ran = new HashMap<>();
+                for (int i = 0; i < t.size(); i++) {
+                    assertTrue(t.start(i) < t.end(i), where + ": empty slice " + i);
+                    if (i > 0) assertTrue(t.end(i - 1) <= t.start(i), where + ": slices overlap at " + i);
+                    ran.merge(t.pid(i), t.end(i) - t.start(i), Integer::sum);
+                }
+                int last = 0;
+                for (ProcessModel p : res.processes) {
+                    assertEquals(p.burst, (int) ran.get(p.pid), where + ": time run by " + p.pid);
+                    assertTrue(p.startTime >= p.arrival, where + ": " + p.pid + " started early");
+                    assertEquals(p.completionTime - p.arrival, p.turnaroundTime, where);
+                    assertEquals(p.turnaroundTime - p.burst, p.waitingTime, where);
+                    assertTrue(p.completionTime >= last, where + ": processes not in completion order");
+                    last = p.completionTime;
+                }
+                if (config.switchCost == 0 && config.dispatchLatency == 0) {
+                    assertEquals(-1, t.overheadProcess(), where);
+                }
+            }
+        }
+    }
+
+    // a process may be named like the overhead pseudo-process without being taken for it
+    @Test
+    void overheadIsNotFoundByPid() {
+        List<ProcessModel> in = new ArrayList<>();
+        in.add(new ProcessModel(Scheduler.OVERHEAD_PID, 0, 4, 1, Color.RED));
+        in.add(new ProcessModel("B", 0, 4, 1, Color.BLUE));
+        SimulationConfig c = new SimulationConfig(2, SimulationMonitor.NONE);
+        c.switchCost = 1;
+        Scheduler.Result res = Scheduler.run("Round Robin", in, c);
+        Timeline t = res.gantt;
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < t.size(); i++) {
+            sb.append(t.isOverhead(i) ? "-" : t.pid(i)).append(' ').append(t.start(i)).append('-').append(t.end(i)).append(' ');
+        }
+        String named = Scheduler.OVERHEAD_PID;
+        assertEquals(named + " 0-2 - 2-3 B 3-5 - 5-6 " + named + " 6-8 - 8-9 B 9-11 ", sb.toString());
+        assertEquals(Color.RED, t.color(0));
+
+        Map<String, Double> m = Scheduler.computeMetrics(res);
+        assertEquals(3.0, m.get("overheadTime"));
+        assertEquals(3.0, m.get("contextSwitches"));
+        assertEquals(8.0 / 11, m.get("utilization"), 1e-9);
+
+        c.cpus = 1;
+        SmpSimulator.Result smp = SmpSimulator.run("Round Robin", in, c);
+        assertEquals(8, smp.busy[0]);
+        assertArrayEquals(new long[] {3, 3, 8}, Scheduler.laneTotals(smp.lanes[0]));
+    }
+
+    @Test
+    void emptyInputGivesEmptyResult() {
+        for (String algo : Scheduler.ALGORITHMS) {
+            Scheduler.Result res = Scheduler.run(algo, new ArrayList<>(), new SimulationConfig());
+            assertEquals(0, res.gantt.size(), algo);
+            assertTrue(res.processes.isEmpty(), algo);
+        }
+    }
+
+    @Test
+    void rowsSharingAPidKeepTheirColors(@TempDir Path dir) throws Exception {
+        List<ProcessModel> in = new ArrayList<>();
+        in.add(new ProcessModel("A", 0, 3, 1, Color.RED));
+        in.add(new ProcessModel("A", 1, 2, 1, Color.BLUE));
+        in.add(new ProcessModel("B", 2, 2, 1, Color.GREEN));
+        for (String algo : Scheduler.ALGORITHMS) {
+            Scheduler.Result res = Scheduler.run(algo, in, new SimulationConfig());
+            assertEquals(3, res.gantt.processCount(), algo);
+            Set<Color> drawn = new HashSet<>();
+            for (int i = 0; i < res.gantt.size(); i++) drawn.add(res.gantt.color(i));
+            assertEquals(Set.of(Color.RED, Color.BLUE, Color.GREEN), drawn, algo);
+            assertEquals(0, res.gantt.indexOf("A"), algo);
+
+            Path file = dir.resolve(res.hashCode() + ".sres");
+            ResultStore.save(res, file);
+            Scheduler.Result opened = ResultStore.open(file);
+            for (int i = 0; i < res.processes.size(); i++) {
+                assertEquals(res.processes.get(i).color, opened.processes.get(i).color, algo);
+            }
+        }
+    }
+
+    // a trace long enough for several checkpoints
+    private static List<ProcessModel> trace(Random r, int n) {
+        List<ProcessModel> in = new ArrayList<>();
+        int t = 0;
+        for (int i = 0; i < n; i++) {
+            t += r.nextInt(7);
+            in.add(new ProcessModel("P" + i, t, 1 + r.nextInt(9), r.nextInt(5), null));
+        }
+        return in;
+    }
+
+    // slice by slice and process by process, so a failure names the first difference
+    private static void assertSameResult(Scheduler.Result expected, Scheduler.Result actual, String where) {
+        Timeline e = expected.gantt;
+        Timeline a = actual.gantt;
+        for (int i = 0; i < Math.min(e.size(), a.size()); i++) {
+            if (e.proc(i) != a.proc(i) || e.start(i) != a.start(i) || e.end(i) != a.end(i) || e.tag(i) != a.tag(i)
+                    || !Objects.equals(e.color(i), a.color(i))) {
+                assertEquals(e.pid(i) + " " + e.start(i) + "-" + e.end(i) + "/" + e.tag(i) + " " + e.color(i),
+                        a.pid(i) + " " + a.start(i) + "-" + a.end(i) + "/" + a.tag(i) + " " + a.color(i), where + ", slice " + i);
+            }
+        }
+        assertEquals(e.size(), a.size(), where + ", slices");
+        assertEquals(expected.processes.size(), actual.processes.size(), where + ", processes");
+        for (int i = 0; i < expected.processes.size(); i++) {
+            ProcessModel pe = expected.processes.get(i);
+            ProcessModel pa = actual.processes.get(i);
+            if (!pe.pid.equals(pa.pid) || pe.startTime != pa.startTime || pe.completionTime != pa.completionTime
+                    || pe.waitingTime != pa.waitingTime || !Objects.equals(pe.color, pa.color)) {
+                assertEquals(pe.pid + " " + pe.startTime + "-" + pe.completionTime + " waited " + pe.waitingTime + " " + pe.color,
+                        pa.pid + " " + pa.startTime + "-" + pa.completionTime + " waited " + pa.waitingTime + " " + pa.color,
+                        where + ", completion " + i);
+            }
+        }
+    }
+
+    @Test
+    void resumedRunsMatchFullRuns() {
+        Random r = new Random(11);
+        for (String algo : Scheduler.ALGORITHMS) {
+            int resumed = 0;
+            for (int trial = 0; trial < 4; trial++) {
+                List<ProcessModel> in = trace(r, 8000 + r.nextInt(6000));
+                int end = in.get(in.size() - 1).arrival;
+                SimulationConfig c = new SimulationConfig(1 + r.nextInt(4), SimulationMonitor.NONE);
+                c.offHeap = r.nextBoolean();
+                if (r.nextBoolean()) {
+                    c.switchCost = r.nextInt(2);
+                    c.dispatchLatency = r.nextInt(2);
+                }
+                SimulationKernel.Run run = SimulationKernel.runCheckpointed(in, SchedulingPolicies.create(algo), c);
+                // edits build on each other: each step resumes from the previous resumed run
+                for (int step = 0; step < 3; step++) {
+                    List<ProcessModel> edited = new ArrayList<>();
+                    for (ProcessModel p : in) edited.add(p.copy());
+                    int n = edited.size();
+                    for (int e = 1 + r.nextInt(3); e > 0; e--) {
+                        ProcessModel p = edited.get(n / 2 + r.nextInt(n / 2));
+                        switch (r.nextInt(4)) {
+                            case 0: p.arrival = Math.max(0, p.arrival + r.nextInt(41) - 20); break;
+                            case 1: p.burst = 1 + r.nextInt(9); break;
+                            case 2: p.priority = r.nextInt(5); break;
+                            default: p.color = Color.RED;
+                        }
+                    }
+                    if (r.nextInt(4) == 0) edited.add(new ProcessModel("X" + step, end / 2 + r.nextInt(end / 2 + 1), 3, 1, null));
+                    String where = algo + ", trial " + trial + ", step " + step;
+
+                    SimulationKernel.Run next = SimulationKernel.resume(run, edited, SchedulingPolicies.create(algo), c);
+                    Scheduler.Result full = SimulationKernel.run(edited, SchedulingPolicies.create(algo), c);
+                    assertSameResult(full, next.result, where + ", resumed at " + next.resumedAt());
+                    if (next.resumedAt() >= 0) resumed++;
+                    run = next;
+                    in = edited;
+                }
+            }
+            // MLFQ keeps state beyond its ready set and always runs in full
+            if (MlfqPolicy.NAME.equals(algo)) assertEquals(0, resumed, algo);
+            else assertTrue(resumed > 0, algo + " never resumed from a checkpoint");
+        }
+    }
+
+    @Test
+    void resumeFallsBackToFullRun() {
+        Random r = new Random(3);
+        List<ProcessModel> in = trace(r, 20000);
+        SimulationConfig c = new SimulationConfig(2, SimulationMonitor.NONE);
+        SimulationKernel.Run run = SimulationKernel.runCheckpointed(in, new RoundRobinPolicy(), c);
+        assertTrue(run.checkpointCount() > 0);
+
+        // an edit late in the trace resumes ...
+        List<ProcessModel> late = new ArrayList<>(in);
+        ProcessModel p = late.get(late.size() - 10).copy();
+        p.burst++;
+        late.set(late.size() - 10, p);
+        assertTrue(SimulationKernel.resume(run, late, new RoundRobinPolicy(), c).resumedAt() >= 0);
+
+        // ... but not after removing a row, renaming a process, or under other settings
+        List<ProcessModel> removed = new ArrayList<>(in.subList(0, in.size() - 1));
+        assertEquals(-1, SimulationKernel.resume(run, removed, new RoundRobinPolicy(), c).resumedAt());
+        List<ProcessModel> renamed = new ArrayList<>(in);
+        ProcessModel q = renamed.get(0).copy();
+        q.pid = "renamed";
+        renamed.set(0, q);
+        assertEquals(-1, SimulationKernel.resume(run, renamed, new RoundRobinPolicy(), c).resumedAt());
+        SimulationConfig other = new SimulationConfig(3, SimulationMonitor.NONE);
+        assertEquals(-1, SimulationKernel.resume(run, late, new RoundRobinPolicy(), other).resumedAt());
+        assertEquals(-1, SimulationKernel.resume(run, late, new FcfsPolicy(), c).resumedAt());
+    }
+}
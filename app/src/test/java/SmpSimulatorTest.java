@@ -0,0 +1,194 @@
+// SmpSimulatorTest.java
+// Multi-CPU runs under every queue layout, with and without work stealing.
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.Color;
+import java.util.*;
+import org.junit.jupiter.api.Test;
+
+class SmpSimulatorTest {
+
+    // busy workloads, so queues build up and idle CPUs steal
+    private static List<ProcessModel> busyWorkload(int seed) {
+        return WorkloadGenerator.fromSpec("count=80,seed=" + seed + ",rate=0.6,mean=8").toList();
+    }
+
+    private static String slices(Timeline t) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < t.size(); i++) {
+            sb.append(t.pid(i)).append(':').append(t.start(i)).append('-').append(t.end(i)).append('/').append(t.tag(i)).append(' ');
+        }
+        return sb.toString();
+    }
+
+    private static String completions(List<ProcessModel> processes) {
+        StringBuilder sb = new StringBuilder();
+        for (ProcessModel p : processes) sb.append(p.pid).append(',').append(p.startTime).append(',').append(p.completionTime).append(' ');
+        return sb.toString();
+    }
+
+    private static SimulationConfig config(int seed) {
+        SimulationConfig c = new SimulationConfig(3, SimulationMonitor.NONE);
+        if (seed % 3 != 0) {
+            c.switchCost = seed % 4;
+            c.dispatchLatency = seed % 2;
+        }
+        return c;
+    }
+
+    @Test
+    void oneCpuMatchesKernel() {
+        for (String algo : Scheduler.ALGORITHMS) {
+            for (int seed = 1; seed <= 30; seed++) {
+                List<ProcessModel> in = busyWorkload(seed);
+                SimulationConfig c = config(seed);
+                Scheduler.Result single = Scheduler.run(algo, in, c);
+                for (SmpSimulator.Queues queues : SmpSimulator.Queues.values()) {
+                    c.queues = queues;
+                    SmpSimulator.Result smp = SmpSimulator.run(algo, in, c);
+                    String where = algo + ", " + queues + ", seed " + seed;
+                    assertEquals(slices(single.gantt), slices(smp.lanes[0]), where);
+                    assertEquals(completions(single.processes), completions(smp.processes), where);
+                }
+            }
+        }
+    }
+
+    @Test
+    void partitionedRunMatchesEventLoop() {
+        for (String algo : Scheduler.ALGORITHMS) {
+            for (int seed = 1; seed <= 30; seed++) {
+                List<ProcessModel> in = busyWorkload(seed);
+                Random r = new Random(seed);
+                for (ProcessModel p : in) {
+                    if (r.nextInt(4) == 0) p.affinity = r.nextInt(6) - 1;
+                }
+                SimulationConfig c = config(seed);
+                c.cpus = 4;
+                c.queues = SmpSimulator.Queues.STATIC;
+                SmpSimulator.Result parallel = SmpSimulator.run(algo, in, c);
+                SmpSimulator.Result sequential = SmpSimulator.simulate(algo, in, c);
+                String where = algo + ", seed " + seed;
+                for (int cpu = 0; cpu < c.cpus; cpu++) {
+                    assertEquals(slices(sequential.lanes[cpu]), slices(parallel.lanes[cpu]), where + ", CPU " + cpu);
+                }
+                assertEquals(completions(sequential.processes), completions(parallel.processes), where);
+                assertArrayEquals(sequential.busy, parallel.busy, where);
+            }
+        }
+    }
+
+    // every process runs exactly its burst, on one CPU at a time, never before it arrives
+    @Test
+    void everyLayoutRunsEachProcessExactlyOnce() {
+        for (String algo : Scheduler.ALGORITHMS) {
+            for (int seed = 1; seed <= 20; seed++) {
+                List<ProcessModel> in = busyWorkload(seed);
+                Random r = new Random(seed);
+                for (ProcessModel p : in) {
+                    if (r.nextInt(4) == 0) p.affinity = r.nextInt(6) - 1;
+                }
+                Map<String, ProcessModel> byPid = new HashMap<>();
+                for (ProcessModel p : in) byPid.put(p.pid, p);
+                for (SmpSimulator.Queues queues : SmpSimulator.Queues.values()) {
+                    for (boolean stealing : new boolean[] {false, true}) {
+                        SimulationConfig c = config(seed);
+                        c.cpus = 1 + seed % 5;
+                        c.queues = queues;
+                        c.workStealing = stealing;
+                        String where = algo + ", " + queues + (stealing ? " with stealing" : "") + ", seed " + seed;
+                        checkRun(in, byPid, SmpSimulator.run(algo, in, c), where);
+                    }
+                }
+            }
+        }
+    }
+
+    private static void checkRun(List<ProcessModel> in, Map<String, ProcessModel> byPid, SmpSimulator.Result res,
+                                 String where) {
+        Map<String, List<int[]>> ran = new HashMap<>();
+        for (int cpu = 0; cpu < res.cpus(); cpu++) {
+            Timeline t = res.lanes[cpu];
+            long busy = 0;
+            for (int i = 0; i < t.size(); i++) {
+                assertTrue(t.start(i) < t.end(i), where + ": empty slice on CPU " + cpu);
+                if (i > 0) assertTrue(t.end(i - 1) <= t.start(i), where + ": slices overlap on CPU " + cpu);
+                if (t.isOverhead(i)) continue;
+                assertTrue(t.start(i) >= byPid.get(t.pid(i)).arrival, where + ": " + t.pid(i) + " ran before arriving");
+                ran.computeIfAbsent(t.pid(i), k -> new ArrayList<>()).add(new int[] {t.start(i), t.end(i)});
+                busy += t.end(i) - t.start(i);
+            }
+            assertEquals(busy, res.busy[cpu], where + ": busy time of CPU " + cpu);
+        }
+        assertEquals(in.size(), res.processes.size(), where);
+        for (ProcessModel p : in) {
+            List<int[]> slices = ran.get(p.pid);
+            assertNotNull(slices, where + ": " + p.pid + " never ran");
+            slices.sort(Comparator.comparingInt(s -> s[0]));
+            int total = 0;
+            for (int i = 0; i < slices.size(); i++) {
+                if (i > 0) assertTrue(slices.get(i - 1)[1] <= slices.get(i)[0], where + ": " + p.pid + " ran on two CPUs at once");
+                total += slices.get(i)[1] - slices.get(i)[0];
+            }
+            assertEquals(p.burst, total, where + ": time run by " + p.pid);
+        }
+    }
+
+    @Test
+    void rowsSharingAPidKeepTheirColors() {
+        List<ProcessModel> in = busyWorkload(7);
+        Color[] colors = {Color.RED, Color.BLUE, Color.GREEN};
+        for (int i = 0; i < in.size(); i++) {
+            in.get(i).pid = "P" + i % 5;
+            in.get(i).color = colors[i % 3];
+        }
+        for (SmpSimulator.Queues queues : SmpSimulator.Queues.values()) {
+            for (boolean stealing : new boolean[] {false, true}) {
+                SimulationConfig c = config(7);
+                c.cpus = 3;
+                c.queues = queues;
+                c.workStealing = stealing;
+                SmpSimulator.Result res = SmpSimulator.run("Round Robin", in, c);
+                Set<String> drawn = new HashSet<>();
+                for (Timeline t : res.lanes) {
+                    for (int i = 0; i < t.size(); i++) {
+                        if (!t.isOverhead(i)) drawn.add(t.pid(i) + " " + t.color(i));
+                    }
+                }
+                Set<String> rows = new HashSet<>();
+                for (ProcessModel p : in) rows.add(p.pid + " " + p.color);
+                assertEquals(rows, drawn, queues + (stealing ? " with stealing" : ""));
+            }
+        }
+    }
+
+    @Test
+    void mlfqSlicesStayWithinTheirLevelQuantum() {
+        for (SmpSimulator.Queues queues : SmpSimulator.Queues.values()) {
+            for (boolean stealing : new boolean[] {false, true}) {
+                for (int seed = 1; seed <= 60; seed++) {
+                    SimulationConfig c = new SimulationConfig(2, SimulationMonitor.NONE);
+                    c.cpus = 1 + seed % 4;
+                    c.queues = queues;
+                    c.workStealing = stealing;
+                    c.levels = 3;
+                    c.boostInterval = seed % 2 == 0 ? 0 : 50;
+                    if (seed % 3 == 0) c.levelQuanta = new int[] {1, 3, 5};
+                    String where = queues + (stealing ? " with stealing" : "") + ", " + c.cpus + " CPUs, seed " + seed;
+
+                    SmpSimulator.Result res = SmpSimulator.run(MlfqPolicy.NAME, busyWorkload(seed), c);
+                    for (int cpu = 0; cpu < res.cpus(); cpu++) {
+                        Timeline t = res.lanes[cpu];
+                        for (int i = 0; i < t.size(); i++) {
+                            if (t.tag(i) < 0) continue;
+                            int quantum = c.levelQuanta != null ? c.levelQuanta[t.tag(i)] : c.quantum << t.tag(i);
+                            assertTrue(t.end(i) - t.start(i) <= quantum, where + ": CPU " + cpu + " ran " + t.pid(i)
+                                    + " " + t.start(i) + "-" + t.end(i) + " at level " + t.tag(i));
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+// WorkloadGeneratorTest.java
+// Reproducibility by seed, independence of the arrival, burst and priority streams, trace
+// replay, and spec parsing.
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import org.junit.jupiter.api.Test;
+
+class WorkloadGeneratorTest {
+    private static final String[] SPECS = {
+        "count=2000,seed=3",
+        "count=2000,seed=3,arrivals=bursty,rate=0.5,on=50,off=400,bursts=pareto,shape=1.2,mean=20",
+        "count=2000,seed=9,bursts=bimodal,short=1,long=80,longfraction=0.3,priorities=weighted,weights=1:0:3",
+        "count=2000,seed=9,priorities=weighted,levels=4,maxburst=7",
+    };
+
+    private static String rows(Iterable<ProcessModel> processes) {
+        StringBuilder sb = new StringBuilder();
+        for (ProcessModel p : processes) {
+            sb.append(p.pid).append(',').append(p.arrival).append(',').append(p.burst).append(',').append(p.priority).append('\n');
+        }
+        return sb.toString();
+    }
+
+    private static int[] column(List<ProcessModel> processes, int which) {
+        int[] c = new int[processes.size()];
+        for (int i = 0; i < c.length; i++) {
+            ProcessModel p = processes.get(i);
+            c[i] = which == 0 ? p.arrival : which == 1 ? p.burst : p.priority;
+        }
+        return c;
+    }
+
+    @Test
+    void sameSeedAndSettingsGiveTheSameProcesses() {
+        for (String spec : SPECS) {
+            WorkloadGenerator g = WorkloadGenerator.fromSpec(spec);
+            String first = rows(g);
+            assertEquals(first, rows(g), spec + ": second iteration");
+            assertEquals(first, rows(WorkloadGenerator.fromSpec(spec)), spec + ": new generator");
+            assertEquals(first, rows(g.toList()), spec + ": toList");
+            ProcessTable t = g.toTable();
+            assertEquals(first, rows(t.toModels(false)), spec + ": toTable");
+            assertNotEquals(first, rows(WorkloadGenerator.fromSpec(spec + ",seed=4")), spec + ": other seed");
+
+            int last = -1;
+            for (ProcessModel p : g) {
+                assertTrue(p.arrival >= last, spec + ": arrivals out of order");
+                assertTrue(p.burst >= 1 && p.burst <= g.maxBurst, spec + ": burst " + p.burst);
+                assertTrue(p.priority >= 0, spec);
+                last = p.arrival;
+            }
+        }
+    }
+
+    // changing one model leaves the other two streams exactly as they were
+    @Test
+    void streamsAreIndependent() {
+        List<ProcessModel> base = WorkloadGenerator.fromSpec("count=3000,seed=5").toList();
+        List<ProcessModel> bursts = WorkloadGenerator.fromSpec("count=3000,seed=5,bursts=pareto,mean=30").toList();
+        List<ProcessModel> arrivals = WorkloadGenerator.fromSpec("count=3000,seed=5,arrivals=bursty,rate=2").toList();
+        List<ProcessModel> priorities = WorkloadGenerator.fromSpec("count=3000,seed=5,priorities=weighted").toList();
+
+        assertArrayEquals(column(base, 0), column(bursts, 0));
+        assertArrayEquals(column(base, 2), column(bursts, 2));
+        assertFalse(Arrays.equals(column(base, 1), column(bursts, 1)));
+
+        assertArrayEquals(column(base, 1), column(arrivals, 1));
+        assertArrayEquals(column(base, 2), column(arrivals, 2));
+        assertFalse(Arrays.equals(column(base, 0), column(arrivals, 0)));
+
+        assertArrayEquals(column(base, 0), column(priorities, 0));
+        assertArrayEquals(column(base, 1), column(priorities, 1));
+        assertFalse(Arrays.equals(column(base, 2), column(priorities, 2)));
+    }
+
+    @Test
+    void traceRepeatsShiftedPastItsEnd() {
+        WorkloadGenerator g = new WorkloadGenerator();
+        g.arrivals = WorkloadGenerator.ArrivalModel.TRACE;
+        g.traceArrivals = new int[] {0, 5, 10};
+        g.count = 7;
+        // span 10, plus one mean gap (10 / 3 = 3) per repetition
+        assertArrayEquals(new int[] {0, 5, 10, 13, 18, 23, 26}, column(g.toList(), 0));
+    }
+
+    @Test
+    void specRejectsBadSettings() {
+        String[] bad = {
+            "seed", "colour=red", "count=ten", "count=-1", "rate=0", "arrivals=sometimes",
+            "bursts=pareto,shape=1", "mean=0.5", "maxburst=0", "bursts=bimodal,longfraction=2",
+            "levels=0", "arrivals=bursty,on=0", "arrivals=trace", "priorities=weighted,weights=1:-1",
+            "priorities=weighted,weights=0:0", "priorities=weighted,weights=1:x",
+        };
+        for (String spec : bad) {
+            assertThrows(IllegalArgumentException.class, () -> WorkloadGenerator.fromSpec(spec), spec);
+        }
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> WorkloadGenerator.fromSpec("count=ten"));
+        assertTrue(ex.getMessage().contains("count"), ex.getMessage());
+
+        WorkloadGenerator g = WorkloadGenerator.fromSpec(" Count = 12 , SEED=7,, bursts=Bimodal ");
+        assertEquals(12, g.count);
+        assertEquals(7, g.seed);
+        assertEquals(WorkloadGenerator.BurstModel.BIMODAL, g.bursts);
+    }
+}
@@ -0,0 +1,123 @@
+package scheduler.bench;
+
+import java.awt.Color;
+import java.awt.Graphics;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+
+// Bridge to the application classes. They live in the default package, which cannot be
+// imported from a named one (and JMH refuses benchmarks in the default package), so they
+// are reached through method handles; static final handles are inlined by the JIT.
+final class Api {
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.publicLookup();
+
+    static final Class<?> PROCESS_MODEL = load("ProcessModel");
+    static final Class<?> RESULT = load("Scheduler$Result");
+    static final Class<?> TIMELINE = load("Timeline");
+    static final Class<?> GANTT_PANEL = load("GanttPanel");
+    static final Class<?> WORKLOAD_GENERATOR = load("WorkloadGenerator");
+
+    static final MethodHandle NEW_PROCESS = constructor(PROCESS_MODEL,
+            String.class, int.class, int.class, int.class, Color.class);
+    static final MethodHandle WORKLOAD_FROM_SPEC = staticMethod("WorkloadGenerator", "fromSpec",
+            MethodType.methodType(WORKLOAD_GENERATOR, String.class));
+    static final MethodHandle WORKLOAD_TO_LIST = virtual(WORKLOAD_GENERATOR, "toList",
+            MethodType.methodType(List.class));
+    static final MethodHandle FCFS = scheduler("fcfs");
+    static final MethodHandle SJF = scheduler("sjfNonPreemptive");
+    static final MethodHandle PRIORITY = scheduler("priorityNonPreemptive");
+    static final MethodHandle ROUND_ROBIN = staticMethod("Scheduler", "roundRobin",
+            MethodType.methodType(RESULT, List.class, int.class));
+    static final MethodHandle COMPUTE_METRICS = staticMethod("Scheduler", "computeMetrics",
+            MethodType.methodType(Map.class, RESULT));
+    static final MethodHandle RESULT_GANTT = getter(RESULT, "gantt", TIMELINE);
+
+    static final MethodHandle NEW_TIMELINE = constructor(TIMELINE);
+    static final MethodHandle ADD_PROCESS = virtual(TIMELINE, "addProcess",
+            MethodType.methodType(int.class, String.class, Color.class));
+    static final MethodHandle ADD_SLICE = virtual(TIMELINE, "add",
+            MethodType.methodType(void.class, int.class, int.class, int.class));
+
+    static final MethodHandle NEW_PANEL = constructor(GANTT_PANEL);
+    static final MethodHandle SET_GANTT = virtual(GANTT_PANEL, "setGantt",
+            MethodType.methodType(void.class, TIMELINE));
+    static final MethodHandle SET_SCALE = virtual(GANTT_PANEL, "setScale",
+            MethodType.methodType(void.class, double.class));
+    static final MethodHandle PAINT_COMPONENT = paintComponent();
+
+    private Api() {
+    }
+
+    // Blocks until the panel's zoomed-out summary has been built in the background.
+    static void awaitOverview(Object panel) throws Exception {
+        Field f = GANTT_PANEL.getDeclaredField("pyramid");
+        f.setAccessible(true);
+        long deadline = System.nanoTime() + 120_000_000_000L;
+        while (System.nanoTime() < deadline) {
+            Object pyramid = f.get(panel);
+            if (pyramid != null && (boolean) pyramid.getClass().getMethod("isReady").invoke(pyramid)) return;
+            Thread.sleep(10);
+        }
+        throw new IllegalStateException("overview was not built in time");
+    }
+
+    private static Class<?> load(String name) {
+        try {
+            return Class.forName(name);
+        } catch (ClassNotFoundException ex) {
+            throw new ExceptionInInitializerError(ex);
+        }
+    }
+
+    private static MethodHandle scheduler(String name) {
+        return staticMethod("Scheduler", name, MethodType.methodType(RESULT, List.class));
+    }
+
+    private static MethodHandle staticMethod(String owner, String name, MethodType type) {
+        try {
+            return LOOKUP.findStatic(load(owner), name, type);
+        } catch (ReflectiveOperationException ex) {
+            throw new ExceptionInInitializerError(ex);
+        }
+    }
+
+    private static MethodHandle virtual(Class<?> owner, String name, MethodType type) {
+        try {
+            return LOOKUP.findVirtual(owner, name, type);
+        } catch (ReflectiveOperationException ex) {
+            throw new ExceptionInInitializerError(ex);
+        }
+    }
+
+    private static MethodHandle constructor(Class<?> owner, Class<?>... params) {
+        try {
+            return LOOKUP.findConstructor(owner, MethodType.methodType(void.class, params));
+        } catch (ReflectiveOperationException ex) {
+            throw new ExceptionInInitializerError(ex);
+        }
+    }
+
+    private static MethodHandle getter(Class<?> owner, String name, Class<?> type) {
+        try {
+            return LOOKUP.findGetter(owner, name, type);
+        } catch (ReflectiveOperationException ex) {
+            throw new ExceptionInInitializerError(ex);
+        }
+    }
+
+    // paintComponent is protected; the benchmark calls it directly like Swing would
+    private static MethodHandle paintComponent() {
+        try {
+            Method m = GANTT_PANEL.getDeclaredMethod("paintComponent", Graphics.class);
+            m.setAccessible(true);
+            return MethodHandles.lookup().unreflect(m);
+        } catch (ReflectiveOperationException ex) {
+            throw new ExceptionInInitializerError(ex);
+        }
+    }
+}
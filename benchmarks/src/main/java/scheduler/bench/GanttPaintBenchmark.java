@@ -0,0 +1,80 @@
+package scheduler.bench;
+
+import org.openjdk.jmh.annotations.*;
+
+import javax.swing.JComponent;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Offscreen GanttPanel.paintComponent of one 1600 px wide viewport in the middle of the
+// chart. "cold" drops the tile cache first (as after a zoom), "cached" only blits tiles.
+// Scales below 2 px/unit use the zoomed-out summary.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g", "-Djava.awt.headless=true"})
+@State(Scope.Benchmark)
+public class GanttPaintBenchmark {
+    private static final int VIEW_WIDTH = 1600;
+    private static final int VIEW_HEIGHT = 220;
+
+    @Param({"1000", "100000", "1000000"})
+    int slices;
+
+    @Param({"30", "1", "0.01"})
+    double scale;
+
+    private JComponent panel;
+    private BufferedImage image;
+    private Graphics2D g;
+
+    @Setup
+    public void setup() throws Throwable {
+        System.setProperty("java.awt.headless", "true");
+        Object timeline = Api.NEW_TIMELINE.invoke();
+        SplittableRandom rng = new SplittableRandom(42);
+        int[] procs = new int[64];
+        for (int p = 0; p < procs.length; p++) {
+            procs[p] = (int) Api.ADD_PROCESS.invoke(timeline, "P" + (p + 1),
+                    new java.awt.Color(rng.nextInt(0x1000000)));
+        }
+        int time = 0;
+        for (int i = 0; i < slices; i++) {
+            int end = time + 1 + rng.nextInt(5);
+            Api.ADD_SLICE.invoke(timeline, procs[rng.nextInt(procs.length)], time, end);
+            time = end + (rng.nextInt(8) == 0 ? rng.nextInt(4) : 0);
+        }
+        panel = (JComponent) Api.NEW_PANEL.invoke();
+        Api.SET_GANTT.invoke(panel, timeline);
+        Api.SET_SCALE.invoke(panel, scale);
+        panel.setSize(panel.getPreferredSize().width, VIEW_HEIGHT);
+        if (scale < 2) Api.awaitOverview(panel);
+
+        image = new BufferedImage(VIEW_WIDTH, VIEW_HEIGHT, BufferedImage.TYPE_INT_RGB);
+        g = image.createGraphics();
+        int x = Math.max(0, panel.getWidth() / 2 - VIEW_WIDTH / 2);
+        g.translate(-x, 0);
+        g.setClip(x, 0, VIEW_WIDTH, VIEW_HEIGHT);
+    }
+
+    @TearDown
+    public void tearDown() {
+        g.dispose();
+    }
+
+    @Benchmark
+    public BufferedImage paintCold() throws Throwable {
+        Api.SET_SCALE.invoke(panel, scale); // invalidates the tile cache
+        Api.PAINT_COMPONENT.invoke(panel, g);
+        return image;
+    }
+
+    @Benchmark
+    public BufferedImage paintCached() throws Throwable {
+        Api.PAINT_COMPONENT.invoke(panel, g);
+        return image;
+    }
+}
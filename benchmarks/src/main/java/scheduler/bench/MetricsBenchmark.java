@@ -0,0 +1,33 @@
+package scheduler.bench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// computeMetrics on a finished result: FCFS has one slice per process, RR q=1 many more.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g", "-Djava.awt.headless=true"})
+@State(Scope.Benchmark)
+public class MetricsBenchmark {
+    @Param({"1000", "100000", "1000000", "10000000"})
+    int size;
+
+    @Param({"fcfs", "rr"})
+    String algorithm;
+
+    private Object result;
+
+    @Setup
+    public void setup() throws Throwable {
+        Object input = Workloads.generate(size, "bursty", 42);
+        result = "rr".equals(algorithm) ? Api.ROUND_ROBIN.invoke(input, 1) : Api.FCFS.invoke(input);
+    }
+
+    @Benchmark
+    public Object computeMetrics() throws Throwable {
+        return Api.COMPUTE_METRICS.invoke(result);
+    }
+}
@@ -0,0 +1,36 @@
+package scheduler.bench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Round Robin across quanta; small quanta multiply the number of slices.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g", "-Djava.awt.headless=true"})
+@State(Scope.Benchmark)
+public class RoundRobinBenchmark {
+    @Param({"1000", "100000", "1000000", "10000000"})
+    int size;
+
+    @Param({"dense", "bursty", "sparse"})
+    String arrivals;
+
+    @Param({"1", "4", "16"})
+    int quantum;
+
+    private List<Object> input;
+
+    @Setup
+    public void setup() throws Throwable {
+        input = Workloads.generate(size, arrivals, 42);
+    }
+
+    @Benchmark
+    public Object roundRobin() throws Throwable {
+        return Api.ROUND_ROBIN.invoke(input, quantum);
+    }
+}
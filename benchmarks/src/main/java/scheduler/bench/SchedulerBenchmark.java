@@ -0,0 +1,43 @@
+package scheduler.bench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Batch schedulers over 1k..10M processes and three arrival patterns.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g", "-Djava.awt.headless=true"})
+@State(Scope.Benchmark)
+public class SchedulerBenchmark {
+    @Param({"1000", "100000", "1000000", "10000000"})
+    int size;
+
+    @Param({"dense", "bursty", "sparse"})
+    String arrivals;
+
+    private List<Object> input;
+
+    @Setup
+    public void setup() throws Throwable {
+        input = Workloads.generate(size, arrivals, 42);
+    }
+
+    @Benchmark
+    public Object fcfs() throws Throwable {
+        return Api.FCFS.invoke(input);
+    }
+
+    @Benchmark
+    public Object sjfNonPreemptive() throws Throwable {
+        return Api.SJF.invoke(input);
+    }
+
+    @Benchmark
+    public Object priorityNonPreemptive() throws Throwable {
+        return Api.PRIORITY.invoke(input);
+    }
+}
@@ -0,0 +1,26 @@
+package scheduler.bench;
+
+import java.util.List;
+
+// Seeded process lists from the application's WorkloadGenerator. Bursts are exponential with
+// mean 10 and priorities uniform over 0..9 throughout; only the arrival pattern changes:
+//   dense  - Poisson at 2 arrivals per unit, the ready queue keeps growing
+//   bursty - on/off source, ~256 arrivals per on period, off periods about long enough to drain them
+//   sparse - Poisson at 0.02 per unit, so the CPU is mostly idle
+final class Workloads {
+    private Workloads() {
+    }
+
+    @SuppressWarnings("unchecked")
+    static List<Object> generate(int n, String arrivals, long seed) throws Throwable {
+        String pattern;
+        switch (arrivals) {
+            case "dense": pattern = "arrivals=poisson,rate=2"; break;
+            case "bursty": pattern = "arrivals=bursty,rate=4,on=64,off=2400"; break;
+            case "sparse": pattern = "arrivals=poisson,rate=0.02"; break;
+            default: throw new IllegalArgumentException("Unknown arrival pattern: " + arrivals);
+        }
+        Object generator = Api.WORKLOAD_FROM_SPEC.invoke("count=" + n + ",seed=" + seed + ",mean=10," + pattern);
+        return (List<Object>) Api.WORKLOAD_TO_LIST.invoke(generator);
+    }
+}